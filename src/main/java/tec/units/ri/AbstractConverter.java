@@ -29,18 +29,32 @@
  */
 package tec.units.ri;
 
+import java.math.BigInteger;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import javax.measure.UnitConverter;
 
+import tec.units.ri.function.AddConverter;
+import tec.units.ri.function.AffineConverter;
+import tec.units.ri.function.ExpConverter;
+import tec.units.ri.function.LogConverter;
+import tec.units.ri.function.MultiplyConverter;
+import tec.units.ri.function.PiDivisorConverter;
+import tec.units.ri.function.PiMultiplierConverter;
+import tec.units.ri.function.RationalConverter;
+
 /**
  * <p>
  * The base class for our {@link UnitConverter} implementations.
  * </p>
  *
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.8.1, $Date: 2016-01-17 $
+ * @version 1.0, $Date: 2016-10-16 $
  */
 public abstract class AbstractConverter implements UnitConverter {
 
@@ -59,6 +73,22 @@ public abstract class AbstractConverter implements UnitConverter {
    */
   public static final AbstractConverter IDENTITY = new Identity();
 
+  /**
+   * Holds the canonical converters (weakly referenced so that unused converters can be collected).
+   */
+  private static final Map<AbstractConverter, WeakReference<AbstractConverter>> POOL = new WeakHashMap<AbstractConverter,
+      WeakReference<AbstractConverter>>();
+
+  /**
+   * Holds the number of values converted at once by the <code>float</code> block conversions of composite converters.
+   */
+  private static final int CHUNK_SIZE = 256;
+
+  /**
+   * Holds the inverse of this converter (computed on first use).
+   */
+  private volatile AbstractConverter inverse;
+
   /**
    * Default constructor.
    */
@@ -74,7 +104,7 @@ public abstract class AbstractConverter implements UnitConverter {
    * @return the concatenation of this converter with that converter.
    */
   public AbstractConverter concatenate(AbstractConverter that) {
-    return (that == IDENTITY) ? this : new Pair(this, that);
+    return (AbstractConverter) concatenate((UnitConverter) that); // Allows sub-classes simplifications.
   }
 
   public boolean isIdentity() {
@@ -87,12 +117,199 @@ public abstract class AbstractConverter implements UnitConverter {
   @Override
   public abstract int hashCode();
 
+  /**
+   * Returns the inverse of this converter. The inverse is computed once (see {@link #createInverse()}) and points back to this converter, so that
+   * <code>inverse().inverse()</code> returns this very instance.
+   *
+   * @return the inverse of this converter.
+   */
   @Override
-  public abstract AbstractConverter inverse();
+  public AbstractConverter inverse() {
+    AbstractConverter result = inverse;
+    if (result == null) {
+      result = createInverse();
+      if (result.inverse == null)
+        result.inverse = this;
+      inverse = result;
+    }
+    return result;
+  }
 
+  /**
+   * Creates the inverse of this converter, called only once by {@link #inverse()}. The returned instance should not be shared (e.g. interned) since
+   * its own inverse is set to this converter.
+   *
+   * @return a new inverse of this converter.
+   */
+  protected abstract AbstractConverter createInverse();
+
+  /**
+   * Concatenates this converter with another converter. The resulting converter is simplified (see {@link #simplify(UnitConverter, UnitConverter)}).
+   */
   @Override
   public UnitConverter concatenate(UnitConverter converter) {
-    return (converter == IDENTITY) ? this : new Pair(this, converter);
+    return (converter == IDENTITY) ? this : simplify(this, converter);
+  }
+
+  /**
+   * Returns the simplest converter equivalent to the concatenation of the specified converters (the right converter being applied first). Nested
+   * pairs are re-associated into a single sequence of steps which is rewritten until no rule applies:
+   * <ul>
+   * <li>identity steps are removed,</li>
+   * <li>consecutive scaling steps ({@link MultiplyConverter}, {@link RationalConverter}, {@link PiMultiplierConverter}, {@link PiDivisorConverter})
+   * are merged, exactly if no {@link MultiplyConverter} is involved (rational factor followed by powers of π) or into a single
+   * {@link MultiplyConverter} otherwise,</li>
+   * <li>consecutive offsets ({@link AddConverter}) and {@link AffineConverter affine} steps are folded,</li>
+   * <li>inverse pairs such as logarithm and exponential of the same base cancel each other.</li>
+   * </ul>
+   *
+   * @param left
+   *          the converter applied last.
+   * @param right
+   *          the converter applied first.
+   * @return the simplified concatenation (a single step or a {@link Pair} of simplified steps).
+   */
+  protected static UnitConverter simplify(UnitConverter left, UnitConverter right) {
+    List<UnitConverter> steps = new ArrayList<UnitConverter>();
+    flatten(right, steps);
+    flatten(left, steps);
+    boolean changed;
+    do {
+      changed = false;
+      final List<UnitConverter> result = new ArrayList<UnitConverter>(steps.size());
+      int i = 0;
+      while (i < steps.size()) {
+        UnitConverter step = steps.get(i);
+        if (isScalar(step)) {
+          int j = i + 1;
+          while ((j < steps.size()) && isScalar(steps.get(j))) {
+            j++;
+          }
+          List<UnitConverter> run = steps.subList(i, j);
+          List<UnitConverter> folded = foldScalars(run);
+          changed |= !folded.equals(run);
+          result.addAll(folded);
+          i = j;
+          continue;
+        }
+        if (step.isIdentity()) {
+          changed = true;
+        } else {
+          UnitConverter merged = result.isEmpty() ? null : merge(result.get(result.size() - 1), step);
+          if (merged == null) {
+            result.add(step);
+          } else {
+            changed = true;
+            result.remove(result.size() - 1);
+            if (!merged.isIdentity())
+              result.add(merged);
+          }
+        }
+        i++;
+      }
+      steps = result;
+    } while (changed);
+    if (steps.isEmpty())
+      return IDENTITY;
+    UnitConverter converter = steps.get(0);
+    for (int i = 1; i < steps.size(); i++) {
+      converter = intern(new Pair(steps.get(i), converter));
+    }
+    return converter;
+  }
+
+  private static boolean isScalar(UnitConverter step) {
+    return (step instanceof RationalConverter) || (step instanceof MultiplyConverter) || (step instanceof PiMultiplierConverter)
+        || (step instanceof PiDivisorConverter);
+  }
+
+  /**
+   * Merges a run of scaling steps into its canonical form.
+   */
+  private static List<UnitConverter> foldScalars(List<UnitConverter> run) {
+    BigInteger dividend = BigInteger.ONE;
+    BigInteger divisor = BigInteger.ONE;
+    double factor = 1.0;
+    boolean inexact = false;
+    int piPower = 0;
+    for (UnitConverter step : run) {
+      if (step instanceof RationalConverter) {
+        dividend = dividend.multiply(((RationalConverter) step).getExactDividend());
+        divisor = divisor.multiply(((RationalConverter) step).getExactDivisor());
+      } else if (step instanceof MultiplyConverter) {
+        factor *= ((MultiplyConverter) step).getFactor();
+        inexact = true;
+      } else if (step instanceof PiMultiplierConverter) {
+        piPower++;
+      } else {
+        piPower--;
+      }
+    }
+    final List<UnitConverter> folded = new ArrayList<UnitConverter>(2);
+    if (inexact) {
+      if (!dividend.equals(divisor))
+        factor *= RationalConverter.of(dividend, divisor).getAsDouble();
+      for (; piPower > 0; piPower--) {
+        factor *= PI;
+      }
+      for (; piPower < 0; piPower++) {
+        factor /= PI;
+      }
+      if (factor != 1.0)
+        folded.add(MultiplyConverter.of(factor));
+    } else {
+      if (!dividend.equals(divisor))
+        folded.add(RationalConverter.of(dividend, divisor));
+      for (; piPower > 0; piPower--) {
+        folded.add(new PiMultiplierConverter());
+      }
+      for (; piPower < 0; piPower++) {
+        folded.add(new PiDivisorConverter());
+      }
+    }
+    return folded;
+  }
+
+  /**
+   * Merges two consecutive non-scaling steps (the first one being applied first).
+   *
+   * @return the merged step (possibly the identity) or <code>null</code> if no rule applies.
+   */
+  private static UnitConverter merge(UnitConverter first, UnitConverter second) {
+    if ((first instanceof AddConverter) && (second instanceof AddConverter)) {
+      double offset = ((AddConverter) first).getOffset() + ((AddConverter) second).getOffset();
+      return (offset == 0.0) ? IDENTITY : AddConverter.of(offset);
+    }
+    if ((first instanceof AffineConverter) && (second instanceof AffineConverter)) {
+      AffineConverter a = (AffineConverter) first;
+      AffineConverter b = (AffineConverter) second;
+      return AffineConverter.of(b.getFactor() * a.getFactor(), b.getFactor() * a.getOffset() + b.getOffset());
+    }
+    if ((first instanceof LogConverter) && (second instanceof ExpConverter))
+      return (((LogConverter) first).getBase() == ((ExpConverter) second).getBase()) ? IDENTITY : null;
+    if ((first instanceof ExpConverter) && (second instanceof LogConverter))
+      return (((ExpConverter) first).getBase() == ((LogConverter) second).getBase()) ? IDENTITY : null;
+    return null;
+  }
+
+  /**
+   * Returns the canonical instance of the specified converter. Equal converters interned through this method are the same instance, which makes
+   * their comparison a reference check. Canonical instances are weakly held, they are collected once no longer referenced elsewhere.
+   *
+   * @param converter
+   *          the converter to intern.
+   * @return the canonical converter equal to the one specified.
+   */
+  @SuppressWarnings("unchecked")
+  public static <C extends AbstractConverter> C intern(C converter) {
+    synchronized (POOL) {
+      WeakReference<AbstractConverter> ref = POOL.get(converter);
+      AbstractConverter canonical = (ref != null) ? ref.get() : null;
+      if ((canonical != null) && (canonical.getClass() == converter.getClass()))
+        return (C) canonical;
+      POOL.put(converter, new WeakReference<AbstractConverter>(converter));
+      return converter;
+    }
   }
 
   @Override
@@ -116,6 +333,247 @@ public abstract class AbstractConverter implements UnitConverter {
 
   public abstract double convert(double value);
 
+  /**
+   * Converts the specified integer value, truncating the result toward zero (as by a <code>(long)</code> cast). The default implementation converts
+   * through {@link #convert(double)}; converters with an exact integer representation (e.g. {@link RationalConverter}) use integer arithmetic
+   * instead.
+   *
+   * @param value
+   *          the value to convert.
+   * @return the converted value truncated toward zero.
+   * @throws ArithmeticException
+   *           if the converted value overflows a <code>long</code>.
+   */
+  public long convertLong(long value) {
+    double result = convert((double) value);
+    if ((result < Long.MIN_VALUE) || (result >= Long.MAX_VALUE) || Double.isNaN(result))
+      throw new ArithmeticException("Overflow (" + result + ")");
+    return (long) result;
+  }
+
+  /**
+   * Converts the specified integer value exactly. The default implementation converts through {@link #convert(double)} and is therefore exact only
+   * within the precision of <code>double</code>; converters with an exact integer representation (e.g. {@link RationalConverter}) use integer
+   * arithmetic instead.
+   *
+   * @param value
+   *          the value to convert.
+   * @return the exact converted value.
+   * @throws ArithmeticException
+   *           if the converted value is not an integer or overflows a <code>long</code>.
+   */
+  public long convertExact(long value) {
+    double result = convert((double) value);
+    if ((result < Long.MIN_VALUE) || (result >= Long.MAX_VALUE) || Double.isNaN(result))
+      throw new ArithmeticException("Overflow (" + result + ")");
+    if (result != Math.rint(result))
+      throw new ArithmeticException("Inexact conversion of " + value);
+    return (long) result;
+  }
+
+  /**
+   * Converts a block of <code>double</code> values. The source and destination may be the same array, in which case their ranges must either be
+   * identical (in-place conversion) or not overlap.
+   * <p>
+   * The default implementation converts each value through {@link #convert(double)}, sub-classes override it with a loop over the whole block.
+   * </p>
+   *
+   * @param src
+   *          the values to convert.
+   * @param srcOff
+   *          the index of the first value to convert.
+   * @param dst
+   *          the array receiving the converted values.
+   * @param dstOff
+   *          the index of the first converted value in the destination array.
+   * @param len
+   *          the number of values to convert.
+   * @throws IndexOutOfBoundsException
+   *           if either range is outside of its array bounds.
+   */
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = convert(src[srcOff + i]);
+    }
+  }
+
+  /**
+   * Converts a block of <code>float</code> values. The conversion of each value is performed using <code>double</code> arithmetic, the source and
+   * destination ranges follow the same rules as for {@link #convert(double[], int, double[], int, int)}.
+   *
+   * @param src
+   *          the values to convert.
+   * @param srcOff
+   *          the index of the first value to convert.
+   * @param dst
+   *          the array receiving the converted values.
+   * @param dstOff
+   *          the index of the first converted value in the destination array.
+   * @param len
+   *          the number of values to convert.
+   * @throws IndexOutOfBoundsException
+   *           if either range is outside of its array bounds.
+   */
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) convert((double) src[srcOff + i]);
+    }
+  }
+
+  /**
+   * Converts the specified values in place.
+   *
+   * @param values
+   *          the values to convert.
+   */
+  public void convert(double[] values) {
+    convert(values, 0, values, 0, values.length);
+  }
+
+  /**
+   * Converts the specified values in place.
+   *
+   * @param values
+   *          the values to convert.
+   */
+  public void convert(float[] values) {
+    convert(values, 0, values, 0, values.length);
+  }
+
+  /**
+   * Checks the bounds of a block conversion up front, so that no value is written if one of the ranges is invalid.
+   *
+   * @throws IndexOutOfBoundsException
+   *           if either range is outside of its array bounds.
+   */
+  protected static void checkRange(int srcLength, int srcOff, int dstLength, int dstOff, int len) {
+    if ((len < 0) || (srcOff < 0) || (dstOff < 0) || (srcOff > srcLength - len) || (dstOff > dstLength - len))
+      throw new IndexOutOfBoundsException("Invalid block [srcOff=" + srcOff + ", dstOff=" + dstOff + ", len=" + len + "]");
+  }
+
+  /**
+   * Converts a block of <code>float</code> values through <code>double</code> chunks converted by {@link #convert(double[], int, double[], int, int)}
+   * (composite converters), so that the intermediate results are not rounded to <code>float</code> between stages.
+   */
+  private static void convertChunked(AbstractConverter converter, float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    double[] chunk = new double[Math.min(len, CHUNK_SIZE)];
+    for (int done = 0; done < len; done += chunk.length) {
+      int n = Math.min(chunk.length, len - done);
+      for (int i = 0; i < n; i++) {
+        chunk[i] = src[srcOff + done + i];
+      }
+      converter.convert(chunk, 0, chunk, 0, n);
+      for (int i = 0; i < n; i++) {
+        dst[dstOff + done + i] = (float) chunk[i];
+      }
+    }
+  }
+
+  /**
+   * Converts a block of values with the specified converter, using the block conversion when available.
+   */
+  private static void convertBlock(UnitConverter converter, double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    if (converter instanceof AbstractConverter) {
+      ((AbstractConverter) converter).convert(src, srcOff, dst, dstOff, len);
+    } else {
+      checkRange(src.length, srcOff, dst.length, dstOff, len);
+      for (int i = 0; i < len; i++) {
+        dst[dstOff + i] = converter.convert(src[srcOff + i]);
+      }
+    }
+  }
+
+  /**
+   * Returns a converter equivalent to the specified one but in a flat, normalized form suitable for repeated conversions. Any run of linear converters
+   * (e.g. {@link MultiplyConverter}, {@link RationalConverter}, Pi multipliers/divisors, identity) and {@link AddConverter
+   * offsets} is folded into a single {@link AffineConverter} step (<code>a * x + b</code>), or into an exact {@link RationalConverter} if only
+   * rational converters are folded. Remaining non-linear steps (e.g. logarithmic or exponential converters) are kept in application order as the
+   * stages of a {@link Chain}, so that no nested {@link Pair} is walked at conversion time.
+   *
+   * @param converter
+   *          the converter to compile.
+   * @return the compiled converter (the specified converter itself if it is already a single step).
+   */
+  public static AbstractConverter compile(UnitConverter converter) {
+    if ((converter instanceof AbstractConverter) && !(converter instanceof Pair) && !(converter instanceof Chain))
+      return (AbstractConverter) converter; // Already a single step.
+    final List<UnitConverter> steps = new ArrayList<UnitConverter>();
+    flatten(converter, steps);
+    final List<UnitConverter> stages = new ArrayList<UnitConverter>();
+    double factor = 1.0;
+    double offset = 0.0;
+    BigInteger dividend = BigInteger.ONE; // Exact factor while only rational steps are folded.
+    BigInteger divisor = BigInteger.ONE;
+    boolean exact = true;
+    for (UnitConverter step : steps) {
+      if (step.isIdentity()) {
+        continue;
+      } else if (step instanceof AddConverter) {
+        offset += ((AddConverter) step).getOffset();
+        exact = false;
+      } else if (step instanceof AffineConverter) {
+        AffineConverter affine = (AffineConverter) step;
+        factor *= affine.getFactor();
+        offset = offset * affine.getFactor() + affine.getOffset();
+        exact = false;
+      } else if ((step instanceof AbstractConverter) && step.isLinear()) {
+        double scale = step.convert(1.0); // Linear converters are pure scaling.
+        factor *= scale;
+        offset *= scale;
+        if (exact && (step instanceof RationalConverter)) {
+          dividend = dividend.multiply(((RationalConverter) step).getExactDividend());
+          divisor = divisor.multiply(((RationalConverter) step).getExactDivisor());
+        } else {
+          exact = false;
+        }
+      } else { // Non-linear (or foreign) stage.
+        addAffine(stages, factor, offset, exact ? dividend : null, divisor);
+        factor = 1.0;
+        offset = 0.0;
+        dividend = BigInteger.ONE;
+        divisor = BigInteger.ONE;
+        exact = true;
+        stages.add(step);
+      }
+    }
+    addAffine(stages, factor, offset, exact ? dividend : null, divisor);
+    if (stages.isEmpty())
+      return IDENTITY;
+    if ((stages.size() == 1) && (stages.get(0) instanceof AbstractConverter))
+      return (AbstractConverter) stages.get(0);
+    return intern(new Chain(stages.toArray(new UnitConverter[stages.size()])));
+  }
+
+  /**
+   * Appends the steps of the specified converter in application order (first applied first).
+   */
+  private static void flatten(UnitConverter converter, List<UnitConverter> steps) {
+    if (converter instanceof Pair) {
+      flatten(((Pair) converter).right, steps);
+      flatten(((Pair) converter).left, steps);
+    } else if (converter instanceof Chain) {
+      steps.addAll(Arrays.asList(((Chain) converter).stages));
+    } else {
+      steps.add(converter);
+    }
+  }
+
+  /**
+   * Appends the folded linear/affine step, as an exact {@link RationalConverter} if only rational steps have been folded (dividend not
+   * <code>null</code>).
+   */
+  private static void addAffine(List<UnitConverter> stages, double factor, double offset, BigInteger dividend, BigInteger divisor) {
+    if (dividend != null) {
+      if (!dividend.equals(divisor))
+        stages.add(RationalConverter.of(dividend, divisor));
+    } else if ((factor != 1.0) || (offset != 0.0)) {
+      stages.add(AffineConverter.of(factor, offset));
+    }
+  }
+
   /**
    * This class represents the identity converter (singleton).
    */
@@ -127,7 +585,7 @@ public abstract class AbstractConverter implements UnitConverter {
     }
 
     @Override
-    public Identity inverse() {
+    protected Identity createInverse() {
       return this;
     }
 
@@ -136,6 +594,30 @@ public abstract class AbstractConverter implements UnitConverter {
       return value;
     }
 
+    @Override
+    public long convertLong(long value) {
+      return value;
+    }
+
+    @Override
+    public long convertExact(long value) {
+      return value;
+    }
+
+    @Override
+    public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+      checkRange(src.length, srcOff, dst.length, dstOff, len);
+      if ((src != dst) || (srcOff != dstOff))
+        System.arraycopy(src, srcOff, dst, dstOff, len);
+    }
+
+    @Override
+    public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+      checkRange(src.length, srcOff, dst.length, dstOff, len);
+      if ((src != dst) || (srcOff != dstOff))
+        System.arraycopy(src, srcOff, dst, dstOff, len);
+    }
+
     @Override
     public UnitConverter concatenate(UnitConverter converter) {
       return converter;
@@ -171,6 +653,11 @@ public abstract class AbstractConverter implements UnitConverter {
      */
     private final UnitConverter right;
 
+    /**
+     * Holds the hash code (computed once).
+     */
+    private final int hashCode;
+
     /**
      * Creates a compound converter resulting from the combined transformation of the specified converters.
      *
@@ -184,6 +671,7 @@ public abstract class AbstractConverter implements UnitConverter {
     public Pair(UnitConverter left, UnitConverter right) {
       this.left = left;
       this.right = right;
+      this.hashCode = 31 * left.hashCode() + right.hashCode();
     }
 
     public boolean isLinear() {
@@ -207,6 +695,11 @@ public abstract class AbstractConverter implements UnitConverter {
 
     @Override
     public Pair inverse() {
+      return (Pair) super.inverse();
+    }
+
+    @Override
+    protected Pair createInverse() {
       return new Pair(right.inverse(), left.inverse());
     }
 
@@ -215,6 +708,23 @@ public abstract class AbstractConverter implements UnitConverter {
       return left.convert(right.convert(value));
     }
 
+    /**
+     * Applies the right converter to the whole block, then the left converter in place.
+     */
+    @Override
+    public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+      convertBlock(right, src, srcOff, dst, dstOff, len);
+      convertBlock(left, dst, dstOff, dst, dstOff, len);
+    }
+
+    /**
+     * Converts the block through <code>double</code> chunks, the intermediate result is not rounded to <code>float</code>.
+     */
+    @Override
+    public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+      convertChunked(this, src, srcOff, dst, dstOff, len);
+    }
+
     @Override
     public boolean equals(Object cvtr) {
       if (this == cvtr)
@@ -222,12 +732,12 @@ public abstract class AbstractConverter implements UnitConverter {
       if (!(cvtr instanceof Pair))
         return false;
       Pair that = (Pair) cvtr;
-      return (this.left.equals(that.left)) && (this.right.equals(that.right));
+      return (this.hashCode == that.hashCode) && (this.left.equals(that.left)) && (this.right.equals(that.right));
     }
 
     @Override
     public int hashCode() {
-      return left.hashCode() + right.hashCode();
+      return hashCode;
     }
 
     public UnitConverter getLeft() {
@@ -238,4 +748,129 @@ public abstract class AbstractConverter implements UnitConverter {
       return right;
     }
   }
+
+  /**
+   * This class represents a compiled converter made up of a flat sequence of stages applied in order (the first stage is applied first). Instances
+   * are created by {@link AbstractConverter#compile(UnitConverter)}.
+   */
+  public static final class Chain extends AbstractConverter {
+
+    /**
+     * Holds the stages in application order.
+     */
+    private final UnitConverter[] stages;
+
+    /**
+     * Holds the hash code (computed once).
+     */
+    private final int hashCode;
+
+    /**
+     * Creates a chained converter applying the specified stages in order.
+     *
+     * @param stages
+     *          the stages, first applied first.
+     * @throws IllegalArgumentException
+     *           if less than two stages are specified.
+     */
+    Chain(UnitConverter[] stages) {
+      if (stages.length < 2)
+        throw new IllegalArgumentException("A chain requires at least two stages");
+      this.stages = stages;
+      this.hashCode = Arrays.hashCode(stages);
+    }
+
+    public boolean isLinear() {
+      for (UnitConverter stage : stages) {
+        if (!stage.isLinear())
+          return false;
+      }
+      return true;
+    }
+
+    @Override
+    public List<UnitConverter> getConversionSteps() {
+      final List<UnitConverter> steps = new ArrayList<UnitConverter>();
+      for (int i = stages.length - 1; i >= 0; i--) { // Same order as Pair (left first).
+        steps.addAll(stages[i].getConversionSteps());
+      }
+      return steps;
+    }
+
+    @Override
+    public Chain inverse() {
+      return (Chain) super.inverse();
+    }
+
+    @Override
+    protected Chain createInverse() {
+      final UnitConverter[] inverses = new UnitConverter[stages.length];
+      for (int i = 0; i < stages.length; i++) {
+        inverses[stages.length - 1 - i] = stages[i].inverse();
+      }
+      return new Chain(inverses);
+    }
+
+    @Override
+    public double convert(double value) {
+      for (UnitConverter stage : stages) {
+        value = stage.convert(value);
+      }
+      return value;
+    }
+
+    /**
+     * Applies the first stage to the whole block, then the following stages in place.
+     */
+    @Override
+    public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+      convertBlock(stages[0], src, srcOff, dst, dstOff, len);
+      for (int i = 1; i < stages.length; i++) {
+        convertBlock(stages[i], dst, dstOff, dst, dstOff, len);
+      }
+    }
+
+    /**
+     * Converts the block through <code>double</code> chunks, the intermediate results are not rounded to <code>float</code>.
+     */
+    @Override
+    public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+      convertChunked(this, src, srcOff, dst, dstOff, len);
+    }
+
+    @Override
+    public boolean equals(Object cvtr) {
+      if (this == cvtr)
+        return true;
+      if (!(cvtr instanceof Chain))
+        return false;
+      Chain that = (Chain) cvtr;
+      return (this.hashCode == that.hashCode) && Arrays.equals(stages, that.stages);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    /**
+     * Returns the number of stages of this chain.
+     *
+     * @return the number of stages.
+     */
+    public int getStageCount() {
+      return stages.length;
+    }
+
+    /**
+     * Returns the stage at the specified position (in application order).
+     *
+     * @param index
+     *          the stage index.
+     * @return the stage at the specified index.
+     */
+    public UnitConverter getStage(int index) {
+      return stages[index];
+    }
+  }
 }
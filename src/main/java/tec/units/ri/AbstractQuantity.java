@@ -29,7 +29,7 @@
  */
 package tec.units.ri;
 
-import java.util.Comparator;
+import java.io.IOException;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -98,7 +98,7 @@ import tec.uom.lib.common.function.ValueSupplier;
  * </p>
  * 
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.8.2, $Date: 2016-04-20 $
+ * @version 0.8.3, $Date: 2016-10-16 $
  */
 public abstract class AbstractQuantity<Q extends Quantity<Q>> implements Quantity<Q>, Comparable<Quantity<Q>>, UnitSupplier<Q>, ValueSupplier<Number> {
 
@@ -179,8 +179,7 @@ public abstract class AbstractQuantity<Q extends Quantity<Q>> implements Quantit
    * @see {@link NaturalOrder}
    */
   public int compareTo(Quantity<Q> that) {
-    final Comparator<Quantity<Q>> comparator = new NaturalOrder<Q>();
-    return comparator.compare(this, that);
+    return Double.compare(doubleValue(), doubleValueOf(that, getUnit()));
   }
 
   /**
@@ -258,6 +257,102 @@ public abstract class AbstractQuantity<Q extends Quantity<Q>> implements Quantit
 
   public abstract double doubleValue(Unit<Q> unit) throws ArithmeticException;
 
+  /**
+   * Returns the value of this quantity stated in its own unit as a <code>double</code>. Sub-classes holding a primitive value override this method
+   * so that no boxed value is created.
+   *
+   * @return the value of this quantity as a <code>double</code>.
+   */
+  public double doubleValue() {
+    return getValue().doubleValue();
+  }
+
+  /**
+   * Returns the value of this quantity stated in its own unit as a <code>long</code> (truncated toward zero). Sub-classes holding a primitive value
+   * override this method so that no boxed value is created.
+   *
+   * @return the value of this quantity as a <code>long</code>.
+   */
+  public long longValue() {
+    return getValue().longValue();
+  }
+
+  /**
+   * Appends the value of this quantity stated in its own unit to the specified destination (used by {@link QuantityFormat}). Sub-classes holding a
+   * primitive value override this method so that no boxed value is created.
+   *
+   * @param dest
+   *          the appendable destination.
+   * @return the specified destination.
+   * @throws IOException
+   *           if an I/O exception occurs.
+   */
+  public Appendable appendValue(Appendable dest) throws IOException {
+    return dest.append(getValue().toString());
+  }
+
+  /**
+   * Returns the value of the specified quantity stated in its own unit as a <code>double</code>, without boxing if the quantity is an
+   * {@link AbstractQuantity}.
+   *
+   * @param quantity
+   *          the quantity.
+   * @return the quantity value as a <code>double</code>.
+   */
+  public static double doubleValueOf(Quantity<?> quantity) {
+    if (quantity instanceof AbstractQuantity)
+      return ((AbstractQuantity<?>) quantity).doubleValue();
+    return quantity.getValue().doubleValue();
+  }
+
+  /**
+   * Returns the value of the specified quantity stated in the specified unit as a <code>double</code>. If the quantity is an {@link AbstractQuantity}
+   * neither an intermediate quantity nor a boxed value is created.
+   *
+   * @param quantity
+   *          the quantity.
+   * @param unit
+   *          the unit in which the value is stated.
+   * @return the quantity value stated in the specified unit.
+   */
+  public static <Q extends Quantity<Q>> double doubleValueOf(Quantity<Q> quantity, Unit<Q> unit) {
+    if (quantity instanceof AbstractQuantity)
+      return ((AbstractQuantity<Q>) quantity).doubleValue(unit);
+    return quantity.to(unit).getValue().doubleValue();
+  }
+
+  /**
+   * Returns the value of the specified quantity stated in its own unit as a <code>long</code>, without boxing if the quantity is an
+   * {@link AbstractQuantity}.
+   *
+   * @param quantity
+   *          the quantity.
+   * @return the quantity value as a <code>long</code>.
+   */
+  public static long longValueOf(Quantity<?> quantity) {
+    if (quantity instanceof AbstractQuantity)
+      return ((AbstractQuantity<?>) quantity).longValue();
+    return quantity.getValue().longValue();
+  }
+
+  /**
+   * Returns the value of the specified quantity stated in the specified unit as a <code>long</code> (truncated toward zero). If the quantity is an
+   * {@link AbstractQuantity} neither an intermediate quantity nor a boxed value is created.
+   *
+   * @param quantity
+   *          the quantity.
+   * @param unit
+   *          the unit in which the value is stated.
+   * @return the quantity value stated in the specified unit.
+   * @throws ArithmeticException
+   *           if the result overflows a <code>long</code>.
+   */
+  public static <Q extends Quantity<Q>> long longValueOf(Quantity<Q> quantity, Unit<Q> unit) {
+    if (quantity instanceof AbstractQuantity)
+      return ((AbstractQuantity<Q>) quantity).longValue(unit);
+    return quantity.to(unit).getValue().longValue();
+  }
+
   protected long longValue(Unit<Q> unit) throws ArithmeticException {
     double result = doubleValue(unit);
     if ((result < Long.MIN_VALUE) || (result > Long.MAX_VALUE)) {
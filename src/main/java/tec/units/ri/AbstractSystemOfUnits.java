@@ -29,10 +29,15 @@
  */
 package tec.units.ri;
 
-import java.util.HashMap;
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,22 +51,27 @@ import javax.measure.spi.SystemOfUnits;
  * An abstract base class for unit systems.
  * </p>
  *
+ * <p>
+ * The units are held in a concurrent registry indexed by dimension, units can be added at runtime while other threads read the system. The sets
+ * returned by {@link #getUnits()} and {@link #getUnits(Dimension)} are unmodifiable live views.
+ * </p>
+ *
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.5, $Date: 2015-11-23 $
+ * @version 0.7, $Date: 2016-10-16 $
  */
 public abstract class AbstractSystemOfUnits implements SystemOfUnits {
   protected static final Logger logger = Logger.getLogger(AbstractSystemOfUnits.class.getName());
 
   /**
-   * Holds the units.
+   * Holds the units (indexed by dimension).
    */
-  protected final Set<Unit<?>> units = new HashSet<Unit<?>>();
+  protected final Set<Unit<?>> units = new UnitRegistry();
 
   /**
    * Holds the mapping quantity to unit.
    */
   @SuppressWarnings("rawtypes")
-  protected final Map<Class<? extends Quantity>, Unit> quantityToUnit = new HashMap<Class<? extends Quantity>, Unit>();
+  protected final Map<Class<? extends Quantity>, Unit> quantityToUnit = new QuantityRegistry();
 
   /**
    * The natural logarithm.
@@ -84,18 +94,12 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits {
         logger.log(Level.FINEST, u + "; D: " + u.getDimension() + "; C: " + u.getClass());
       }
     }
-    return units;
+    return Collections.unmodifiableSet(units);
   }
 
   @Override
   public Set<? extends Unit<?>> getUnits(Dimension dimension) {
-    final Set<Unit<?>> set = new HashSet<Unit<?>>();
-    for (Unit<?> unit : this.getUnits()) {
-      if (dimension.equals(unit.getDimension())) {
-        set.add(unit);
-      }
-    }
-    return set;
+    return Helper.getUnitsOfDimension(units, dimension);
   }
 
   @SuppressWarnings("unchecked")
@@ -103,6 +107,16 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits {
     return quantityToUnit.get(quantityType);
   }
 
+  /**
+   * Returns a stamp which changes each time a quantity type is mapped to a unit of this system. Callers may hold the result of
+   * {@link #getUnit(Class)} for an unknown quantity type as long as the stamp is unchanged.
+   *
+   * @return the current registration stamp.
+   */
+  public int getRegistrationStamp() {
+    return ((QuantityRegistry) quantityToUnit).stamp.get();
+  }
+
   /**
    * Adds a new named unit to the collection.
    * 
@@ -156,6 +170,9 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits {
 
   protected static class Helper {
     static Set<Unit<?>> getUnitsOfDimension(final Set<Unit<?>> units, Dimension dimension) {
+      if ((dimension != null) && (units instanceof UnitRegistry)) {
+        return ((UnitRegistry) units).getUnits(dimension);
+      }
       if (dimension != null) {
         Set<Unit<?>> dimSet = new HashSet<Unit<?>>();
         for (Unit<?> u : units) {
@@ -219,4 +236,125 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits {
       return unit;
     }
   }
+
+  /**
+   * A concurrent quantity type to unit mapping counting the registrations (see {@link AbstractSystemOfUnits#getRegistrationStamp()}).
+   */
+  @SuppressWarnings("rawtypes")
+  private static final class QuantityRegistry extends ConcurrentHashMap<Class<? extends Quantity>, Unit> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicInteger stamp = new AtomicInteger();
+
+    @Override
+    public Unit put(Class<? extends Quantity> type, Unit unit) {
+      Unit previous = super.put(type, unit);
+      stamp.incrementAndGet();
+      return previous;
+    }
+
+    @Override
+    public Unit putIfAbsent(Class<? extends Quantity> type, Unit unit) {
+      Unit previous = super.putIfAbsent(type, unit);
+      if (previous == null)
+        stamp.incrementAndGet();
+      return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends Class<? extends Quantity>, ? extends Unit> map) {
+      for (Map.Entry<? extends Class<? extends Quantity>, ? extends Unit> entry : map.entrySet()) {
+        put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * A concurrent set of units maintaining a dimension to units index, queries by dimension are a single lookup. Reads are lock-free, updates are
+   * serialized and index a unit before it is published (removal unpublishes it first), so the index never misses a unit of the set.
+   */
+  private static final class UnitRegistry extends AbstractSet<Unit<?>> {
+
+    private final Set<Unit<?>> units = Collections.newSetFromMap(new ConcurrentHashMap<Unit<?>, Boolean>());
+
+    private final ConcurrentMap<Dimension, Set<Unit<?>>> unitsByDimension = new ConcurrentHashMap<Dimension, Set<Unit<?>>>();
+
+    @Override
+    public synchronized boolean add(Unit<?> unit) {
+      if (units.contains(unit))
+        return false;
+      Dimension dimension = unit.getDimension();
+      if (dimension != null)
+        unitsOf(dimension).add(unit);
+      units.add(unit);
+      return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Object obj) {
+      if (!units.remove(obj))
+        return false;
+      unindex((Unit<?>) obj);
+      return true;
+    }
+
+    private void unindex(Unit<?> unit) {
+      Dimension dimension = unit.getDimension();
+      if (dimension != null)
+        unitsOf(dimension).remove(unit);
+    }
+
+    /**
+     * Returns the indexed units of the specified dimension, the set is created on first use and never removed.
+     */
+    private Set<Unit<?>> unitsOf(Dimension dimension) {
+      Set<Unit<?>> set = unitsByDimension.get(dimension);
+      if (set == null) {
+        set = Collections.newSetFromMap(new ConcurrentHashMap<Unit<?>, Boolean>());
+        Set<Unit<?>> previous = unitsByDimension.putIfAbsent(dimension, set);
+        if (previous != null)
+          set = previous;
+      }
+      return set;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+      return units.contains(obj);
+    }
+
+    @Override
+    public int size() {
+      return units.size();
+    }
+
+    @Override
+    public Iterator<Unit<?>> iterator() {
+      final Iterator<Unit<?>> iterator = units.iterator();
+      return new Iterator<Unit<?>>() {
+        private Unit<?> current;
+
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        public Unit<?> next() {
+          current = iterator.next();
+          return current;
+        }
+
+        public void remove() {
+          UnitRegistry.this.remove(current);
+        }
+      };
+    }
+
+    /**
+     * Returns an unmodifiable live view of the units having the specified dimension.
+     */
+    Set<Unit<?>> getUnits(Dimension dimension) {
+      return Collections.unmodifiableSet(unitsOf(dimension));
+    }
+  }
 }
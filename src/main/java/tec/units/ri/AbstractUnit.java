@@ -41,9 +41,11 @@ import javax.measure.quantity.Dimensionless;
 
 import tec.units.ri.format.SimpleUnitFormat;
 import tec.units.ri.function.AddConverter;
+import tec.units.ri.function.MethodHandleConverter;
 import tec.units.ri.function.MultiplyConverter;
 import tec.units.ri.function.RationalConverter;
 import tec.units.ri.quantity.QuantityDimension;
+import tec.units.ri.spi.ConverterCache;
 import tec.units.ri.spi.DimensionalModel;
 import tec.units.ri.unit.AlternateUnit;
 import tec.units.ri.unit.AnnotatedUnit;
@@ -64,7 +66,7 @@ import tec.units.ri.unit.Units;
  *
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.9.5, March 19, 2016
+ * @version 0.9.9, October 16, 2016
  */
 public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Comparable<Unit<Q>> {
 
@@ -88,6 +90,16 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
    */
   private String symbol;
 
+  /**
+   * Indicates if {@link #getConverterTo(Unit)} returns specialized converters.
+   */
+  private static volatile boolean specializedConverters;
+
+  /**
+   * Holds the derived state of this unit (computed on first use).
+   */
+  private volatile Descriptor descriptor;
+
   /**
    * Default constructor.
    */
@@ -129,8 +141,7 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
    * @return <code>equals(toSystemUnit())</code>
    */
   public boolean isSystemUnit() {
-    AbstractUnit<Q> si = this.toSystemUnit();
-    return (this == si) || this.equals(si);
+    return descriptor().isSystemUnit;
   }
 
   /**
@@ -141,12 +152,17 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
    * assert(REVOLUTION.divide(MINUTE).isAngularVelocity()); // Returns true.
    * </code>
    *
+   * <p>
+   * This method is called once, the result is held by this unit and returned by {@link #getSystemUnit()}.
+   * </p>
+   *
    * @return the unscaled metric unit from which this unit is derived.
    */
   protected abstract AbstractUnit<Q> toSystemUnit();
 
   /**
-   * Returns the converter from this unit to its unscaled {@link #toSystemUnit standard} unit.
+   * Returns the converter from this unit to its unscaled {@link #toSystemUnit standard} unit. This method is called on each conversion, sub-classes
+   * deriving the converter from other units should hold the result.
    *
    * @return <code>getConverterTo(this.toSystemUnit())</code>
    * @see #toSystemUnit
@@ -222,8 +238,9 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
    *
    * @return the unscaled metric unit from which this unit is derived.
    */
+  @SuppressWarnings("unchecked")
   public final AbstractUnit<Q> getSystemUnit() {
-    return toSystemUnit();
+    return (AbstractUnit<Q>) descriptor().systemUnit;
   }
 
   /**
@@ -248,7 +265,7 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
     // dimensional
     // analysis
     // model.
-    return model.getFundamentalDimension(thisDimension).equals(model.getFundamentalDimension(thatDimension));
+    return this.getFundamentalDimension(model).equals(((AbstractUnit<?>) that).getFundamentalDimension(model));
   }
 
   /**
@@ -273,6 +290,30 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
 
   public abstract Dimension getDimension();
 
+  /**
+   * Returns the fundamental dimension of this unit for the specified model.
+   */
+  private Dimension getFundamentalDimension(DimensionalModel model) {
+    Descriptor d = descriptor();
+    if (d.model != model) {
+      d = new Descriptor(d, model, model.getFundamentalDimension(getDimension()));
+      descriptor = d;
+    }
+    return d.fundamentalDimension;
+  }
+
+  /**
+   * Returns the descriptor of this unit, building it on first use. Concurrent callers may each build one, they are equivalent.
+   */
+  private Descriptor descriptor() {
+    Descriptor d = descriptor;
+    if (d == null) {
+      d = new Descriptor(this);
+      descriptor = d;
+    }
+    return d;
+  }
+
   protected void setName(String name) {
     this.name = name;
   }
@@ -289,9 +330,40 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
     this.symbol = s;
   }
 
+  /**
+   * Enables or disables runtime specialization of the converters returned by {@link #getConverterTo(Unit)} and {@link #getConverterToAny(Unit)}.
+   * When enabled, these methods return {@link MethodHandleConverter} instances exposing their conversion as a single method handle (requires Java 7
+   * or later). Previously cached converters are discarded.
+   *
+   * @param enabled
+   *          <code>true</code> to return specialized converters; <code>false</code> otherwise (default).
+   */
+  public static void setSpecializedConverters(boolean enabled) {
+    specializedConverters = enabled;
+    ConverterCache.getInstance().clear();
+  }
+
+  /**
+   * Indicates if the converters returned by {@link #getConverterTo(Unit)} and {@link #getConverterToAny(Unit)} are specialized.
+   *
+   * @return <code>true</code> if converters are specialized; <code>false</code> otherwise.
+   * @see #setSpecializedConverters(boolean)
+   */
+  public static boolean isSpecializedConverters() {
+    return specializedConverters;
+  }
+
   public final UnitConverter getConverterTo(Unit<Q> that) throws UnconvertibleException {
     if ((this == that) || this.equals(that))
       return AbstractConverter.IDENTITY; // Shortcut.
+    ConverterCache cache = ConverterCache.getInstance();
+    try {
+      UnitConverter converter = cache.get(this, that, null);
+      if (converter != null)
+        return converter;
+    } catch (IncommensurableException e) { // Never recorded without context.
+      throw new UnconvertibleException(e);
+    }
     Unit<Q> thisSystemUnit = this.getSystemUnit();
     Unit<Q> thatSystemUnit = that.getSystemUnit();
     if (!thisSystemUnit.equals(thatSystemUnit))
@@ -302,23 +374,38 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
       }
     UnitConverter thisToSI = this.getSystemConverter();
     UnitConverter thatToSI = that.getConverterTo(thatSystemUnit);
-    return thatToSI.inverse().concatenate(thisToSI);
+    UnitConverter converter = specialize(AbstractConverter.compile(thatToSI.inverse().concatenate(thisToSI)));
+    cache.put(this, that, null, converter);
+    return converter;
   }
 
   @SuppressWarnings("rawtypes")
   public final UnitConverter getConverterToAny(Unit<?> that) throws IncommensurableException, UnconvertibleException {
-    if (!isCompatible(that))
-      throw new IncommensurableException(this + " is not compatible with " + that);
+    DimensionalModel model = DimensionalModel.current();
+    ConverterCache cache = ConverterCache.getInstance();
+    UnitConverter converter = cache.get(this, that, model);
+    if (converter != null)
+      return converter;
+    if (!isCompatible(that)) {
+      String message = this + " is not compatible with " + that;
+      cache.putIncommensurable(this, that, model, message);
+      throw new IncommensurableException(message);
+    }
     AbstractUnit thatAbstr = (AbstractUnit) that; // Since both units are
     // compatible they must
     // be both abstract
     // units.
-    DimensionalModel model = DimensionalModel.current();
     AbstractUnit thisSystemUnit = this.getSystemUnit();
     UnitConverter thisToDimension = model.getDimensionalTransform(thisSystemUnit.getDimension()).concatenate(this.getSystemConverter());
     AbstractUnit thatSystemUnit = thatAbstr.getSystemUnit();
     UnitConverter thatToDimension = model.getDimensionalTransform(thatSystemUnit.getDimension()).concatenate(thatAbstr.getSystemConverter());
-    return thatToDimension.inverse().concatenate(thisToDimension);
+    converter = specialize(AbstractConverter.compile(thatToDimension.inverse().concatenate(thisToDimension)));
+    cache.put(this, that, model, converter);
+    return converter;
+  }
+
+  private static UnitConverter specialize(AbstractConverter converter) {
+    return specializedConverters ? MethodHandleConverter.of(converter) : converter;
   }
 
   @Override
@@ -339,7 +426,7 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
   public final Unit<Q> shift(double offset) {
     if (offset == 0)
       return this;
-    return transform(new AddConverter(offset));
+    return transform(AddConverter.of(offset));
   }
 
   @Override
@@ -347,8 +434,8 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
     if (factor == 1)
       return this;
     if (isLongValue(factor))
-      return transform(new RationalConverter((long) factor, 1));
-    return transform(new MultiplyConverter(factor));
+      return transform(RationalConverter.of((long) factor, 1));
+    return transform(MultiplyConverter.of(factor));
   }
 
   private static boolean isLongValue(double value) {
@@ -415,8 +502,8 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
     if (divisor == 1)
       return this;
     if (isLongValue(divisor))
-      return transform(new RationalConverter(1, (long) divisor));
-    return transform(new MultiplyConverter(1.0 / divisor));
+      return transform(RationalConverter.of(1, (long) divisor));
+    return transform(MultiplyConverter.of(1.0 / divisor));
   }
 
   /**
@@ -457,13 +544,12 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
    * @return the result of raising this unit to the exponent.
    */
   public final Unit<?> pow(int n) {
-    if (n > 0)
-      return this.multiply(this.pow(n - 1));
+    if (n == 1)
+      return this;
     else if (n == 0)
       return ONE;
     else
-      // n < 0
-      return ONE.divide(this.pow(-n));
+      return ProductUnit.getPowInstance(this, n);
   }
 
   // //////////////////////////////////////////////////////////////
@@ -476,4 +562,34 @@ public abstract class AbstractUnit<Q extends Quantity<Q>> implements Unit<Q>, Co
   @Override
   public abstract boolean equals(Object that);
 
+  /**
+   * Immutable holder of the state derived from a unit, safely published through the volatile {@link AbstractUnit#descriptor} field.
+   */
+  private static final class Descriptor {
+
+    private final AbstractUnit<?> systemUnit;
+
+    private final boolean isSystemUnit;
+
+    /**
+     * Holds the model for which the fundamental dimension has been computed or <code>null</code>.
+     */
+    private final DimensionalModel model;
+
+    private final Dimension fundamentalDimension;
+
+    private Descriptor(AbstractUnit<?> unit) {
+      this.systemUnit = unit.toSystemUnit();
+      this.isSystemUnit = (unit == systemUnit) || unit.equals(systemUnit);
+      this.model = null;
+      this.fundamentalDimension = null;
+    }
+
+    private Descriptor(Descriptor that, DimensionalModel model, Dimension fundamentalDimension) {
+      this.systemUnit = that.systemUnit;
+      this.isSystemUnit = that.isSystemUnit;
+      this.model = model;
+      this.fundamentalDimension = fundamentalDimension;
+    }
+  }
 }
@@ -37,6 +37,7 @@ import javax.measure.Unit;
 import javax.measure.format.ParserException;
 import tec.units.ri.AbstractQuantity;
 import tec.units.ri.AbstractUnit;
+import tec.units.ri.quantity.DecimalQuantity;
 import tec.units.ri.quantity.NumberQuantity;
 import tec.uom.lib.common.function.Parser;
 
@@ -51,7 +52,7 @@ import tec.uom.lib.common.function.Parser;
  * 
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.8.4, $Date: 2016-04-20 $
+ * @version 0.8.5, $Date: 2016-10-16 $
  */
 @SuppressWarnings("rawtypes")
 public abstract class QuantityFormat implements Parser<CharSequence, Quantity> {
@@ -64,7 +65,12 @@ public abstract class QuantityFormat implements Parser<CharSequence, Quantity> {
   /**
    * Holds the default format instance.
    */
-  private static final QuantityFormat DEFAULT = new Standard();
+  private static final QuantityFormat DEFAULT = new Standard(false);
+
+  /**
+   * Holds the decimal format instance.
+   */
+  private static final QuantityFormat DECIMAL = new Standard(true);
 
   /**
    * Holds the Number-Space-Unit format instance.
@@ -83,6 +89,17 @@ public abstract class QuantityFormat implements Parser<CharSequence, Quantity> {
     return DEFAULT;
   }
 
+  /**
+   * Returns the quantity format parsing plain decimal numbers (without exponent) as {@link DecimalQuantity decimal quantities}, keeping all their
+   * digits (e.g. <code>"12.50 kWh"</code> has the unscaled value <code>1250</code> and the scale <code>2</code>). Other numbers are parsed as
+   * <code>double</code> values, formatting is the same as for the {@link #getInstance() default} format.
+   * 
+   * @return the decimal quantity format.
+   */
+  public static QuantityFormat getDecimalInstance() {
+    return DECIMAL;
+  }
+
   /**
    * Formats the specified quantity into an <code>Appendable</code>.
    * 
@@ -170,6 +187,12 @@ public abstract class QuantityFormat implements Parser<CharSequence, Quantity> {
      */
     // private static final long serialVersionUID = 2758248665095734058L;
 
+    private final boolean decimal;
+
+    Standard(boolean decimal) {
+      this.decimal = decimal;
+    }
+
     @Override
     public Appendable format(Quantity q, Appendable dest) throws IOException {
       Unit unit = q.getUnit();
@@ -178,8 +201,11 @@ public abstract class QuantityFormat implements Parser<CharSequence, Quantity> {
       // (CompoundUnit) unit, dest);
       // else {
 
-      Number number = q.getValue();
-      dest.append(number.toString());
+      if (q instanceof AbstractQuantity) {
+        ((AbstractQuantity) q).appendValue(dest);
+      } else {
+        dest.append(q.getValue().toString());
+      }
       // }
       if (q.getUnit().equals(AbstractUnit.ONE))
         return dest;
@@ -199,11 +225,18 @@ public abstract class QuantityFormat implements Parser<CharSequence, Quantity> {
       while ((endDecimal < csq.length()) && !Character.isWhitespace(csq.charAt(endDecimal))) {
         endDecimal++;
       }
-      Double decimal = new Double(csq.subSequence(startDecimal, endDecimal).toString());
+      CharSequence number = csq.subSequence(startDecimal, endDecimal);
       // cursor.setIndex(endDecimal + 1);
       int startUnit = endDecimal + 1;// csq.toString().indexOf(' ') + 1;
       Unit unit = SimpleUnitFormat.getInstance().parse(csq, startUnit);
-      return NumberQuantity.of(decimal.doubleValue(), unit);
+      if (decimal) {
+        try {
+          return DecimalQuantity.of(number, unit);
+        } catch (NumberFormatException e) { // Exponent, parsed as double.
+        } catch (ArithmeticException e) { // Too many digits, parsed as double.
+        }
+      }
+      return NumberQuantity.of(Double.parseDouble(number.toString()), unit);
     }
 
     public Quantity<?> parse(CharSequence csq) throws ParserException {
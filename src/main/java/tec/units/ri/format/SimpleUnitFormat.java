@@ -29,13 +29,16 @@
  */
 package tec.units.ri.format;
 
-import static tec.units.ri.unit.MetricPrefix.*;
 import static tec.units.ri.unit.Units.LITRE;
 
 import java.io.IOException;
 import java.lang.CharSequence;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import tec.units.ri.AbstractUnit;
 import tec.units.ri.function.AddConverter;
@@ -70,10 +73,15 @@ import javax.measure.format.UnitFormat;
  *        AbstractUnit.parse("ft").equals(Units.METRE.multiply(0.3048))</code>
  * </p>
  *
+ * <p>
+ * Prefixed units are not held in label tables, a symbol is parsed as the longest prefix followed by the symbol of a unit which can be prefixed
+ * (the prefixed unit being created and cached on first use) and a prefixed unit is formatted from its converter.
+ * </p>
+ *
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
  * @author Eric Russell
- * @version 0.7, Dec 30, 2015
+ * @version 0.9, Oct 16, 2016
  */
 public abstract class SimpleUnitFormat extends AbstractUnitFormat {
   /**
@@ -293,6 +301,31 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
      */
     final HashMap<Unit<?>, String> _unitToName = new HashMap<Unit<?>, String>();
 
+    /**
+     * Holds the name to unit mapping of the units which can be prefixed (read-only once the class is initialized).
+     */
+    final HashMap<String, Unit<?>> _nameToPrefixable = new HashMap<String, Unit<?>>();
+
+    /**
+     * Holds the unit to name mapping of the units which can be prefixed (read-only once the class is initialized).
+     */
+    final HashMap<Unit<?>, String> _prefixableToName = new HashMap<Unit<?>, String>();
+
+    /**
+     * Holds the prefixed units resolved so far, by name.
+     */
+    private final ConcurrentMap<String, Unit<?>> _nameToPrefixed = new ConcurrentHashMap<String, Unit<?>>();
+
+    /**
+     * Holds the names of the prefixed units formatted so far.
+     */
+    private final ConcurrentMap<Unit<?>, String> _prefixedToName = new ConcurrentHashMap<Unit<?>, String>();
+
+    /**
+     * Holds the transformed units found not to be prefixed units so far (cleared when full).
+     */
+    private final ConcurrentMap<Unit<?>, Boolean> _notPrefixed = new ConcurrentHashMap<Unit<?>, Boolean>();
+
     @Override
     public void label(Unit<?> unit, String label) {
       if (!isValidIdentifier(label))
@@ -359,6 +392,9 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         return ((AlternateUnit<?>) unit).getSymbol();
       if (unit instanceof TransformedUnit) {
         TransformedUnit<?> tfmUnit = (TransformedUnit<?>) unit;
+        label = prefixedNameFor(tfmUnit);
+        if (label != null)
+          return label;
         Unit<?> baseUnits = tfmUnit.toSystemUnit();
         UnitConverter cvtr = tfmUnit.getSystemConverter();
         StringBuffer result = new StringBuffer();
@@ -412,7 +448,76 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
       if (unit != null)
         return unit;
       unit = SYMBOL_TO_UNIT.get(name);
-      return unit;
+      if (unit != null)
+        return unit;
+      return prefixedUnitFor(name);
+    }
+
+    // Returns the symbol of the specified prefix in this format.
+    String prefixSymbolFor(MetricPrefix prefix) {
+      return prefix.getSymbol();
+    }
+
+    // Declares a unit which can be prefixed, e.g. "m" for "km", "mm"...
+    void prefixable(Unit<?> unit, String name) {
+      _nameToPrefixable.put(name, unit);
+      _prefixableToName.put(unit, name);
+    }
+
+    // Declares an alias of a unit which can be prefixed (parsing only).
+    void prefixableAlias(Unit<?> unit, String alias) {
+      _nameToPrefixable.put(alias, unit);
+    }
+
+    // Returns the prefixed unit for the specified name (longest prefix followed by a unit which can be prefixed) or null if none.
+    Unit<?> prefixedUnitFor(String name) {
+      Unit<?> unit = _nameToPrefixed.get(name);
+      if (unit != null)
+        return unit;
+      for (MetricPrefix prefix : PREFIXES) {
+        String symbol = prefixSymbolFor(prefix);
+        if ((name.length() > symbol.length()) && name.startsWith(symbol)) {
+          Unit<?> prefixable = _nameToPrefixable.get(name.substring(symbol.length()));
+          if (prefixable != null) {
+            unit = prefix.prefix(prefixable); // Same instance as the MetricPrefix functions.
+            Unit<?> previous = _nameToPrefixed.putIfAbsent(name, unit);
+            return (previous != null) ? previous : unit;
+          }
+        }
+      }
+      return null;
+    }
+
+    // Returns the name of the specified unit if it is a prefixed unit, null otherwise.
+    String prefixedNameFor(TransformedUnit<?> unit) {
+      String name = _prefixedToName.get(unit);
+      if ((name != null) || _notPrefixed.containsKey(unit))
+        return name;
+      Unit<?> parent = unit.getParentUnit();
+      UnitConverter converter = unit.getConverter();
+      String prefixable = _prefixableToName.get(parent); // Prefix of a system unit, e.g. km
+      MetricPrefix prefix = (prefixable != null) ? PREFIX_BY_CONVERTER.get(converter) : null;
+      if (prefix == null) { // Prefix of a unit derived from the parent unit, e.g. mg or m℃
+        for (Map.Entry<Unit<?>, String> entry : _prefixableToName.entrySet()) {
+          AbstractUnit<?> candidate = (AbstractUnit<?>) entry.getKey();
+          if ((candidate != parent) && candidate.getSystemUnit().equals(parent)) {
+            prefix = PREFIX_BY_CONVERTER.get(candidate.getSystemConverter().inverse().concatenate(converter));
+            if (prefix != null) {
+              prefixable = entry.getValue();
+              break;
+            }
+          }
+        }
+      }
+      if (prefix == null) {
+        if (_notPrefixed.size() >= NOT_PREFIXED_CAPACITY)
+          _notPrefixed.clear(); // Misses are cheap to recompute.
+        _notPrefixed.put(unit, Boolean.TRUE);
+        return null;
+      }
+      name = prefixSymbolFor(prefix) + prefixable;
+      _prefixedToName.putIfAbsent(unit, name);
+      return name;
     }
 
     // //////////////////////////
@@ -780,6 +885,11 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
       String name = _unitToName.get(unit);
       if (name != null)
         return name;
+      if (unit instanceof TransformedUnit) {
+        name = prefixedNameFor((TransformedUnit<?>) unit);
+        if (name != null)
+          return name;
+      }
       // Else returns default name.
       return DEFAULT.nameFor(unit);
     }
@@ -788,12 +898,20 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
     public Unit<?> unitFor(String name) {
       // First search if specific ASCII name.
       Unit<?> unit = _nameToUnit.get(name);
+      if (unit != null)
+        return unit;
+      unit = prefixedUnitFor(name);
       if (unit != null)
         return unit;
       // Else returns default mapping.
       return DEFAULT.unitFor(name);
     }
 
+    @Override
+    String prefixSymbolFor(MetricPrefix prefix) {
+      return asciiPrefix(prefix.getSymbol());
+    }
+
     @Override
     public Appendable format(Unit<?> unit, Appendable appendable) throws IOException {
       String name = nameFor(unit);
@@ -874,66 +992,55 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
       Units.HERTZ, Units.JOULE, Units.KATAL, Units.KELVIN, Units.LUMEN, Units.LUX, Units.METRE, Units.MOLE, Units.NEWTON, Units.OHM, Units.PASCAL,
       Units.RADIAN, Units.SECOND, Units.SIEMENS, Units.SIEVERT, Units.STERADIAN, Units.TESLA, Units.VOLT, Units.WATT, Units.WEBER };
 
-  private static final String[] PREFIXES = { YOTTA.getSymbol(), ZETTA.getSymbol(), EXA.getSymbol(), PETA.getSymbol(), TERA.getSymbol(),
-      GIGA.getSymbol(), MEGA.getSymbol(), KILO.getSymbol(), HECTO.getSymbol(), DEKA.getSymbol(), DECI.getSymbol(), CENTI.getSymbol(),
-      MILLI.getSymbol(), MICRO.getSymbol(), NANO.getSymbol(), PICO.getSymbol(), FEMTO.getSymbol(), ATTO.getSymbol(), ZEPTO.getSymbol(),
-      YOCTO.getSymbol() };
+  /**
+   * Holds the metric prefixes, longest symbols first (e.g. "da" is matched before "d").
+   */
+  private static final MetricPrefix[] PREFIXES = MetricPrefix.values();
+
+  /**
+   * Holds the maximum number of transformed units remembered as not prefixed, per format.
+   */
+  private static final int NOT_PREFIXED_CAPACITY = 1024;
 
-  // TODO we could try retrieving this dynamically in a static {} method from
-  // MetricPrefix if symbols above are also aligned
-  private static final UnitConverter[] CONVERTERS = { YOTTA.getConverter(), ZETTA.getConverter(), EXA.getConverter(), PETA.getConverter(),
-      TERA.getConverter(), GIGA.getConverter(), MEGA.getConverter(), KILO.getConverter(), HECTO.getConverter(), DEKA.getConverter(),
-      DECI.getConverter(), CENTI.getConverter(), MILLI.getConverter(), MICRO.getConverter(), NANO.getConverter(), PICO.getConverter(),
-      FEMTO.getConverter(), ATTO.getConverter(), ZEPTO.getConverter(), YOCTO.getConverter() };
+  /**
+   * Holds the metric prefixes by converter.
+   */
+  private static final Map<UnitConverter, MetricPrefix> PREFIX_BY_CONVERTER = new HashMap<UnitConverter, MetricPrefix>();
 
   private static String asciiPrefix(String prefix) {
     return prefix == "µ" ? "micro" : prefix;
   }
 
   static {
-    for (int i = 0; i < SI_UNITS.length; i++) {
-      for (int j = 0; j < PREFIXES.length; j++) {
-        Unit<?> si = SI_UNITS[i];
-        Unit<?> u = si.transform(CONVERTERS[j]);
-        String symbol = (si instanceof BaseUnit) ? ((BaseUnit<?>) si).getSymbol() : ((AlternateUnit<?>) si).getSymbol();
-        DEFAULT.label(u, PREFIXES[j] + symbol);
-        if (PREFIXES[j] == "µ") {
-          ASCII.label(u, "micro"); // + symbol);
-        }
+    Arrays.sort(PREFIXES, new Comparator<MetricPrefix>() {
+      public int compare(MetricPrefix p1, MetricPrefix p2) {
+        return p2.getSymbol().length() - p1.getSymbol().length();
       }
+    });
+    for (MetricPrefix prefix : PREFIXES) {
+      PREFIX_BY_CONVERTER.put(prefix.getConverter(), prefix);
     }
-    // Special case for KILOGRAM.
-    DEFAULT.label(Units.GRAM, "g");
-    for (int i = 0; i < PREFIXES.length; i++) {
-      if (CONVERTERS[i] == KILO.getConverter()) // TODO should it better
-        // be equals()?
-        continue; // kg is already defined.
-      DEFAULT.label(Units.KILOGRAM.transform(CONVERTERS[i].concatenate(MILLI.getConverter())), PREFIXES[i] + "g");
-      if (PREFIXES[i] == "µ") {
-        ASCII.label(Units.KILOGRAM.transform(CONVERTERS[i].concatenate(MILLI.getConverter())), "microg");
+    // Prefixed units are resolved on demand from the units which can be prefixed.
+    for (Unit<?> si : SI_UNITS) {
+      DEFAULT.prefixable(si, si.getSymbol());
+      if (ASCII.isValidIdentifier(si.getSymbol())) {
+        ASCII.prefixable(si, si.getSymbol());
       }
     }
+    DEFAULT.prefixable(Units.GRAM, "g");
+    ASCII.prefixable(Units.GRAM, "g");
+    DEFAULT.prefixableAlias(Units.OHM, "Ohm");
+    ASCII.prefixable(Units.OHM, "Ohm");
+    DEFAULT.prefixable(Units.CELSIUS, "℃");
+    DEFAULT.prefixableAlias(Units.CELSIUS, "°C");
+    ASCII.prefixable(Units.CELSIUS, "Celsius");
 
-    // Alias and ASCIIFormat for Ohm
+    DEFAULT.label(Units.GRAM, "g");
     DEFAULT.alias(Units.OHM, "Ohm");
     ASCII.label(Units.OHM, "Ohm");
-    for (int i = 0; i < PREFIXES.length; i++) {
-      DEFAULT.alias(Units.OHM.transform(CONVERTERS[i]), PREFIXES[i] + "Ohm");
-      ASCII.label(Units.OHM.transform(CONVERTERS[i]), asciiPrefix(PREFIXES[i]) + "Ohm");
-    }
-
-    // Special case for DEGREE_CElSIUS.
-    // DEFAULT.label(Units.CELSIUS, "°C");
     DEFAULT.label(Units.CELSIUS, "\u00b0C");
     DEFAULT.alias(Units.CELSIUS, "℃");
-    // DEFAULT.alias(Units.CELSIUS, "°C");
     ASCII.label(Units.CELSIUS, "Celsius");
-    for (int i = 0; i < PREFIXES.length; i++) {
-      DEFAULT.label(Units.CELSIUS.transform(CONVERTERS[i]), PREFIXES[i] + "℃");
-      DEFAULT.alias(Units.CELSIUS.transform(CONVERTERS[i]), PREFIXES[i] + "°C");
-      ASCII.label(Units.CELSIUS.transform(CONVERTERS[i]), asciiPrefix(PREFIXES[i]) + "Celsius");
-    }
-
     DEFAULT.label(Units.PERCENT, "%");
     DEFAULT.label(Units.KILOGRAM, "kg");
     DEFAULT.label(Units.METRE, "m");
@@ -52,7 +52,7 @@ public final class AddConverter extends AbstractConverter implements ValueSuppli
   /**
    * Holds the offset.
    */
-  private double offset;
+  private final double offset;
 
   /**
    * Creates an additive converter having the specified offset.
@@ -68,6 +68,19 @@ public final class AddConverter extends AbstractConverter implements ValueSuppli
     this.offset = offset;
   }
 
+  /**
+   * Returns the canonical additive converter with the specified specified offset.
+   *
+   * @param offset
+   *          the offset value.
+   * @return the corresponding interned converter.
+   * @throws IllegalArgumentException
+   *           if offset is <code>0.0</code> (would result in identity converter).
+   */
+  public static AddConverter of(double offset) {
+    return intern(new AddConverter(offset));
+  }
+
   /**
    * Returns the offset value for this add converter.
    *
@@ -82,11 +95,16 @@ public final class AddConverter extends AbstractConverter implements ValueSuppli
     if (!(converter instanceof AddConverter))
       return super.concatenate(converter);
     double newOffset = offset + ((AddConverter) converter).offset;
-    return newOffset == 0.0 ? IDENTITY : new AddConverter(newOffset);
+    return newOffset == 0.0 ? IDENTITY : of(newOffset);
   }
 
   @Override
   public AddConverter inverse() {
+    return (AddConverter) super.inverse();
+  }
+
+  @Override
+  protected AddConverter createInverse() {
     return new AddConverter(-offset);
   }
 
@@ -95,6 +113,24 @@ public final class AddConverter extends AbstractConverter implements ValueSuppli
     return value + offset;
   }
 
+  @Override
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double offset = this.offset;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = src[srcOff + i] + offset;
+    }
+  }
+
+  @Override
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double offset = this.offset;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) (src[srcOff + i] + offset);
+    }
+  }
+
   // @Override
   // public BigDecimal convert(BigDecimal value, MathContext ctx) throws
   // ArithmeticException {
@@ -108,6 +144,8 @@ public final class AddConverter extends AbstractConverter implements ValueSuppli
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
     if (!(obj instanceof AddConverter)) {
       return false;
     }
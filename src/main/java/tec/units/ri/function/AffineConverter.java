@@ -0,0 +1,167 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.function;
+
+import tec.units.ri.AbstractConverter;
+
+/**
+ * <p>
+ * This class represents a converter applying a scale factor followed by a constant offset to numeric values (<code>factor * x + offset</code>,
+ * <code>double</code> based).
+ * </p>
+ *
+ * <p>
+ * Instances of this class are typically produced by {@link AbstractConverter#compile(javax.measure.UnitConverter)}, which folds any chain of scaling
+ * and offset converters into a single affine step.
+ * </p>
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.1, October 16, 2016
+ */
+public final class AffineConverter extends AbstractConverter {
+
+  /**
+   * Holds the scale factor.
+   */
+  private final double factor;
+
+  /**
+   * Holds the offset (applied after scaling).
+   */
+  private final double offset;
+
+  /**
+   * Creates an affine converter with the specified scale factor and offset.
+   *
+   * @param factor
+   *          the scaling factor.
+   * @param offset
+   *          the offset added after scaling.
+   * @throws IllegalArgumentException
+   *           if factor is <code>1.0</code> and offset is <code>0.0</code> (would result in identity converter)
+   */
+  public AffineConverter(double factor, double offset) {
+    if (factor == 1.0 && offset == 0.0)
+      throw new IllegalArgumentException("Would result in identity converter");
+    this.factor = factor;
+    this.offset = offset;
+  }
+
+  /**
+   * Returns the simplest converter equivalent to <code>factor * x + offset</code>: the identity, a {@link MultiplyConverter}, an {@link AddConverter}
+   * or an {@link AffineConverter}.
+   *
+   * @param factor
+   *          the scaling factor.
+   * @param offset
+   *          the offset added after scaling.
+   * @return the corresponding converter.
+   */
+  public static AbstractConverter of(double factor, double offset) {
+    if (offset == 0.0)
+      return factor == 1.0 ? IDENTITY : MultiplyConverter.of(factor);
+    if (factor == 1.0)
+      return AddConverter.of(offset);
+    return intern(new AffineConverter(factor, offset));
+  }
+
+  /**
+   * Returns the scale factor of this converter.
+   *
+   * @return the scale factor.
+   */
+  public double getFactor() {
+    return factor;
+  }
+
+  /**
+   * Returns the offset of this converter.
+   *
+   * @return the offset added after scaling.
+   */
+  public double getOffset() {
+    return offset;
+  }
+
+  @Override
+  protected AbstractConverter createInverse() {
+    return new AffineConverter(1.0 / factor, -offset / factor);
+  }
+
+  @Override
+  public double convert(double value) {
+    return value * factor + offset;
+  }
+
+  @Override
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double factor = this.factor;
+    final double offset = this.offset;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = src[srcOff + i] * factor + offset;
+    }
+  }
+
+  @Override
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double factor = this.factor;
+    final double offset = this.offset;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) (src[srcOff + i] * factor + offset);
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return "AffineConverter(" + factor + "," + offset + ")";
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof AffineConverter))
+      return false;
+    AffineConverter that = (AffineConverter) obj;
+    return this.factor == that.factor && this.offset == that.offset;
+  }
+
+  @Override
+  public int hashCode() {
+    long bits = Double.doubleToLongBits(factor) * 31 + Double.doubleToLongBits(offset);
+    return (int) (bits ^ (bits >>> 32));
+  }
+
+  public boolean isLinear() {
+    return offset == 0.0;
+  }
+}
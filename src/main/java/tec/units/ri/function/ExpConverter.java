@@ -55,12 +55,12 @@ public final class ExpConverter extends AbstractConverter implements ValueSuppli
   /**
    * Holds the logarithmic base.
    */
-  private double base;
+  private final double base;
 
   /**
    * Holds the natural logarithm of the base.
    */
-  private double logOfBase;
+  private final double logOfBase;
 
   /**
    * Creates a logarithmic converter having the specified base.
@@ -83,7 +83,7 @@ public final class ExpConverter extends AbstractConverter implements ValueSuppli
   }
 
   @Override
-  public AbstractConverter inverse() {
+  protected AbstractConverter createInverse() {
     return new LogConverter(base);
   }
 
@@ -98,6 +98,8 @@ public final class ExpConverter extends AbstractConverter implements ValueSuppli
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
     if (!(obj instanceof ExpConverter))
       return false;
     ExpConverter that = (ExpConverter) obj;
@@ -115,6 +117,24 @@ public final class ExpConverter extends AbstractConverter implements ValueSuppli
     return MathUtil.exp(logOfBase * amount);
   }
 
+  @Override
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double logOfBase = this.logOfBase;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = MathUtil.exp(logOfBase * src[srcOff + i]);
+    }
+  }
+
+  @Override
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double logOfBase = this.logOfBase;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) MathUtil.exp(logOfBase * src[srcOff + i]);
+    }
+  }
+
   // @Override
   // public BigDecimal convert(BigDecimal value, MathContext ctx) throws
   // ArithmeticException {
@@ -53,11 +53,11 @@ public final class LogConverter extends AbstractConverter implements ValueSuppli
   /**
    * Holds the logarithmic base.
    */
-  private double base;
+  private final double base;
   /**
    * Holds the natural logarithm of the base.
    */
-  private double logOfBase;
+  private final double logOfBase;
 
   /**
    * Returns a logarithmic converter having the specified base.
@@ -80,7 +80,7 @@ public final class LogConverter extends AbstractConverter implements ValueSuppli
   }
 
   @Override
-  public AbstractConverter inverse() {
+  protected AbstractConverter createInverse() {
     return new ExpConverter(base);
   }
 
@@ -95,6 +95,8 @@ public final class LogConverter extends AbstractConverter implements ValueSuppli
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
     if (!(obj instanceof LogConverter))
       return false;
     LogConverter that = (LogConverter) obj;
@@ -112,6 +114,24 @@ public final class LogConverter extends AbstractConverter implements ValueSuppli
     return MathUtil.log(amount) / logOfBase;
   }
 
+  @Override
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double logOfBase = this.logOfBase;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = MathUtil.log(src[srcOff + i]) / logOfBase;
+    }
+  }
+
+  @Override
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double logOfBase = this.logOfBase;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) (MathUtil.log(src[srcOff + i]) / logOfBase);
+    }
+  }
+
   // @Override
   // public BigDecimal convert(BigDecimal value, MathContext ctx) throws
   // ArithmeticException {
@@ -0,0 +1,253 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.function;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import javax.measure.UnitConverter;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.internal.MathUtil;
+
+/**
+ * <p>
+ * This class represents a converter specialized at runtime: the converter it is created from is {@link AbstractConverter#compile(UnitConverter)
+ * compiled} and each stage is turned into a {@link MethodHandle} with its constants bound, the stages being combined into a single handle. When the
+ * mode is {@link tec.units.ri.AbstractUnit#setSpecializedConverters(boolean) enabled}, all the non-identity converters returned by
+ * {@link tec.units.ri.AbstractUnit#getConverterTo(javax.measure.Unit)} are of this class, whatever their stages.
+ * </p>
+ *
+ * <p>
+ * The handle is held per instance, the JIT can only inline through it if the converter (or the handle) is a constant for the compiled code. For a
+ * fully inlined conversion, applications store the {@link #getHandle() handle} in a <code>static final</code> field and call
+ * <code>invokeExact</code> on it directly; {@link #convert(double)} itself does not make the stages faster than the compiled converter.
+ * </p>
+ *
+ * <p>
+ * This class uses <code>java.lang.invoke</code> and therefore requires Java 7 or later, at compile time as well as at runtime.
+ * </p>
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.2, October 16, 2016
+ */
+public final class MethodHandleConverter extends AbstractConverter {
+
+  private static final MethodHandle MULTIPLY;
+
+  private static final MethodHandle ADD;
+
+  private static final MethodHandle AFFINE;
+
+  private static final MethodHandle LOG;
+
+  private static final MethodHandle EXP;
+
+  private static final MethodHandle CONVERT;
+
+  static {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      MULTIPLY = lookup.findStatic(MethodHandleConverter.class, "multiply", methodType(double.class, double.class, double.class));
+      ADD = lookup.findStatic(MethodHandleConverter.class, "add", methodType(double.class, double.class, double.class));
+      AFFINE = lookup.findStatic(MethodHandleConverter.class, "affine", methodType(double.class, double.class, double.class, double.class));
+      LOG = lookup.findStatic(MethodHandleConverter.class, "log", methodType(double.class, double.class, double.class));
+      EXP = lookup.findStatic(MethodHandleConverter.class, "exp", methodType(double.class, double.class, double.class));
+      CONVERT = lookup.findVirtual(UnitConverter.class, "convert", methodType(double.class, double.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Holds the converter this converter has been specialized from.
+   */
+  private final UnitConverter converter;
+
+  /**
+   * Holds the specialized handle of type <code>(double)double</code>.
+   */
+  private final MethodHandle handle;
+
+  private MethodHandleConverter(UnitConverter converter) {
+    this.converter = converter;
+    this.handle = toHandle(converter);
+  }
+
+  /**
+   * Returns the converter specialized from the specified converter.
+   *
+   * @param converter
+   *          the converter to specialize.
+   * @return the specialized converter (the identity converter is returned as is).
+   */
+  public static AbstractConverter of(UnitConverter converter) {
+    if (converter instanceof MethodHandleConverter)
+      return (MethodHandleConverter) converter;
+    if (converter == IDENTITY)
+      return IDENTITY;
+    return new MethodHandleConverter(converter);
+  }
+
+  /**
+   * Returns the converter this converter has been specialized from.
+   *
+   * @return the original converter.
+   */
+  public UnitConverter getConverter() {
+    return converter;
+  }
+
+  /**
+   * Returns the specialized method handle (of type <code>(double)double</code>). Stored in a <code>static final</code> field, the handle is a constant
+   * the JIT inlines completely, e.g.:
+   *
+   * <pre>
+   * static final MethodHandle KM_TO_M = MethodHandleConverter.of(KILO(METRE).getConverterTo(METRE)).getHandle();
+   * ...
+   * double m = (double) KM_TO_M.invokeExact(km);
+   * </pre>
+   *
+   * @return the method handle performing the conversion.
+   */
+  public MethodHandle getHandle() {
+    return handle;
+  }
+
+  @Override
+  public double convert(double value) {
+    try {
+      return (double) handle.invokeExact(value);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) { // Stages do not throw checked exceptions.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  protected AbstractConverter createInverse() {
+    return new MethodHandleConverter(converter.inverse());
+  }
+
+  public boolean isLinear() {
+    return converter.isLinear();
+  }
+
+  @Override
+  public List<? extends UnitConverter> getConversionSteps() {
+    return converter.getConversionSteps();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof MethodHandleConverter))
+      return false;
+    return converter.equals(((MethodHandleConverter) obj).converter);
+  }
+
+  @Override
+  public int hashCode() {
+    return converter.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "MethodHandleConverter(" + converter + ")";
+  }
+
+  /**
+   * Returns the handle equivalent to the specified converter.
+   */
+  private static MethodHandle toHandle(UnitConverter converter) {
+    if (converter instanceof MethodHandleConverter)
+      return ((MethodHandleConverter) converter).handle;
+    AbstractConverter compiled = AbstractConverter.compile(converter);
+    if (compiled instanceof AbstractConverter.Chain) {
+      AbstractConverter.Chain chain = (AbstractConverter.Chain) compiled;
+      MethodHandle result = stageHandle(chain.getStage(0));
+      for (int i = 1; i < chain.getStageCount(); i++) {
+        result = MethodHandles.filterReturnValue(result, stageHandle(chain.getStage(i)));
+      }
+      return result;
+    }
+    return stageHandle(compiled);
+  }
+
+  /**
+   * Returns the handle for a single stage with its constants bound.
+   */
+  private static MethodHandle stageHandle(UnitConverter stage) {
+    if (stage.isIdentity())
+      return MethodHandles.identity(double.class);
+    if (stage instanceof MethodHandleConverter)
+      return ((MethodHandleConverter) stage).handle;
+    if (stage instanceof AffineConverter) {
+      AffineConverter affine = (AffineConverter) stage;
+      return MethodHandles.insertArguments(AFFINE, 1, affine.getFactor(), affine.getOffset());
+    }
+    if (stage instanceof AddConverter)
+      return MethodHandles.insertArguments(ADD, 1, ((AddConverter) stage).getOffset());
+    if (stage instanceof LogConverter)
+      return MethodHandles.insertArguments(LOG, 1, MathUtil.log(((LogConverter) stage).getBase()));
+    if (stage instanceof ExpConverter)
+      return MethodHandles.insertArguments(EXP, 1, MathUtil.log(((ExpConverter) stage).getBase()));
+    if ((stage instanceof AbstractConverter) && stage.isLinear())
+      return MethodHandles.insertArguments(MULTIPLY, 1, stage.convert(1.0)); // Pure scaling.
+    return CONVERT.bindTo(stage); // Other converters, invoked virtually.
+  }
+
+  private static double multiply(double value, double factor) {
+    return value * factor;
+  }
+
+  private static double add(double value, double offset) {
+    return value + offset;
+  }
+
+  private static double affine(double value, double factor, double offset) {
+    return value * factor + offset;
+  }
+
+  private static double log(double value, double logOfBase) {
+    return MathUtil.log(value) / logOfBase;
+  }
+
+  private static double exp(double value, double logOfBase) {
+    return MathUtil.exp(logOfBase * value);
+  }
+}
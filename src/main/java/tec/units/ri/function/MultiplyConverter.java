@@ -53,7 +53,7 @@ public final class MultiplyConverter extends AbstractConverter implements ValueS
   /**
    * Holds the scale factor.
    */
-  private double factor;
+  private final double factor;
 
   /**
    * Creates a multiply converter with the specified scale factor.
@@ -69,6 +69,19 @@ public final class MultiplyConverter extends AbstractConverter implements ValueS
     this.factor = factor;
   }
 
+  /**
+   * Returns the canonical multiply converter with the specified specified scale factor.
+   *
+   * @param factor
+   *          the scaling factor.
+   * @return the corresponding interned converter.
+   * @throws IllegalArgumentException
+   *           if factor is <code>1.0</code> (would result in identity converter).
+   */
+  public static MultiplyConverter of(double factor) {
+    return intern(new MultiplyConverter(factor));
+  }
+
   /**
    * Returns the scale factor of this converter.
    * 
@@ -83,11 +96,16 @@ public final class MultiplyConverter extends AbstractConverter implements ValueS
     if (!(converter instanceof MultiplyConverter))
       return super.concatenate(converter);
     double newfactor = factor * ((MultiplyConverter) converter).factor;
-    return newfactor == 1.0 ? IDENTITY : new MultiplyConverter(newfactor);
+    return newfactor == 1.0 ? IDENTITY : of(newfactor);
   }
 
   @Override
   public MultiplyConverter inverse() {
+    return (MultiplyConverter) super.inverse();
+  }
+
+  @Override
+  protected MultiplyConverter createInverse() {
     return new MultiplyConverter(1.0 / factor);
   }
 
@@ -96,6 +114,24 @@ public final class MultiplyConverter extends AbstractConverter implements ValueS
     return value * factor;
   }
 
+  @Override
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double factor = this.factor;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = src[srcOff + i] * factor;
+    }
+  }
+
+  @Override
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double factor = this.factor;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) (src[srcOff + i] * factor);
+    }
+  }
+
   @Override
   public final String toString() {
     return "MultiplyConverter(" + factor + ")";
@@ -103,6 +139,8 @@ public final class MultiplyConverter extends AbstractConverter implements ValueS
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
     if (!(obj instanceof MultiplyConverter))
       return false;
     MultiplyConverter that = (MultiplyConverter) obj;
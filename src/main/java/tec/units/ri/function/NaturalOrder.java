@@ -33,6 +33,8 @@ import java.util.Comparator;
 
 import javax.measure.Quantity;
 
+import tec.units.ri.AbstractQuantity;
+
 /**
  * Comparator to sort by natural order, looking both the unit and the value.
  * 
@@ -55,9 +57,6 @@ public class NaturalOrder<T extends Quantity<T>> implements Comparator<Quantity<
 
   @Override
   public int compare(Quantity<T> q1, Quantity<T> q2) {
-    if (q1.getUnit().equals(q2.getUnit())) {
-      return Double.compare(q1.getValue().doubleValue(), q2.getValue().doubleValue());
-    }
-    return Double.compare(q1.getValue().doubleValue(), q2.to(q1.getUnit()).getValue().doubleValue());
+    return Double.compare(AbstractQuantity.doubleValueOf(q1), AbstractQuantity.doubleValueOf(q2, q1.getUnit()));
   }
 }
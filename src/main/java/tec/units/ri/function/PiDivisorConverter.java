@@ -38,14 +38,14 @@ import tec.uom.lib.common.function.ValueSupplier;
  * </p>
  *
  * <p>
- * This class is package private, instances are created using the {@link PiMultiplierConverter#inverse()} method.
+ * Instances are usually obtained using the {@link PiMultiplierConverter#inverse()} method.
  * </p>
  *
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.4, December 28, 2015
+ * @version 0.5, October 16, 2016
  */
-final class PiDivisorConverter extends AbstractConverter implements ValueSupplier<String> { // implements Immutable<String> {
+public final class PiDivisorConverter extends AbstractConverter implements ValueSupplier<String> { // implements Immutable<String> {
 
   /**
 	 * 
@@ -53,7 +53,7 @@ final class PiDivisorConverter extends AbstractConverter implements ValueSupplie
   // private static final long serialVersionUID = 5052794216568914141L;
 
   /**
-   * Creates a Pi multiplier converter.
+   * Creates a Pi divisor converter.
    */
   public PiDivisorConverter() {
   }
@@ -74,7 +74,7 @@ final class PiDivisorConverter extends AbstractConverter implements ValueSupplie
   // }
 
   @Override
-  public AbstractConverter inverse() {
+  protected AbstractConverter createInverse() {
     return new PiMultiplierConverter();
   }
 
@@ -90,7 +90,7 @@ final class PiDivisorConverter extends AbstractConverter implements ValueSupplie
 
   @Override
   public int hashCode() {
-    return 0;
+    return -0x314159; // Distinct from identity and Pi multiplier.
   }
 
   public boolean isLinear() {
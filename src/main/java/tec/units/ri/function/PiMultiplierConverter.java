@@ -66,7 +66,7 @@ public final class PiMultiplierConverter extends AbstractConverter implements Va
   // return value.multiply(pi, ctx).scaleByPowerOfTen(1 - nbrDigits);
   // }
   @Override
-  public AbstractConverter inverse() {
+  protected AbstractConverter createInverse() {
     return new PiDivisorConverter();
   }
 
@@ -82,7 +82,7 @@ public final class PiMultiplierConverter extends AbstractConverter implements Va
 
   @Override
   public int hashCode() {
-    return 0;
+    return 0x314159; // Distinct from identity and Pi divisor.
   }
 
   public boolean isLinear() {
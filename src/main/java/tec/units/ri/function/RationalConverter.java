@@ -29,8 +29,11 @@
  */
 package tec.units.ri.function;
 
-import static tec.units.ri.internal.MathUtil.gcd;
-import static tec.units.ri.internal.MathUtil.negateExact;
+import static tec.units.ri.internal.MathUtil.multiplyExact;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
 
 import javax.measure.UnitConverter;
 
@@ -39,13 +42,18 @@ import tec.uom.lib.common.function.ValueSupplier;
 
 /**
  * <p>
- * This class represents a converter multiplying numeric values by an exact scaling factor (represented as the quotient of two <code>double</code>
- * numbers).
+ * This class represents a converter multiplying numeric values by an exact scaling factor (represented as the quotient of two integer numbers).
+ * </p>
+ *
+ * <p>
+ * The fraction is normalized once at construction (lowest terms, positive divisor) and kept as <code>long</code> numbers, falling back to
+ * {@link BigInteger} when they do not fit. The <code>double</code> factor used for conversions is precomputed, and concatenation of rational
+ * converters is exact (e.g. <code>YOTTA</code> followed by <code>YOCTO</code> results in the identity converter).
  * </p>
  *
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.8, April 3, 2016
+ * @version 0.9, October 16, 2016
  */
 public final class RationalConverter extends AbstractConverter implements ValueSupplier<Double> {
 
@@ -54,18 +62,47 @@ public final class RationalConverter extends AbstractConverter implements ValueS
 	 */
   // private static final long serialVersionUID = 1L;
 
+  private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+  private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
   /**
    * Holds the converter dividend.
    */
-  private final double dividend;
+  private final BigInteger dividend;
 
   /**
    * Holds the converter divisor (always positive).
    */
-  private final double divisor;
+  private final BigInteger divisor;
+
+  /**
+   * Holds the dividend as <code>long</code> (valid if {@link #isLong}).
+   */
+  private final long longDividend;
 
   /**
-   * Constructor
+   * Holds the divisor as <code>long</code> (valid if {@link #isLong}).
+   */
+  private final long longDivisor;
+
+  /**
+   * Indicates if both dividend and divisor fit in a <code>long</code>.
+   */
+  private final boolean isLong;
+
+  /**
+   * Holds the precomputed scaling factor.
+   */
+  private final double factor;
+
+  /**
+   * Holds the hash code (computed once).
+   */
+  private final int hashCode;
+
+  /**
+   * Creates a rational converter with the specified dividend and divisor.
    *
    * @param dividend
    *          the dividend.
@@ -76,17 +113,70 @@ public final class RationalConverter extends AbstractConverter implements ValueS
    * @throws IllegalArgumentException
    *           if <code>dividend == divisor</code>
    */
-  public RationalConverter(double dividend, double divisor) {
-    if (divisor <= 0)
+  public RationalConverter(BigInteger dividend, BigInteger divisor) {
+    if (divisor.signum() <= 0)
       throw new IllegalArgumentException("Negative or zero divisor");
-    if (dividend == divisor)
+    if (dividend.equals(divisor))
       throw new IllegalArgumentException("Would result in identity converter");
+    BigInteger gcd = dividend.gcd(divisor);
+    if (!gcd.equals(BigInteger.ONE)) {
+      dividend = dividend.divide(gcd);
+      divisor = divisor.divide(gcd);
+    }
     this.dividend = dividend;
     this.divisor = divisor;
+    this.isLong = fitsLong(dividend) && fitsLong(divisor);
+    this.longDividend = dividend.longValue();
+    this.longDivisor = divisor.longValue();
+    if ((dividend.bitLength() <= 53) && (divisor.bitLength() <= 53)) { // Exact doubles, correctly rounded quotient.
+      this.factor = dividend.doubleValue() / divisor.doubleValue();
+    } else {
+      this.factor = new BigDecimal(dividend).divide(new BigDecimal(divisor), MathContext.DECIMAL128).doubleValue();
+    }
+    this.hashCode = 31 * dividend.hashCode() + divisor.hashCode();
+  }
+
+  /**
+   * Creates a rational converter with the specified dividend and divisor.
+   *
+   * @param dividend
+   *          the dividend.
+   * @param divisor
+   *          the positive divisor.
+   * @throws IllegalArgumentException
+   *           if <code>divisor &lt;= 0</code>
+   * @throws IllegalArgumentException
+   *           if <code>dividend == divisor</code>
+   */
+  public RationalConverter(long dividend, long divisor) {
+    this(BigInteger.valueOf(dividend), BigInteger.valueOf(divisor));
   }
 
   /**
-   * Convenience method equivalent to <code>new RationalConverter(dividend, divisor)</code>
+   * Creates a rational converter with the specified dividend and divisor. Each <code>double</code> is taken for the decimal value of its canonical
+   * string representation (e.g. <code>0.3048</code> is <code>3048/10000</code>).
+   *
+   * @param dividend
+   *          the dividend.
+   * @param divisor
+   *          the positive divisor.
+   * @throws IllegalArgumentException
+   *           if <code>divisor &lt;= 0</code>
+   * @throws IllegalArgumentException
+   *           if <code>dividend == divisor</code>
+   * @throws IllegalArgumentException
+   *           if the dividend or divisor is not a finite number.
+   */
+  public RationalConverter(double dividend, double divisor) {
+    this(toFraction(dividend, divisor));
+  }
+
+  private RationalConverter(BigInteger[] fraction) {
+    this(fraction[0], fraction[1]);
+  }
+
+  /**
+   * Returns the canonical rational converter equal to <code>new RationalConverter(dividend, divisor)</code>
    *
    * @param dividend
    *          the dividend.
@@ -98,11 +188,11 @@ public final class RationalConverter extends AbstractConverter implements ValueS
    *           if <code>dividend == divisor</code>
    */
   public static final RationalConverter of(long dividend, long divisor) {
-    return new RationalConverter((double) dividend, (double) divisor);
+    return intern(new RationalConverter(dividend, divisor));
   }
 
   /**
-   * Convenience method equivalent to <code>new RationalConverter(dividend, divisor)</code>
+   * Returns the canonical rational converter equal to <code>new RationalConverter(dividend, divisor)</code>
    *
    * @param dividend
    *          the dividend.
@@ -114,30 +204,131 @@ public final class RationalConverter extends AbstractConverter implements ValueS
    *           if <code>dividend == divisor</code>
    */
   public static final RationalConverter of(double dividend, double divisor) {
-    return new RationalConverter(dividend, divisor);
+    return intern(new RationalConverter(dividend, divisor));
   }
 
   /**
-   * Returns the integer dividend for this rational converter.
+   * Returns the canonical rational converter equal to <code>new RationalConverter(dividend, divisor)</code>
+   *
+   * @param dividend
+   *          the dividend.
+   * @param divisor
+   *          the positive divisor.
+   * @throws IllegalArgumentException
+   *           if <code>divisor &lt;= 0</code>
+   * @throws IllegalArgumentException
+   *           if <code>dividend == divisor</code>
+   */
+  public static final RationalConverter of(BigInteger dividend, BigInteger divisor) {
+    return intern(new RationalConverter(dividend, divisor));
+  }
+
+  /**
+   * Returns the dividend for this rational converter.
    *
    * @return this converter dividend.
    */
   public double getDividend() {
-    return dividend;
+    return isLong ? (double) longDividend : dividend.doubleValue();
   }
 
   /**
-   * Returns the integer (positive) divisor for this rational converter.
+   * Returns the (positive) divisor for this rational converter.
    *
    * @return this converter divisor.
    */
   public double getDivisor() {
+    return isLong ? (double) longDivisor : divisor.doubleValue();
+  }
+
+  /**
+   * Returns the exact integer dividend for this rational converter (in lowest terms).
+   *
+   * @return this converter dividend.
+   */
+  public BigInteger getExactDividend() {
+    return dividend;
+  }
+
+  /**
+   * Returns the exact integer (positive) divisor for this rational converter (in lowest terms).
+   *
+   * @return this converter divisor.
+   */
+  public BigInteger getExactDivisor() {
     return divisor;
   }
 
   @Override
   public double convert(double value) {
-    return value * ((double) dividend / (double) divisor);
+    return value * factor;
+  }
+
+  /**
+   * Converts the specified integer value using integer arithmetic, the result is truncated toward zero.
+   *
+   * @param value
+   *          the value to convert.
+   * @return the converted value truncated toward zero.
+   * @throws ArithmeticException
+   *           if the converted value overflows a <code>long</code>.
+   */
+  @Override
+  public long convertLong(long value) {
+    if (isLong) {
+      if (longDivisor == 1)
+        return multiplyExact(value, longDividend);
+      if (longDividend == 1)
+        return value / longDivisor;
+    }
+    BigInteger result = BigInteger.valueOf(value).multiply(dividend).divide(divisor);
+    if (!fitsLong(result))
+      throw new ArithmeticException("long overflow");
+    return result.longValue();
+  }
+
+  /**
+   * Converts the specified integer value without going through <code>double</code>.
+   *
+   * @param value
+   *          the value to convert.
+   * @return the exact converted value.
+   * @throws ArithmeticException
+   *           if the converted value is not an integer or overflows a <code>long</code>.
+   */
+  @Override
+  public long convertExact(long value) {
+    if (isLong) {
+      if (longDivisor == 1)
+        return multiplyExact(value, longDividend);
+      if (value % longDivisor != 0) // Dividend and divisor are coprime.
+        throw new ArithmeticException("Inexact conversion of " + value);
+      return multiplyExact(value / longDivisor, longDividend);
+    }
+    BigInteger[] result = BigInteger.valueOf(value).multiply(dividend).divideAndRemainder(divisor);
+    if (result[1].signum() != 0)
+      throw new ArithmeticException("Inexact conversion of " + value);
+    if (!fitsLong(result[0]))
+      throw new ArithmeticException("long overflow");
+    return result[0].longValue();
+  }
+
+  @Override
+  public void convert(double[] src, int srcOff, double[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double factor = this.factor;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = src[srcOff + i] * factor;
+    }
+  }
+
+  @Override
+  public void convert(float[] src, int srcOff, float[] dst, int dstOff, int len) {
+    checkRange(src.length, srcOff, dst.length, dstOff, len);
+    final double factor = this.factor;
+    for (int i = 0; i < len; i++) {
+      dst[dstOff + i] = (float) (src[srcOff + i] * factor);
+    }
   }
 
   @Override
@@ -145,18 +336,19 @@ public final class RationalConverter extends AbstractConverter implements ValueS
     if (!(converter instanceof RationalConverter))
       return super.concatenate(converter);
     RationalConverter that = (RationalConverter) converter;
-    double newDividend = this.getDividend() * that.getDividend();
-    double newDivisor = this.getDivisor() * that.getDivisor();
-    double gcd = gcd(newDividend, newDivisor);
-    newDividend = newDividend / gcd; // TODO clarify if this works with long
-    newDivisor = newDivisor / gcd;
-    return (newDividend == 1 && newDivisor == 1) ? IDENTITY : new RationalConverter(newDividend, newDivisor);
+    BigInteger newDividend = this.dividend.multiply(that.dividend);
+    BigInteger newDivisor = this.divisor.multiply(that.divisor);
+    return newDividend.equals(newDivisor) ? IDENTITY : of(newDividend, newDivisor);
   }
 
   @Override
   public RationalConverter inverse() {
-    return Math.signum(dividend) == -1 ? new RationalConverter(negateExact(getDivisor()), negateExact(getDividend())) : new RationalConverter(
-        getDivisor(), getDividend());
+    return (RationalConverter) super.inverse();
+  }
+
+  @Override
+  protected RationalConverter createInverse() {
+    return dividend.signum() == -1 ? new RationalConverter(divisor.negate(), dividend.negate()) : new RationalConverter(divisor, dividend);
   }
 
   @Override
@@ -166,15 +358,21 @@ public final class RationalConverter extends AbstractConverter implements ValueS
 
   @Override
   public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
     if (!(obj instanceof RationalConverter))
       return false;
     RationalConverter that = (RationalConverter) obj;
-    return (this.dividend == that.dividend && this.divisor == that.divisor);
+    if (this.hashCode != that.hashCode)
+      return false;
+    if (this.isLong && that.isLong)
+      return (this.longDividend == that.longDividend) && (this.longDivisor == that.longDivisor);
+    return this.dividend.equals(that.dividend) && this.divisor.equals(that.divisor);
   }
 
   @Override
   public int hashCode() {
-    return Double.valueOf(dividend).hashCode() + Double.valueOf(dividend).hashCode();
+    return hashCode;
   }
 
   public boolean isLinear() {
@@ -182,10 +380,26 @@ public final class RationalConverter extends AbstractConverter implements ValueS
   }
 
   public double getAsDouble() {
-    return (double) dividend / (double) divisor;
+    return factor;
   }
 
   public Double getValue() {
-    return Double.valueOf(getAsDouble());
+    return Double.valueOf(factor);
+  }
+
+  private static boolean fitsLong(BigInteger value) {
+    return (value.compareTo(LONG_MIN) >= 0) && (value.compareTo(LONG_MAX) <= 0);
+  }
+
+  /**
+   * Returns the exact fraction <code>dividend / divisor</code> of the decimal values of the specified numbers.
+   */
+  private static BigInteger[] toFraction(double dividend, double divisor) {
+    if (Double.isNaN(dividend) || Double.isInfinite(dividend) || Double.isNaN(divisor) || Double.isInfinite(divisor))
+      throw new IllegalArgumentException("Dividend and divisor must be finite numbers");
+    BigDecimal a = BigDecimal.valueOf(dividend);
+    BigDecimal b = BigDecimal.valueOf(divisor);
+    int scale = Math.max(Math.max(a.scale(), b.scale()), 0);
+    return new BigInteger[] { a.setScale(scale).unscaledValue(), b.setScale(scale).unscaledValue() };
   }
 }
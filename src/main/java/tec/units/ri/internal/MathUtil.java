@@ -1128,6 +1128,52 @@ public abstract class MathUtil {
     return -a;
   }
 
+  /**
+   * Returns the sum of the arguments, throwing an exception if the result overflows a <code>long</code>.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a long
+   */
+  public static long addExact(long x, long y) {
+    long r = x + y;
+    if (((x ^ r) & (y ^ r)) < 0) {
+      throw new ArithmeticException("long overflow");
+    }
+    return r;
+  }
+
+  /**
+   * Returns the difference of the arguments, throwing an exception if the result overflows a <code>long</code>.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a long
+   */
+  public static long subtractExact(long x, long y) {
+    long r = x - y;
+    if (((x ^ y) & (x ^ r)) < 0) {
+      throw new ArithmeticException("long overflow");
+    }
+    return r;
+  }
+
+  /**
+   * Returns the product of the arguments, throwing an exception if the result overflows a <code>long</code>.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a long
+   */
+  public static long multiplyExact(long x, long y) {
+    long r = x * y;
+    long ax = Math.abs(x);
+    long ay = Math.abs(y);
+    if (((ax | ay) >>> 31 != 0)) {
+      if (((y != 0) && (r / y != x)) || (x == Long.MIN_VALUE && y == -1)) {
+        throw new ArithmeticException("long overflow");
+      }
+    }
+    return r;
+  }
+
   public static double gcd(double a, double b) {
     if (b == 0)
       return a;
@@ -29,8 +29,8 @@
  */
 package tec.units.ri.quantity;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -60,10 +60,10 @@ import tec.units.ri.AbstractQuantity;
 abstract class AbstractQuantityFactory<Q extends Quantity<Q>> implements QuantityFactory<Q> {
 
   /**
-   * Holds the current instances.
+   * Holds the instances overriding the default factories.
    */
   @SuppressWarnings("rawtypes")
-  static final Map<Class, QuantityFactory> INSTANCES = new HashMap<Class, QuantityFactory>();
+  static final Map<Class, QuantityFactory> INSTANCES = new ConcurrentHashMap<Class, QuantityFactory>();
 
   static final Logger logger = Logger.getLogger(AbstractQuantityFactory.class.getName());
 
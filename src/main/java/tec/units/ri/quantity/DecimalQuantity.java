@@ -0,0 +1,571 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import static tec.units.ri.internal.MathUtil.addExact;
+import static tec.units.ri.internal.MathUtil.multiplyExact;
+import static tec.units.ri.internal.MathUtil.subtractExact;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import tec.units.ri.AbstractQuantity;
+import tec.units.ri.function.RationalConverter;
+
+/**
+ * <p>
+ * An amount of quantity, consisting of a fixed-point decimal number and a Unit. The value is <code>unscaledValue &times; 10<sup>-scale</sup></code>
+ * with a <code>long</code> unscaled value and a scale from <code>0</code> to {@link #MAX_SCALE}, as for a {@link BigDecimal} but without allocating
+ * one. DecimalQuantity objects are immutable.
+ * </p>
+ *
+ * <p>
+ * Additions and subtractions with decimal or integer quantities are exact (scales are aligned), an {@link ArithmeticException} is thrown if the
+ * result overflows. Products are exact or rounded to the requested scale, see {@link #multiply(Quantity, int, RoundingMode)}. Conversions through a
+ * {@link RationalConverter} (e.g. between metric prefixes, or kWh and J) are performed in decimal arithmetic, the scale being increased as needed
+ * (e.g. <code>1.5 l</code> is <code>0.0015 m³</code>). Conversions which are not exact in decimal (e.g. minutes to hours), other conversions and
+ * operations (divisions) revert to <code>double</code> quantities, unless a scale and a rounding mode are explicitly given, see
+ * {@link #to(Unit, int, RoundingMode)}.
+ * </p>
+ *
+ * @see AbstractQuantity
+ * @see Quantity
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @param <Q>
+ *          The type of the quantity.
+ * @version 0.3, $Date: 2016-10-16 $
+ */
+public final class DecimalQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
+
+  /**
+   * The largest scale (number of fractional digits) of a decimal quantity.
+   */
+  public static final int MAX_SCALE = 18;
+
+  /**
+   * Holds the powers of ten up to <code>10<sup>MAX_SCALE</sup></code>.
+   */
+  private static final long[] POW10 = new long[MAX_SCALE + 1];
+
+  static {
+    POW10[0] = 1;
+    for (int i = 1; i <= MAX_SCALE; i++) {
+      POW10[i] = POW10[i - 1] * 10;
+    }
+  }
+
+  private final long unscaledValue;
+
+  private final int scale;
+
+  DecimalQuantity(long unscaledValue, int scale, Unit<Q> unit) {
+    super(unit);
+    this.unscaledValue = unscaledValue;
+    this.scale = scale;
+  }
+
+  /**
+   * Returns the decimal quantity <code>unscaledValue &times; 10<sup>-scale</sup></code> stated in the specified unit.
+   *
+   * @param unscaledValue
+   *          the unscaled value.
+   * @param scale
+   *          the number of fractional digits.
+   * @param unit
+   *          the measurement unit.
+   * @return the corresponding decimal quantity.
+   * @throws IllegalArgumentException
+   *           if the scale is not in the range <code>[0, MAX_SCALE]</code>.
+   */
+  public static <Q extends Quantity<Q>> DecimalQuantity<Q> of(long unscaledValue, int scale, Unit<Q> unit) {
+    if ((scale < 0) || (scale > MAX_SCALE))
+      throw new IllegalArgumentException("Scale " + scale + " not in [0, " + MAX_SCALE + "]");
+    return new DecimalQuantity<Q>(unscaledValue, scale, unit);
+  }
+
+  /**
+   * Returns the decimal quantity having the specified value stated in the specified unit.
+   *
+   * @param value
+   *          the quantity value.
+   * @param unit
+   *          the measurement unit.
+   * @return the corresponding decimal quantity.
+   * @throws ArithmeticException
+   *           if the value cannot be represented exactly with a <code>long</code> unscaled value and a scale up to {@link #MAX_SCALE}.
+   */
+  public static <Q extends Quantity<Q>> DecimalQuantity<Q> of(BigDecimal value, Unit<Q> unit) {
+    DecimalQuantity<Q> quantity = valueOf(value, unit);
+    if (quantity == null)
+      throw new ArithmeticException(value + " cannot be represented as a decimal quantity");
+    return quantity;
+  }
+
+  /**
+   * Returns the decimal quantity for the specified plain decimal representation (e.g. <code>"-12.50"</code>) stated in the specified unit. The scale
+   * of the quantity is the number of fractional digits, no intermediate {@link BigDecimal} is created.
+   *
+   * @param csq
+   *          an optional sign followed by digits, with an optional decimal point.
+   * @param unit
+   *          the measurement unit.
+   * @return the corresponding decimal quantity.
+   * @throws NumberFormatException
+   *           if the character sequence is not a plain decimal number (e.g. uses an exponent).
+   * @throws ArithmeticException
+   *           if the number has more than {@link #MAX_SCALE} fractional digits or its unscaled value overflows a <code>long</code>.
+   */
+  public static <Q extends Quantity<Q>> DecimalQuantity<Q> of(CharSequence csq, Unit<Q> unit) {
+    int length = csq.length();
+    int i = 0;
+    boolean negative = false;
+    if ((length > 0) && ((csq.charAt(0) == '-') || (csq.charAt(0) == '+'))) {
+      negative = csq.charAt(0) == '-';
+      i++;
+    }
+    long value = 0; // Accumulated negatively to reach Long.MIN_VALUE.
+    int scale = -1;
+    int digits = 0;
+    for (; i < length; i++) {
+      char c = csq.charAt(i);
+      if ((c == '.') && (scale < 0)) {
+        scale = 0;
+        continue;
+      }
+      if ((c < '0') || (c > '9'))
+        throw new NumberFormatException("Not a plain decimal number: " + csq);
+      int digit = c - '0';
+      if (value < (Long.MIN_VALUE + digit) / 10)
+        throw new ArithmeticException("Overflow (" + csq + ")");
+      value = value * 10 - digit;
+      digits++;
+      if (scale >= 0)
+        scale++;
+    }
+    if (digits == 0)
+      throw new NumberFormatException("Not a plain decimal number: " + csq);
+    if (!negative) {
+      if (value == Long.MIN_VALUE)
+        throw new ArithmeticException("Overflow (" + csq + ")");
+      value = -value;
+    }
+    scale = Math.max(scale, 0);
+    if (scale > MAX_SCALE)
+      throw new ArithmeticException("Too many fractional digits (" + csq + ")");
+    return new DecimalQuantity<Q>(value, scale, unit);
+  }
+
+  /**
+   * Returns the decimal quantity having the specified value or <code>null</code> if the value cannot be represented exactly.
+   */
+  static <Q extends Quantity<Q>> DecimalQuantity<Q> valueOf(BigDecimal value, Unit<Q> unit) {
+    if ((value.scale() < 0) || (value.scale() > MAX_SCALE)) {
+      value = value.stripTrailingZeros();
+      if (value.scale() < 0)
+        value = value.setScale(0);
+      if (value.scale() > MAX_SCALE)
+        return null;
+    }
+    BigInteger unscaled = value.unscaledValue();
+    return (unscaled.bitLength() < 64) ? new DecimalQuantity<Q>(unscaled.longValue(), value.scale(), unit) : null;
+  }
+
+  /**
+   * Returns the unscaled value of this quantity.
+   *
+   * @return the unscaled value.
+   */
+  public long getUnscaledValue() {
+    return unscaledValue;
+  }
+
+  /**
+   * Returns the scale of this quantity (its number of fractional digits).
+   *
+   * @return the scale.
+   */
+  public int getScale() {
+    return scale;
+  }
+
+  /**
+   * Returns the value of this quantity as a new {@link BigDecimal}. Use {@link #getUnscaledValue()} and {@link #getScale()}, or
+   * {@link #appendValue(Appendable)} to avoid the allocation.
+   */
+  @Override
+  public BigDecimal getValue() {
+    return BigDecimal.valueOf(unscaledValue, scale);
+  }
+
+  @Override
+  public double doubleValue() {
+    if (scale == 0)
+      return unscaledValue;
+    if (Math.abs(unscaledValue) < (1L << 53)) // Both operands exact, correctly rounded quotient.
+      return unscaledValue / (double) POW10[scale];
+    return getValue().doubleValue();
+  }
+
+  @Override
+  public long longValue() {
+    return unscaledValue / POW10[scale];
+  }
+
+  public double doubleValue(Unit<Q> unit) {
+    return (super.getUnit().equals(unit)) ? doubleValue() : super.getUnit().getConverterTo(unit).convert(doubleValue());
+  }
+
+  @Override
+  public long longValue(Unit<Q> unit) {
+    return (super.getUnit().equals(unit)) ? longValue() : longValueOf(to(unit));
+  }
+
+  /**
+   * Returns this quantity converted to the specified unit, as a decimal quantity if the conversion is exact in decimal arithmetic, as a
+   * <code>double</code> quantity otherwise.
+   */
+  @Override
+  public Quantity<Q> to(Unit<Q> unit) {
+    if (super.getUnit().equals(unit))
+      return this;
+    UnitConverter converter = super.getUnit().getConverterTo(unit);
+    if (converter.isIdentity())
+      return new DecimalQuantity<Q>(unscaledValue, scale, unit);
+    if (converter instanceof RationalConverter) {
+      DecimalQuantity<Q> result = convert((RationalConverter) converter, unit);
+      if (result != null)
+        return result;
+    }
+    return NumberQuantity.of(converter.convert(doubleValue()), unit);
+  }
+
+  /**
+   * Returns this quantity converted to the specified unit, rounded to the specified scale. If the conversion is not a {@link RationalConverter}, the
+   * decimal number of the converted <code>double</code> value string representation is used.
+   *
+   * @param unit
+   *          the unit in which the returned quantity is stated.
+   * @param scale
+   *          the scale of the converted value.
+   * @param roundingMode
+   *          the rounding mode.
+   * @return this quantity converted to the specified unit.
+   * @throws IllegalArgumentException
+   *           if the scale is not in the range <code>[0, MAX_SCALE]</code>.
+   * @throws ArithmeticException
+   *           if the result overflows or rounding is necessary with {@link RoundingMode#UNNECESSARY}.
+   */
+  public DecimalQuantity<Q> to(Unit<Q> unit, int scale, RoundingMode roundingMode) {
+    if ((scale < 0) || (scale > MAX_SCALE))
+      throw new IllegalArgumentException("Scale " + scale + " not in [0, " + MAX_SCALE + "]");
+    if (super.getUnit().equals(unit))
+      return setScale(scale, roundingMode);
+    UnitConverter converter = super.getUnit().getConverterTo(unit);
+    if (converter.isIdentity())
+      return new DecimalQuantity<Q>(unscaledValue, this.scale, unit).setScale(scale, roundingMode);
+    if (converter instanceof RationalConverter) {
+      RationalConverter rational = (RationalConverter) converter;
+      DecimalQuantity<Q> exact = convert(rational, unit);
+      if (exact != null)
+        return exact.setScale(scale, roundingMode);
+      BigDecimal value = new BigDecimal(rational.getExactDividend()).multiply(getValue());
+      return of(value.divide(new BigDecimal(rational.getExactDivisor()), scale, roundingMode), unit);
+    }
+    return of(new BigDecimal(Double.toString(converter.convert(doubleValue()))).setScale(scale, roundingMode), unit);
+  }
+
+  /**
+   * Returns this quantity with the specified scale.
+   *
+   * @param scale
+   *          the new scale.
+   * @param roundingMode
+   *          the rounding mode used if the scale is reduced.
+   * @return the corresponding decimal quantity.
+   * @throws IllegalArgumentException
+   *           if the scale is not in the range <code>[0, MAX_SCALE]</code>.
+   * @throws ArithmeticException
+   *           if the result overflows or rounding is necessary with {@link RoundingMode#UNNECESSARY}.
+   */
+  public DecimalQuantity<Q> setScale(int scale, RoundingMode roundingMode) {
+    if (scale == this.scale)
+      return this;
+    return of(rescale(unscaledValue, this.scale, scale, roundingMode), scale, getUnit());
+  }
+
+  @Override
+  public Appendable appendValue(Appendable dest) throws IOException {
+    if (scale == 0)
+      return dest.append(Long.toString(unscaledValue));
+    String digits = Long.toString(unscaledValue);
+    int start = 0;
+    if (unscaledValue < 0) {
+      dest.append('-');
+      start = 1;
+    }
+    int integerDigits = digits.length() - start - scale;
+    if (integerDigits > 0) {
+      dest.append(digits, start, start + integerDigits).append('.');
+    } else {
+      dest.append("0.");
+      for (int i = integerDigits; i < 0; i++) {
+        dest.append('0');
+      }
+    }
+    return dest.append(digits, Math.max(start, start + integerDigits), digits.length());
+  }
+
+  public Quantity<Q> add(Quantity<Q> that) {
+    DecimalQuantity<Q> other = decimalOf(that);
+    if (other == null)
+      return NumberQuantity.of(doubleValue() + doubleValueOf(that, getUnit()), getUnit());
+    int s = Math.max(scale, other.scale);
+    long sum = addExact(multiplyExact(unscaledValue, POW10[s - scale]), multiplyExact(other.unscaledValue, POW10[s - other.scale]));
+    return new DecimalQuantity<Q>(sum, s, getUnit());
+  }
+
+  public Quantity<Q> subtract(Quantity<Q> that) {
+    DecimalQuantity<Q> other = decimalOf(that);
+    if (other == null)
+      return NumberQuantity.of(doubleValue() - doubleValueOf(that, getUnit()), getUnit());
+    int s = Math.max(scale, other.scale);
+    long difference = subtractExact(multiplyExact(unscaledValue, POW10[s - scale]), multiplyExact(other.unscaledValue, POW10[s - other.scale]));
+    return new DecimalQuantity<Q>(difference, s, getUnit());
+  }
+
+  /**
+   * Returns the product of this quantity with the specified quantity. The product is exact if the other quantity is a decimal or integer quantity,
+   * it is a <code>double</code> quantity otherwise.
+   *
+   * @throws ArithmeticException
+   *           if the product overflows or if its scale would exceed {@link #MAX_SCALE}, in which case
+   *           {@link #multiply(Quantity, int, RoundingMode)} must be used.
+   */
+  public Quantity<?> multiply(Quantity<?> that) {
+    DecimalQuantity<?> other = exactOf(that);
+    if (other == null)
+      return NumberQuantity.of(doubleValue() * doubleValueOf(that), getUnit().multiply(that.getUnit()));
+    if (scale + other.scale > MAX_SCALE)
+      throw new ArithmeticException("Product scale " + (scale + other.scale) + " exceeds " + MAX_SCALE + ", a rounding mode is required");
+    return multiply(other, scale + other.scale, RoundingMode.UNNECESSARY);
+  }
+
+  /**
+   * Returns the product of this quantity with the specified quantity, rounded to the specified scale. If the other quantity is neither a decimal nor
+   * an integer quantity, the decimal number of its value string representation is used (e.g. <code>0.1</code> for a <code>double</code> value of
+   * <code>0.1</code>).
+   *
+   * @param that
+   *          the quantity to multiply by.
+   * @param scale
+   *          the scale of the product.
+   * @param roundingMode
+   *          the rounding mode.
+   * @return <code>this * that</code> stated in the product of both units.
+   * @throws IllegalArgumentException
+   *           if the scale is not in the range <code>[0, MAX_SCALE]</code>.
+   * @throws ArithmeticException
+   *           if the product overflows or rounding is necessary with {@link RoundingMode#UNNECESSARY}.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public DecimalQuantity<?> multiply(Quantity<?> that, int scale, RoundingMode roundingMode) {
+    if ((scale < 0) || (scale > MAX_SCALE))
+      throw new IllegalArgumentException("Scale " + scale + " not in [0, " + MAX_SCALE + "]");
+    DecimalQuantity<?> other = exactOf(that);
+    if (other == null)
+      other = of(new BigDecimal(that.getValue().toString()), (Unit) that.getUnit());
+    Unit<?> unit = getUnit().multiply(that.getUnit());
+    int productScale = this.scale + other.scale;
+    if (Math.abs(productScale - scale) <= MAX_SCALE) {
+      try {
+        return new DecimalQuantity(rescale(multiplyExact(unscaledValue, other.unscaledValue), productScale, scale, roundingMode), scale, unit);
+      } catch (ArithmeticException e) { // Overflow, reverts to BigDecimal arithmetic.
+      }
+    }
+    return of(getValue().multiply(other.getValue()).setScale(scale, roundingMode), (Unit) unit);
+  }
+
+  /**
+   * Returns this quantity multiplied by the specified number, exactly if the number is an integer.
+   */
+  public Quantity<Q> multiply(Number that) {
+    if ((that instanceof Long) || (that instanceof Integer) || (that instanceof Short) || (that instanceof Byte))
+      return new DecimalQuantity<Q>(multiplyExact(unscaledValue, that.longValue()), scale, getUnit());
+    return NumberQuantity.of(doubleValue() * that.doubleValue(), getUnit());
+  }
+
+  public Quantity<?> divide(Quantity<?> that) {
+    return NumberQuantity.of(doubleValue() / doubleValueOf(that), getUnit().divide(that.getUnit()));
+  }
+
+  public Quantity<Q> divide(Number that) {
+    return NumberQuantity.of(doubleValue() / that.doubleValue(), getUnit());
+  }
+
+  public Quantity<?> inverse() {
+    return NumberQuantity.of(1d / doubleValue(), getUnit().inverse());
+  }
+
+  /**
+   * Compares this quantity with the specified object. As for {@link BigDecimal#equals(Object)}, the scale is significant: <code>1.5 m</code> and
+   * <code>1.50 m</code> are not equal (use {@link #setScale(int, RoundingMode)} to compare values regardless of their scale).
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof DecimalQuantity) {
+      DecimalQuantity<?> that = (DecimalQuantity<?>) obj;
+      return (unscaledValue == that.unscaledValue) && (scale == that.scale) && getUnit().equals(that.getUnit());
+    }
+    return super.equals(obj);
+  }
+
+  /**
+   * Returns the hash code of this quantity, consistent with quantities holding an equal {@link BigDecimal} value. The value hash code is computed as
+   * {@link BigDecimal#hashCode()} without creating the <code>BigDecimal</code>.
+   */
+  @Override
+  public int hashCode() {
+    long magnitude = Math.abs(unscaledValue); // Long.MIN_VALUE is its own absolute value, as in BigDecimal.
+    int h = (int) (((int) (magnitude >>> 32)) * 31 + (magnitude & 0xFFFFFFFFL));
+    return getUnit().hashCode() + 31 * ((unscaledValue < 0) ? -h : h) + scale;
+  }
+
+  /**
+   * Returns the specified quantity as a decimal quantity stated in its own unit, or <code>null</code> if it is neither a decimal nor an integer
+   * quantity.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static DecimalQuantity<?> exactOf(Quantity<?> that) {
+    if (that instanceof DecimalQuantity)
+      return (DecimalQuantity<?>) that;
+    if ((that instanceof LongQuantity) || (that instanceof IntegerQuantity) || (that instanceof ShortQuantity))
+      return new DecimalQuantity(((AbstractQuantity<?>) that).longValue(), 0, that.getUnit());
+    return null;
+  }
+
+  /**
+   * Returns the specified quantity as a decimal quantity stated in this quantity unit, or <code>null</code> if it cannot be converted exactly.
+   */
+  @SuppressWarnings("unchecked")
+  private DecimalQuantity<Q> decimalOf(Quantity<Q> that) {
+    DecimalQuantity<Q> decimal = (DecimalQuantity<Q>) exactOf(that);
+    if (decimal == null)
+      return null;
+    Quantity<Q> converted = decimal.to(getUnit());
+    return (converted instanceof DecimalQuantity) ? (DecimalQuantity<Q>) converted : null;
+  }
+
+  /**
+   * Converts this quantity, the scale being increased until the result is exact. Returns <code>null</code> if the result cannot be represented
+   * exactly.
+   */
+  private DecimalQuantity<Q> convert(RationalConverter converter, Unit<Q> unit) {
+    BigInteger dividend = converter.getExactDividend();
+    BigInteger divisor = converter.getExactDivisor();
+    if ((dividend.bitLength() < 64) && (divisor.bitLength() < 64)) {
+      try {
+        long product = multiplyExact(unscaledValue, dividend.longValue());
+        long q = divisor.longValue();
+        long gcd = gcd(q, Math.abs(product % q));
+        long rest = q / gcd; // The result is exact in decimal if rest = 2^a * 5^b
+        int twos = Long.numberOfTrailingZeros(rest);
+        rest >>= twos;
+        int fives = 0;
+        while (rest % 5 == 0) {
+          rest /= 5;
+          fives++;
+        }
+        int k = Math.max(twos, fives);
+        if ((rest == 1) && (scale + k <= MAX_SCALE))
+          return new DecimalQuantity<Q>(multiplyExact(product / gcd, POW10[k] / (q / gcd)), scale + k, unit);
+      } catch (ArithmeticException e) { // Overflow, reverts to BigDecimal arithmetic.
+      }
+    }
+    BigDecimal value = new BigDecimal(dividend).multiply(getValue());
+    try {
+      return valueOf(value.divide(new BigDecimal(divisor)), unit);
+    } catch (ArithmeticException e) { // Non-terminating decimal expansion.
+      return null;
+    }
+  }
+
+  /**
+   * Returns the specified unscaled value rescaled from the specified scale to the specified scale (difference up to MAX_SCALE).
+   */
+  private static long rescale(long value, int from, int to, RoundingMode roundingMode) {
+    return (to >= from) ? multiplyExact(value, POW10[to - from]) : divide(value, POW10[from - to], roundingMode);
+  }
+
+  /**
+   * Returns the quotient of the specified value by the specified positive divisor, rounded with the specified mode.
+   */
+  private static long divide(long value, long divisor, RoundingMode roundingMode) {
+    long quotient = value / divisor;
+    long remainder = value % divisor;
+    if (remainder == 0)
+      return quotient;
+    int sign = (value < 0) ? -1 : 1;
+    long r = Math.abs(remainder);
+    int half = (r < divisor - r) ? -1 : ((r > divisor - r) ? 1 : 0);
+    switch (roundingMode) {
+      case UNNECESSARY:
+        throw new ArithmeticException("Rounding necessary");
+      case DOWN:
+        return quotient;
+      case UP:
+        return quotient + sign;
+      case FLOOR:
+        return (sign < 0) ? quotient - 1 : quotient;
+      case CEILING:
+        return (sign > 0) ? quotient + 1 : quotient;
+      case HALF_UP:
+        return (half >= 0) ? quotient + sign : quotient;
+      case HALF_DOWN:
+        return (half > 0) ? quotient + sign : quotient;
+      default: // HALF_EVEN
+        return ((half > 0) || ((half == 0) && ((quotient & 1) != 0))) ? quotient + sign : quotient;
+    }
+  }
+
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+}
@@ -62,7 +62,6 @@ public final class DefaultQuantityFactory<Q extends Quantity<Q>> extends Abstrac
   /**
    * The type of the quantities created by this factory.
    */
-  @SuppressWarnings("unused")
   private final Class<Q> type;
 
   /**
@@ -75,11 +74,12 @@ public final class DefaultQuantityFactory<Q extends Quantity<Q>> extends Abstrac
    *
    * @param type
    *          The type of the quantities created by this factory.
+   * @param metricUnit
+   *          The metric unit for quantities created by this factory.
    */
-  @SuppressWarnings("unchecked")
-  DefaultQuantityFactory(final Class<Q> type) {
+  DefaultQuantityFactory(final Class<Q> type, final Unit<Q> metricUnit) {
     this.type = type;
-    metricUnit = CLASS_TO_METRIC_UNIT.get(type);
+    this.metricUnit = metricUnit;
   }
 
   @SuppressWarnings("rawtypes")
@@ -124,6 +124,8 @@ public final class DefaultQuantityFactory<Q extends Quantity<Q>> extends Abstrac
   public Quantity<Q> create(Number value, Unit<Q> unit) {
     // public <N extends Number, U extends Unit<Q>> Q create(N value, U
     // unit) {
+    if (value instanceof Double)
+      return QuantityTypeMetadata.of(type).create(value.doubleValue(), unit);
     return (Q) new NumberQuantity<Q>(value, unit);
   }
 
@@ -142,13 +144,10 @@ public final class DefaultQuantityFactory<Q extends Quantity<Q>> extends Abstrac
    */
   @SuppressWarnings("unchecked")
   public static <Q extends Quantity<Q>> QuantityFactory<Q> getInstance(final Class<Q> type) {
-    logger.log(LOG_LEVEL, "Type: " + type + ": " + type.isInterface());
-    QuantityFactory<Q> factory;
-    if (!type.isInterface()) {
-      factory = new DefaultQuantityFactory<Q>(type);
-      // TODO use instances?
-    } else {
-      factory = INSTANCES.get(type);
+    if (logger.isLoggable(LOG_LEVEL))
+      logger.log(LOG_LEVEL, "Type: " + type + ": " + type.isInterface());
+    if (type.isInterface()) {
+      QuantityFactory<Q> factory = INSTANCES.get(type);
       if (factory != null)
         return factory;
       if (!Quantity.class.isAssignableFrom(type))
@@ -157,9 +156,7 @@ public final class DefaultQuantityFactory<Q extends Quantity<Q>> extends Abstrac
         // user don't try to trick the Java generic types system with
         // unsafe cast.
         throw new ClassCastException();
-      factory = new DefaultQuantityFactory<Q>(type);
-      INSTANCES.put(type, factory);
     }
-    return factory;
+    return QuantityTypeMetadata.of(type).getFactory();
   }
 }
@@ -29,6 +29,8 @@
  */
 package tec.units.ri.quantity;
 
+import java.io.IOException;
+
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
@@ -73,19 +75,32 @@ final class DoubleQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
     return (long) result;
   }
 
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return (long) value;
+  }
+
+  @Override
+  public Appendable appendValue(Appendable dest) throws IOException {
+    return dest.append(Double.toString(value));
+  }
+
   public Quantity<Q> add(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value + converted.getValue().doubleValue(), getUnit());
+    return NumberQuantity.of(value + doubleValueOf(that, getUnit()), getUnit());
   }
 
   public Quantity<Q> subtract(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value - converted.getValue().doubleValue(), getUnit());
+    return NumberQuantity.of(value - doubleValueOf(that, getUnit()), getUnit());
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> multiply(Quantity<?> that) {
-    return new DoubleQuantity(value * that.getValue().doubleValue(), getUnit().multiply(that.getUnit()));
+    return new DoubleQuantity(value * doubleValueOf(that), getUnit().multiply(that.getUnit()));
   }
 
   public Quantity<Q> multiply(Number that) {
@@ -94,7 +109,7 @@ final class DoubleQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> divide(Quantity<?> that) {
-    return new DoubleQuantity(value / that.getValue().doubleValue(), getUnit().divide(that.getUnit()));
+    return new DoubleQuantity(value / doubleValueOf(that), getUnit().divide(that.getUnit()));
   }
 
   public Quantity<Q> divide(Number that) {
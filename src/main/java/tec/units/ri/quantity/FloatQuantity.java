@@ -29,6 +29,8 @@
  */
 package tec.units.ri.quantity;
 
+import java.io.IOException;
+
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
@@ -72,19 +74,32 @@ final class FloatQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
     return (long) result;
   }
 
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return (long) value;
+  }
+
+  @Override
+  public Appendable appendValue(Appendable dest) throws IOException {
+    return dest.append(Float.toString(value));
+  }
+
   public Quantity<Q> add(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value + converted.getValue().floatValue(), getUnit());
+    return NumberQuantity.of(value + (float) doubleValueOf(that, getUnit()), getUnit());
   }
 
   public Quantity<Q> subtract(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value - converted.getValue().floatValue(), getUnit());
+    return NumberQuantity.of(value - (float) doubleValueOf(that, getUnit()), getUnit());
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> multiply(Quantity<?> that) {
-    return new FloatQuantity(value * that.getValue().floatValue(), getUnit().multiply(that.getUnit()));
+    return new FloatQuantity(value * (float) doubleValueOf(that), getUnit().multiply(that.getUnit()));
   }
 
   public Quantity<Q> multiply(Number that) {
@@ -93,7 +108,7 @@ final class FloatQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> divide(Quantity<?> that) {
-    return new FloatQuantity(value / that.getValue().floatValue(), getUnit().divide(that.getUnit()));
+    return new FloatQuantity(value / (float) doubleValueOf(that), getUnit().divide(that.getUnit()));
   }
 
   @SuppressWarnings("unchecked")
@@ -29,21 +29,33 @@
  */
 package tec.units.ri.quantity;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
 import tec.units.ri.AbstractQuantity;
+import tec.units.ri.unit.Units;
 
 /**
  * An amount of quantity, consisting of an integer and a Unit. IntegerQuantity objects are immutable.
  * 
+ * <p>
+ * Similarly to {@link Integer#valueOf(int)}, the quantities of small values (from <code>-128</code> to <code>127</code>) stated in one of
+ * the units of {@link Units} are shared, see {@link #valueOf(int, Unit)}.
+ * </p>
+ * 
  * @see AbstractQuantity
  * @see Quantity
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
  * @author Otavio de Santana
  * @param <Q>
  *          The type of the quantity.
- * @version 0.3, $Date: 2015-07-07 $
+ * @version 0.6, $Date: 2016-10-16 $
  */
 final class IntegerQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
@@ -54,6 +66,26 @@ final class IntegerQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
     this.value = value;
   }
 
+  /**
+   * Returns the quantity for the specified value stated in the specified unit, shared if the value is small and the unit is one of the units of
+   * {@link Units} (the same instance, an equal unit such as <code>CUBIC_METRE.divide(1000)</code> for <code>LITRE</code> is not shared).
+   *
+   * @param value
+   *          the quantity value.
+   * @param unit
+   *          the measurement unit.
+   * @return the corresponding quantity.
+   */
+  @SuppressWarnings("unchecked")
+  static <Q extends Quantity<Q>> IntegerQuantity<Q> valueOf(int value, Unit<Q> unit) {
+    if ((value >= Cache.LOW) && (value <= Cache.HIGH)) {
+      IntegerQuantity<?>[] shared = Cache.valuesFor(unit);
+      if (shared != null)
+        return (IntegerQuantity<Q>) shared[value - Cache.LOW];
+    }
+    return new IntegerQuantity<Q>(value, unit);
+  }
+
   @Override
   public Integer getValue() {
     return value;
@@ -65,34 +97,76 @@ final class IntegerQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
   @Override
   public long longValue(Unit<Q> unit) {
-    double result = doubleValue(unit);
-    if ((result < Long.MIN_VALUE) || (result > Long.MAX_VALUE)) {
-      throw new ArithmeticException("Overflow (" + result + ")");
-    }
-    return (long) result;
+    return (super.getUnit().equals(unit)) ? value : LongQuantity.longValue(value, super.getUnit().getConverterTo(unit));
+  }
+
+  /**
+   * Returns this quantity converted to the specified unit. If the conversion has an integer factor (e.g. s to ms) and does not overflow, the result
+   * is an exact <code>long</code> quantity (its value is a {@link Long}), otherwise it is a <code>double</code> quantity.
+   */
+  @Override
+  public Quantity<Q> to(Unit<Q> unit) {
+    return (super.getUnit().equals(unit)) ? this : LongQuantity.to(value, unit, super.getUnit().getConverterTo(unit));
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public Appendable appendValue(Appendable dest) throws IOException {
+    return dest.append(Integer.toString(value));
   }
 
+  /**
+   * Returns the sum of this quantity with the one specified.
+   *
+   * @throws ArithmeticException
+   *           if the operand or the result overflows an <code>int</code>.
+   */
   public Quantity<Q> add(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value + converted.getValue().intValue(), getUnit());
+    return NumberQuantity.of(LongQuantity.intValue((long) value + LongQuantity.intValue(longValueOf(that, getUnit()))), getUnit());
   }
 
+  /**
+   * Returns the difference of this quantity with the one specified.
+   *
+   * @throws ArithmeticException
+   *           if the operand or the result overflows an <code>int</code>.
+   */
   public Quantity<Q> subtract(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value - converted.getValue().intValue(), getUnit());
+    return NumberQuantity.of(LongQuantity.intValue((long) value - LongQuantity.intValue(longValueOf(that, getUnit()))), getUnit());
   }
 
+  /**
+   * Returns the product of this quantity with the one specified.
+   *
+   * @throws ArithmeticException
+   *           if the operand or the result overflows an <code>int</code>.
+   */
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> multiply(Quantity<?> that) {
-    return new IntegerQuantity(value * that.getValue().intValue(), getUnit().multiply(that.getUnit()));
+    return new IntegerQuantity(LongQuantity.intValue((long) value * LongQuantity.intValue(longValueOf(that))), getUnit().multiply(that.getUnit()));
   }
 
+  /**
+   * Returns the product of this quantity with the integer part of the specified number.
+   *
+   * @throws ArithmeticException
+   *           if the operand or the result overflows an <code>int</code>.
+   */
   public Quantity<Q> multiply(Number that) {
-    return NumberQuantity.of(value * that.intValue(), getUnit());
+    return NumberQuantity.of(LongQuantity.intValue((long) value * LongQuantity.intValue(that.longValue())), getUnit());
   }
 
   public Quantity<?> divide(Quantity<?> that) {
-    return NumberQuantity.of((double) value / that.getValue().doubleValue(), getUnit().divide(that.getUnit()));
+    return NumberQuantity.of((double) value / doubleValueOf(that), getUnit().divide(that.getUnit()));
   }
 
   @SuppressWarnings("unchecked")
@@ -104,4 +178,53 @@ final class IntegerQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
     return NumberQuantity.of(value / that.doubleValue(), getUnit());
   }
 
+
+  /**
+   * Holds the shared small value quantities, indexed by unit identifier. The values of a unit are all created on its first use.
+   */
+  private static final class Cache {
+
+    static final int LOW = -128;
+
+    static final int HIGH = 127;
+
+    /**
+     * Holds the units whose quantities are shared, compared by identity (no formatting or catalogue involved).
+     */
+    private static final Set<Unit<?>> SHARED = Collections.newSetFromMap(new IdentityHashMap<Unit<?>, Boolean>());
+
+    static {
+      SHARED.addAll(Units.getInstance().getUnits());
+    }
+
+    /**
+     * Holds the quantities per unit instance (copy on write, units not used yet are absent).
+     */
+    private static volatile Map<Unit<?>, IntegerQuantity<?>[]> values = new IdentityHashMap<Unit<?>, IntegerQuantity<?>[]>();
+
+    /**
+     * Returns the shared quantities stated in the specified unit or <code>null</code> if the unit quantities are not shared.
+     */
+    static IntegerQuantity<?>[] valuesFor(Unit<?> unit) {
+      IntegerQuantity<?>[] quantities = values.get(unit);
+      if (quantities != null)
+        return quantities;
+      return SHARED.contains(unit) ? create(unit) : null;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static synchronized IntegerQuantity<?>[] create(Unit<?> unit) {
+      IntegerQuantity<?>[] quantities = values.get(unit);
+      if (quantities != null)
+        return quantities;
+      quantities = new IntegerQuantity<?>[HIGH - LOW + 1];
+      for (int i = 0; i < quantities.length; i++) {
+        quantities[i] = new IntegerQuantity(LOW + i, unit);
+      }
+      Map<Unit<?>, IntegerQuantity<?>[]> copy = new IdentityHashMap<Unit<?>, IntegerQuantity<?>[]>(values);
+      copy.put(unit, quantities);
+      values = copy;
+      return quantities;
+    }
+  }
 }
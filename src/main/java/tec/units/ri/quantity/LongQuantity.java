@@ -29,10 +29,19 @@
  */
 package tec.units.ri.quantity;
 
+import static tec.units.ri.internal.MathUtil.addExact;
+import static tec.units.ri.internal.MathUtil.multiplyExact;
+import static tec.units.ri.internal.MathUtil.subtractExact;
+
+import java.io.IOException;
+
 import javax.measure.Quantity;
 import javax.measure.Unit;
+import javax.measure.UnitConverter;
 
+import tec.units.ri.AbstractConverter;
 import tec.units.ri.AbstractQuantity;
+import tec.units.ri.function.RationalConverter;
 
 /**
  * An amount of quantity, consisting of a long and a Unit. LongQuantity objects are immutable.
@@ -42,10 +51,15 @@ import tec.units.ri.AbstractQuantity;
  * @author <a href="mailto:werner@uom.technology">Werner Keil</a>
  * @param <Q>
  *          The type of the quantity.
- * @version 0.2, $Date: 2015-07-07 $
+ * @version 0.4, $Date: 2016-10-16 $
  */
 final class LongQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
+  /**
+   * Holds the largest magnitude below which every <code>long</code> is exactly representable as a <code>double</code> (2<sup>53</sup>).
+   */
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
   final long value;
 
   public LongQuantity(long value, Unit<Q> unit) {
@@ -59,39 +73,152 @@ final class LongQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
   }
 
   public double doubleValue(Unit<Q> unit) {
-    return (super.getUnit().equals(unit)) ? value : super.getUnit().getConverterTo(unit).convert(value);
+    if (super.getUnit().equals(unit))
+      return value;
+    UnitConverter converter = super.getUnit().getConverterTo(unit);
+    if (isIntegral(converter) && (Math.abs(value) > MAX_EXACT_DOUBLE)) {
+      try {
+        return ((AbstractConverter) converter).convertExact(value); // Exact product, rounded once.
+      } catch (ArithmeticException e) { // Overflow, reverts to double arithmetic.
+      }
+    }
+    return converter.convert(value);
   }
 
   @Override
   public long longValue(Unit<Q> unit) {
-    double result = doubleValue(unit);
-    if ((result < Long.MIN_VALUE) || (result > Long.MAX_VALUE)) {
+    return (super.getUnit().equals(unit)) ? value : longValue(value, super.getUnit().getConverterTo(unit));
+  }
+
+  /**
+   * Returns this quantity converted to the specified unit. If the conversion has an integer factor (e.g. s to ms) and does not overflow, the result
+   * is an exact <code>long</code> quantity (its value is a {@link Long}), otherwise it is a <code>double</code> quantity.
+   */
+  @Override
+  public Quantity<Q> to(Unit<Q> unit) {
+    return (super.getUnit().equals(unit)) ? this : to(value, unit, super.getUnit().getConverterTo(unit));
+  }
+
+  /**
+   * Indicates if the specified converter maps integers to integers (identity or integer scaling factor).
+   */
+  static boolean isIntegral(UnitConverter converter) {
+    return (converter instanceof AbstractConverter)
+        && (converter.isIdentity() || ((converter instanceof RationalConverter) && (((RationalConverter) converter).getDivisor() == 1)));
+  }
+
+  /**
+   * Returns the specified integer value converted with the specified converter, using integer arithmetic when available.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a <code>long</code>.
+   */
+  static long longValue(long value, UnitConverter converter) {
+    if (converter instanceof AbstractConverter)
+      return ((AbstractConverter) converter).convertLong(value);
+    double result = converter.convert((double) value);
+    if ((result < Long.MIN_VALUE) || (result >= Long.MAX_VALUE) || Double.isNaN(result)) { // (double) Long.MAX_VALUE is 2^63.
       throw new ArithmeticException("Overflow (" + result + ")");
     }
     return (long) result;
   }
 
+  /**
+   * Returns the specified value as an <code>int</code>.
+   *
+   * @throws ArithmeticException
+   *           if the value overflows an <code>int</code>.
+   */
+  static int intValue(long value) {
+    if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE))
+      throw new ArithmeticException("Integer overflow (" + value + ")");
+    return (int) value;
+  }
+
+  /**
+   * Returns the specified value as a <code>short</code>.
+   *
+   * @throws ArithmeticException
+   *           if the value overflows a <code>short</code>.
+   */
+  static short shortValue(long value) {
+    if ((value < Short.MIN_VALUE) || (value > Short.MAX_VALUE))
+      throw new ArithmeticException("Short overflow (" + value + ")");
+    return (short) value;
+  }
+
+  /**
+   * Returns the quantity for the specified integer value converted to the specified unit. The conversion stays in <code>long</code> arithmetic if
+   * the converter is {@link #isIntegral(UnitConverter) integral} and the result does not overflow, it reverts to <code>double</code> otherwise.
+   */
+  static <Q extends Quantity<Q>> Quantity<Q> to(long value, Unit<Q> unit, UnitConverter converter) {
+    if (isIntegral(converter)) {
+      try {
+        return NumberQuantity.of(((AbstractConverter) converter).convertExact(value), unit);
+      } catch (ArithmeticException e) { // Overflow, reverts to double arithmetic.
+      }
+    }
+    return NumberQuantity.of(converter.convert((double) value), unit);
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public Appendable appendValue(Appendable dest) throws IOException {
+    return dest.append(Long.toString(value));
+  }
+
+  /**
+   * Returns the sum of this quantity with the one specified.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a <code>long</code>.
+   */
   public Quantity<Q> add(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value + converted.getValue().longValue(), getUnit());
+    return NumberQuantity.of(addExact(value, longValueOf(that, getUnit())), getUnit());
   }
 
+  /**
+   * Returns the difference of this quantity with the one specified.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a <code>long</code>.
+   */
   public Quantity<Q> subtract(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value - converted.getValue().longValue(), getUnit());
+    return NumberQuantity.of(subtractExact(value, longValueOf(that, getUnit())), getUnit());
   }
 
+  /**
+   * Returns the product of this quantity with the one specified, stated in the product of both units.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a <code>long</code>.
+   */
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> multiply(Quantity<?> that) {
-    return new LongQuantity(value * that.getValue().longValue(), getUnit());
+    return new LongQuantity(multiplyExact(value, longValueOf(that)), getUnit().multiply(that.getUnit()));
   }
 
+  /**
+   * Returns the product of this quantity with the integer part of the specified number.
+   *
+   * @throws ArithmeticException
+   *           if the result overflows a <code>long</code>.
+   */
   public Quantity<Q> multiply(Number that) {
-    return NumberQuantity.of(value * that.intValue(), getUnit());
+    return NumberQuantity.of(multiplyExact(value, that.longValue()), getUnit());
   }
 
   public Quantity<?> divide(Quantity<?> that) {
-    return NumberQuantity.of((double) value / that.getValue().doubleValue(), getUnit().divide(that.getUnit()));
+    return NumberQuantity.of((double) value / doubleValueOf(that), getUnit().divide(that.getUnit()));
   }
 
   @SuppressWarnings("unchecked")
@@ -44,7 +44,7 @@ import tec.units.ri.format.QuantityFormat;
  * @author <a href="mailto:werner@uom.technology">Werner Keil</a>
  * @param <Q>
  *          The type of the quantity.
- * @version 0.12, $Date: 2016-04-20 $
+ * @version 0.13, $Date: 2016-10-16 $
  */
 public class NumberQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
@@ -155,10 +155,8 @@ public class NumberQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
     return isExact;
   }
 
-  @SuppressWarnings({ "rawtypes", "unchecked" })
   protected Quantity<Q> add(AbstractQuantity<Q> that) {
-    final Quantity<Q> thatToUnit = that.to(getUnit());
-    return new NumberQuantity(this.getValue().doubleValue() + thatToUnit.getValue().doubleValue(), getUnit());
+    return NumberQuantity.of(doubleValue() + that.doubleValue(getUnit()), getUnit());
   }
 
   public String toString() {
@@ -168,7 +166,7 @@ public class NumberQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<?> multiply(Quantity<?> that) {
     final Unit<?> unit = getUnit().multiply(that.getUnit());
-    return new NumberQuantity((getValue().doubleValue() * that.getValue().doubleValue()), unit);
+    return new DoubleQuantity(doubleValue() * doubleValueOf(that), unit);
   }
 
   public Quantity<Q> multiply(Number that) {
@@ -178,7 +176,7 @@ public class NumberQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
   @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<Q> divide(Quantity<?> that) {
     final Unit<?> unit = getUnit().divide(that.getUnit());
-    return new NumberQuantity((getValue().doubleValue() / that.getValue().doubleValue()), unit);
+    return new DoubleQuantity(doubleValue() / doubleValueOf(that), unit);
   }
 
   public Quantity<Q> divide(Number that) {
@@ -191,16 +189,12 @@ public class NumberQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
     return m;
   }
 
-  @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<Q> subtract(Quantity<Q> that) {
-    final Quantity<Q> thatToUnit = (Quantity<Q>) that.to(getUnit());
-    return new NumberQuantity(this.getValue().doubleValue() - thatToUnit.getValue().doubleValue(), getUnit());
+    return NumberQuantity.of(doubleValue() - doubleValueOf(that, getUnit()), getUnit());
   }
 
-  @SuppressWarnings({ "rawtypes", "unchecked" })
   public Quantity<Q> add(Quantity<Q> that) {
-    final Quantity<Q> thatToUnit = (Quantity<Q>) that.to(getUnit());
-    return new NumberQuantity(this.getValue().doubleValue() + thatToUnit.getValue().doubleValue(), getUnit());
+    return NumberQuantity.of(doubleValue() + doubleValueOf(that, getUnit()), getUnit());
   }
 
   /**
@@ -217,16 +211,19 @@ public class NumberQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
   }
 
   /**
-   * Returns the scalar quantity for the specified <code>int</code> stated in the specified unit.
+   * Returns the scalar quantity for the specified <code>int</code> stated in the specified unit. Like {@link Integer#valueOf(int)}, quantities of
+   * small values (<code>-128</code> to <code>127</code>) stated in the units of {@link tec.units.ri.unit.Units} are shared (the
+   * returned quantity unit is always the instance specified).
    *
    * @param intValue
    *          the quantity value.
    * @param unit
    *          the measurement unit.
    * @return the corresponding <code>int</code> quantity.
+   * @see QuantityInterner
    */
   public static <Q extends Quantity<Q>> AbstractQuantity<Q> of(int intValue, Unit<Q> unit) {
-    return new IntegerQuantity<Q>(intValue, unit);
+    return IntegerQuantity.valueOf(intValue, unit);
   }
 
   /**
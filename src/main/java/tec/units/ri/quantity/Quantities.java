@@ -29,6 +29,8 @@
  */
 package tec.units.ri.quantity;
 
+import java.math.BigDecimal;
+
 import javax.measure.Quantity;
 import javax.measure.Unit;
 import javax.measure.format.ParserException;
@@ -40,7 +42,7 @@ import tec.units.ri.format.QuantityFormat;
  * 
  * @author werner
  * @author otaviojava
- * @version 0.6, April 18, 2016
+ * @version 0.7, October 16, 2016
  */
 public final class Quantities {
   /**
@@ -79,7 +81,8 @@ public final class Quantities {
   }
 
   /**
-   * Returns the scalar measurement in the specified unit.
+   * Returns the scalar measurement in the specified unit. A {@link BigDecimal} value is held by a {@link DecimalQuantity} if it fits in a
+   * <code>long</code> unscaled value.
    * 
    * @param value
    *          the measurement value.
@@ -102,10 +105,34 @@ public final class Quantities {
     } else if (Short.class.isInstance(value)) {
       return new ShortQuantity<Q>(Short.class.cast(value), unit);
     } else if (Integer.class.isInstance(value)) {
-      return new IntegerQuantity<Q>(Integer.class.cast(value), unit);
+      return IntegerQuantity.valueOf(Integer.class.cast(value), unit); // Shared for small values.
     } else if (Float.class.isInstance(value)) {
       return new FloatQuantity<Q>(Float.class.cast(value), unit);
+    } else if (BigDecimal.class.isInstance(value)) {
+      DecimalQuantity<Q> decimal = DecimalQuantity.valueOf(BigDecimal.class.cast(value), unit);
+      if (decimal != null)
+        return decimal;
     }
     return new NumberQuantity<Q>(value, unit);
   }
+
+  /**
+   * Returns the decimal quantity <code>unscaledValue &times; 10<sup>-scale</sup></code> in the specified unit, without creating a
+   * {@link BigDecimal}.
+   * 
+   * @param unscaledValue
+   *          the unscaled value.
+   * @param scale
+   *          the number of fractional digits.
+   * @param unit
+   *          the measurement unit.
+   * @return the corresponding <code>decimal</code> quantity.
+   * @throws IllegalArgumentException
+   *           if the scale is not in the range <code>[0, DecimalQuantity.MAX_SCALE]</code>.
+   */
+  public static <Q extends Quantity<Q>> Quantity<Q> getQuantity(long unscaledValue, int scale, Unit<Q> unit) {
+    if (unit == null)
+      throw new NullPointerException();
+    return DecimalQuantity.of(unscaledValue, scale, unit);
+  }
 }
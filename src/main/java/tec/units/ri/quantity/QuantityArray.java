@@ -0,0 +1,570 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.AbstractQuantity;
+import tec.uom.lib.common.function.UnitSupplier;
+
+/**
+ * <p>
+ * A columnar sequence of quantities, consisting of a single {@link Unit} and a primitive <code>double</code> array of values. Compared to an array
+ * of quantity objects, there is no per element object overhead and bulk operations convert or combine whole arrays with a single converter lookup.
+ * </p>
+ *
+ * <p>
+ * Values can be changed through {@link #set(int, double)}, slices share the values of the array they are taken from. Arithmetic operations return
+ * new arrays. For interoperability with APIs taking a {@link Quantity}, the {@link #view() view} exposes any element as a quantity without
+ * allocation.
+ * </p>
+ *
+ * @param <Q>
+ *          The type of the quantity.
+ * @see LongQuantityArray
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.1, $Date: 2016-10-16 $
+ */
+public final class QuantityArray<Q extends Quantity<Q>> implements UnitSupplier<Q> {
+
+  private final double[] values;
+
+  private final int offset;
+
+  private final int length;
+
+  private final Unit<Q> unit;
+
+  private QuantityArray(double[] values, int offset, int length, Unit<Q> unit) {
+    if (unit == null)
+      throw new NullPointerException("unit");
+    this.values = values;
+    this.offset = offset;
+    this.length = length;
+    this.unit = unit;
+  }
+
+  /**
+   * Returns an array holding a copy of the specified values stated in the specified unit.
+   *
+   * @param values
+   *          the values.
+   * @param unit
+   *          the unit of the values.
+   * @return the corresponding quantity array.
+   */
+  public static <Q extends Quantity<Q>> QuantityArray<Q> of(double[] values, Unit<Q> unit) {
+    return new QuantityArray<Q>(values.clone(), 0, values.length, unit);
+  }
+
+  /**
+   * Returns an array backed by the specified values stated in the specified unit (no copy is made, changes are visible both ways).
+   *
+   * @param values
+   *          the values.
+   * @param unit
+   *          the unit of the values.
+   * @return the corresponding quantity array.
+   */
+  public static <Q extends Quantity<Q>> QuantityArray<Q> wrap(double[] values, Unit<Q> unit) {
+    return new QuantityArray<Q>(values, 0, values.length, unit);
+  }
+
+  /**
+   * Returns an array holding the specified quantities stated in the specified unit.
+   *
+   * @param quantities
+   *          the quantities.
+   * @param unit
+   *          the unit of the array.
+   * @return the corresponding quantity array.
+   */
+  public static <Q extends Quantity<Q>> QuantityArray<Q> of(Collection<? extends Quantity<Q>> quantities, Unit<Q> unit) {
+    double[] values = new double[quantities.size()];
+    int i = 0;
+    for (Quantity<Q> quantity : quantities) {
+      values[i++] = AbstractQuantity.doubleValueOf(quantity, unit);
+    }
+    return new QuantityArray<Q>(values, 0, values.length, unit);
+  }
+
+  @Override
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * Returns the number of elements.
+   *
+   * @return the length of this array.
+   */
+  public int size() {
+    return length;
+  }
+
+  /**
+   * Returns the value at the specified index, stated in this array unit.
+   *
+   * @param index
+   *          the element index.
+   * @return the element value.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of range.
+   */
+  public double get(int index) {
+    return values[offset + checkIndex(index)];
+  }
+
+  /**
+   * Sets the value at the specified index, stated in this array unit.
+   *
+   * @param index
+   *          the element index.
+   * @param value
+   *          the new value.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of range.
+   */
+  public void set(int index, double value) {
+    values[offset + checkIndex(index)] = value;
+  }
+
+  /**
+   * Returns the element at the specified index as an immutable quantity.
+   *
+   * @param index
+   *          the element index.
+   * @return the corresponding quantity.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of range.
+   */
+  public Quantity<Q> getQuantity(int index) {
+    return NumberQuantity.of(get(index), unit);
+  }
+
+  /**
+   * Returns the values stated in this array unit.
+   *
+   * @return a copy of the values.
+   */
+  public double[] toArray() {
+    return Arrays.copyOfRange(values, offset, offset + length);
+  }
+
+  /**
+   * Returns a view of the elements in the specified range, sharing the values of this array.
+   *
+   * @param from
+   *          the index of the first element (inclusive).
+   * @param to
+   *          the index of the last element (exclusive).
+   * @return the corresponding slice.
+   * @throws IndexOutOfBoundsException
+   *           if the range is out of bounds.
+   */
+  public QuantityArray<Q> slice(int from, int to) {
+    if ((from < 0) || (to > length) || (from > to))
+      throw new IndexOutOfBoundsException("[" + from + ", " + to + ") out of [0, " + length + ")");
+    return new QuantityArray<Q>(values, offset + from, to - from, unit);
+  }
+
+  /**
+   * Returns this array stated in the specified unit, all values being converted with a single converter.
+   *
+   * @param unit
+   *          the unit of the returned array.
+   * @return this array or a new array stated in the specified unit.
+   */
+  public QuantityArray<Q> to(Unit<Q> unit) {
+    if (unit.equals(this.unit))
+      return this;
+    double[] result = new double[length];
+    convert(this, unit, result);
+    return new QuantityArray<Q>(result, 0, length, unit);
+  }
+
+  /**
+   * Returns the element-wise sum of this array and the specified array (stated in this array unit).
+   *
+   * @param that
+   *          the array to add, of the same size.
+   * @return <code>this + that</code>.
+   * @throws IllegalArgumentException
+   *           if the arrays sizes are different.
+   */
+  public QuantityArray<Q> add(QuantityArray<Q> that) {
+    double[] result = converted(that);
+    for (int i = 0; i < length; i++) {
+      result[i] = values[offset + i] + result[i];
+    }
+    return new QuantityArray<Q>(result, 0, length, unit);
+  }
+
+  /**
+   * Returns this array with the specified quantity added to each element.
+   *
+   * @param that
+   *          the quantity to add.
+   * @return <code>this + that</code>.
+   */
+  public QuantityArray<Q> add(Quantity<Q> that) {
+    double value = AbstractQuantity.doubleValueOf(that, unit);
+    double[] result = new double[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = values[offset + i] + value;
+    }
+    return new QuantityArray<Q>(result, 0, length, unit);
+  }
+
+  /**
+   * Returns the element-wise difference of this array and the specified array (stated in this array unit).
+   *
+   * @param that
+   *          the array to subtract, of the same size.
+   * @return <code>this - that</code>.
+   * @throws IllegalArgumentException
+   *           if the arrays sizes are different.
+   */
+  public QuantityArray<Q> subtract(QuantityArray<Q> that) {
+    double[] result = converted(that);
+    for (int i = 0; i < length; i++) {
+      result[i] = values[offset + i] - result[i];
+    }
+    return new QuantityArray<Q>(result, 0, length, unit);
+  }
+
+  /**
+   * Returns this array with the specified quantity subtracted from each element.
+   *
+   * @param that
+   *          the quantity to subtract.
+   * @return <code>this - that</code>.
+   */
+  public QuantityArray<Q> subtract(Quantity<Q> that) {
+    double value = AbstractQuantity.doubleValueOf(that, unit);
+    double[] result = new double[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = values[offset + i] - value;
+    }
+    return new QuantityArray<Q>(result, 0, length, unit);
+  }
+
+  /**
+   * Returns this array with each element multiplied by the specified factor.
+   *
+   * @param factor
+   *          the factor.
+   * @return <code>this * factor</code>.
+   */
+  public QuantityArray<Q> multiply(double factor) {
+    double[] result = new double[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = values[offset + i] * factor;
+    }
+    return new QuantityArray<Q>(result, 0, length, unit);
+  }
+
+  /**
+   * Returns the element-wise product of this array and the specified array, stated in the product of both units.
+   *
+   * @param that
+   *          the array to multiply by, of the same size.
+   * @return <code>this * that</code>.
+   * @throws IllegalArgumentException
+   *           if the arrays sizes are different.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public QuantityArray<?> multiply(QuantityArray<?> that) {
+    checkSize(that.length);
+    double[] result = new double[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = values[offset + i] * that.values[that.offset + i];
+    }
+    return new QuantityArray(result, 0, length, unit.multiply(that.unit));
+  }
+
+  /**
+   * Returns this array with each element multiplied by the specified quantity, stated in the product of both units.
+   *
+   * @param that
+   *          the quantity to multiply by.
+   * @return <code>this * that</code>.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public QuantityArray<?> multiply(Quantity<?> that) {
+    QuantityArray<Q> result = multiply(AbstractQuantity.doubleValueOf(that));
+    return new QuantityArray(result.values, 0, length, unit.multiply(that.getUnit()));
+  }
+
+  /**
+   * Returns the sum of the elements.
+   *
+   * @return the sum stated in this array unit.
+   */
+  public Quantity<Q> sum() {
+    return NumberQuantity.of(total(), unit);
+  }
+
+  /**
+   * Returns the smallest element.
+   *
+   * @return the minimum stated in this array unit.
+   * @throws NoSuchElementException
+   *           if this array is empty.
+   */
+  public Quantity<Q> min() {
+    checkNotEmpty();
+    double min = values[offset];
+    for (int i = offset + 1, end = offset + length; i < end; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return NumberQuantity.of(min, unit);
+  }
+
+  /**
+   * Returns the largest element.
+   *
+   * @return the maximum stated in this array unit.
+   * @throws NoSuchElementException
+   *           if this array is empty.
+   */
+  public Quantity<Q> max() {
+    checkNotEmpty();
+    double max = values[offset];
+    for (int i = offset + 1, end = offset + length; i < end; i++) {
+      max = Math.max(max, values[i]);
+    }
+    return NumberQuantity.of(max, unit);
+  }
+
+  /**
+   * Returns the arithmetic mean of the elements.
+   *
+   * @return the mean stated in this array unit.
+   * @throws NoSuchElementException
+   *           if this array is empty.
+   */
+  public Quantity<Q> mean() {
+    checkNotEmpty();
+    return NumberQuantity.of(total() / length, unit);
+  }
+
+  /**
+   * Returns a reusable quantity view positioned on the first element, see {@link View}.
+   *
+   * @return a new view of this array.
+   */
+  public View<Q> view() {
+    return new View<Q>(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof QuantityArray))
+      return false;
+    QuantityArray<?> that = (QuantityArray<?>) obj;
+    if (!unit.equals(that.unit) || (length != that.length))
+      return false;
+    for (int i = 0; i < length; i++) {
+      if (Double.doubleToLongBits(values[offset + i]) != Double.doubleToLongBits(that.values[that.offset + i]))
+        return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = unit.hashCode();
+    for (int i = offset, end = offset + length; i < end; i++) {
+      long bits = Double.doubleToLongBits(values[i]);
+      hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray()) + " " + unit;
+  }
+
+  private double total() {
+    double sum = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+  // Returns the values of that array stated in this array unit (new array).
+  private double[] converted(QuantityArray<Q> that) {
+    checkSize(that.length);
+    double[] result = new double[length];
+    convert(that, unit, result);
+    return result;
+  }
+
+  // Converts the values of the specified array to the specified unit.
+  private static <Q extends Quantity<Q>> void convert(QuantityArray<Q> array, Unit<Q> unit, double[] dst) {
+    UnitConverter converter = array.unit.getConverterTo(unit);
+    if (converter instanceof AbstractConverter) {
+      ((AbstractConverter) converter).convert(array.values, array.offset, dst, 0, array.length);
+    } else {
+      for (int i = 0; i < array.length; i++) {
+        dst[i] = converter.convert(array.values[array.offset + i]);
+      }
+    }
+  }
+
+  private int checkIndex(int index) {
+    if ((index < 0) || (index >= length))
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+    return index;
+  }
+
+  private void checkSize(int size) {
+    if (size != length)
+      throw new IllegalArgumentException("Size mismatch: " + length + " and " + size);
+  }
+
+  private void checkNotEmpty() {
+    if (length == 0)
+      throw new NoSuchElementException("Empty array");
+  }
+
+  /**
+   * <p>
+   * A reusable quantity view of one element of a {@link QuantityArray}, moved with {@link #at(int)} instead of allocating a quantity per element.
+   * The value read is the current array value, a view is therefore not immutable and should not be retained (e.g. as map key) by the code it is
+   * passed to. Arithmetic operations return immutable quantities.
+   * </p>
+   *
+   * @param <Q>
+   *          The type of the quantity.
+   */
+  public static final class View<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
+
+    private final QuantityArray<Q> array;
+
+    private int index;
+
+    private View(QuantityArray<Q> array) {
+      super(array.unit);
+      this.array = array;
+    }
+
+    /**
+     * Moves this view to the specified element.
+     *
+     * @param index
+     *          the element index.
+     * @return this view.
+     * @throws IndexOutOfBoundsException
+     *           if the index is out of range.
+     */
+    public View<Q> at(int index) {
+      this.index = array.checkIndex(index);
+      return this;
+    }
+
+    /**
+     * Returns the index of the element this view is positioned on.
+     *
+     * @return the current index.
+     */
+    public int index() {
+      return index;
+    }
+
+    @Override
+    public Double getValue() {
+      return doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+      return array.values[array.offset + index];
+    }
+
+    @Override
+    public long longValue() {
+      return (long) doubleValue();
+    }
+
+    @Override
+    public double doubleValue(Unit<Q> unit) {
+      double value = doubleValue();
+      return getUnit().equals(unit) ? value : getUnit().getConverterTo(unit).convert(value);
+    }
+
+    @Override
+    public Quantity<Q> to(Unit<Q> unit) {
+      return NumberQuantity.of(doubleValue(unit), unit);
+    }
+
+    public Quantity<Q> add(Quantity<Q> that) {
+      return NumberQuantity.of(doubleValue() + doubleValueOf(that, getUnit()), getUnit());
+    }
+
+    public Quantity<Q> subtract(Quantity<Q> that) {
+      return NumberQuantity.of(doubleValue() - doubleValueOf(that, getUnit()), getUnit());
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public Quantity<?> multiply(Quantity<?> that) {
+      return new DoubleQuantity(doubleValue() * doubleValueOf(that), getUnit().multiply(that.getUnit()));
+    }
+
+    public Quantity<Q> multiply(Number that) {
+      return NumberQuantity.of(doubleValue() * that.doubleValue(), getUnit());
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public Quantity<?> divide(Quantity<?> that) {
+      return new DoubleQuantity(doubleValue() / doubleValueOf(that), getUnit().divide(that.getUnit()));
+    }
+
+    public Quantity<Q> divide(Number that) {
+      return NumberQuantity.of(doubleValue() / that.doubleValue(), getUnit());
+    }
+
+    public Quantity<?> inverse() {
+      return NumberQuantity.of(1d / doubleValue(), getUnit().inverse());
+    }
+  }
+}
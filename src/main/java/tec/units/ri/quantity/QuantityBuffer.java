@@ -0,0 +1,468 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.measure.Quantity;
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+import javax.measure.format.ParserException;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.AbstractQuantity;
+import tec.units.ri.format.SimpleUnitFormat;
+import tec.uom.lib.common.function.UnitSupplier;
+
+/**
+ * <p>
+ * A fixed capacity sequence of <code>double</code> quantities stated in a single {@link Unit}, stored outside of the Java heap in a direct
+ * {@link ByteBuffer} or in a file mapped into memory. Large series (e.g. sensor histories) then neither occupy the heap nor add to garbage collection
+ * pauses.
+ * </p>
+ *
+ * <p>
+ * A buffer starts with a header holding the byte order, the number of values and the unit {@link SimpleUnitFormat.Flavor#ASCII ASCII} symbol,
+ * followed by the values themselves. A mapped buffer is persistent: reopening its file with {@link #open(Path, Unit)} gives access to the values
+ * appended so far, without any deserialization step.
+ * </p>
+ *
+ * <p>
+ * Header layout (in the buffer byte order):
+ * </p>
+ * <ul>
+ * <li>bytes 0-3: magic number <code>0x51425546</code> ("QBUF")</li>
+ * <li>byte 4: byte order, <code>0</code> for big endian, <code>1</code> for little endian</li>
+ * <li>bytes 8-15: number of values</li>
+ * <li>bytes 16-19: length <i>n</i> of the unit symbol</li>
+ * <li>bytes 20-(20+<i>n</i>): unit symbol (US-ASCII)</li>
+ * <li>values from the next multiple of 8</li>
+ * </ul>
+ *
+ * <p>
+ * A buffer is a single {@link ByteBuffer}, its header and values cannot exceed <code>Integer.MAX_VALUE</code> bytes (about 2<sup>28</sup> values);
+ * larger series are split over several buffers. The unit of a mapped buffer must be one whose ASCII symbol parses back to it, so that the file can
+ * be reopened.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe; slices share the values of the buffer they are taken from.
+ * </p>
+ *
+ * @param <Q>
+ *          The type of the quantity.
+ * @see QuantityArray
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.2, $Date: 2016-10-16 $
+ */
+public final class QuantityBuffer<Q extends Quantity<Q>> implements UnitSupplier<Q> {
+
+  private static final int MAGIC = 0x51425546;
+
+  private static final int ORDER_OFFSET = 4;
+
+  private static final int SIZE_OFFSET = 8;
+
+  private static final int SYMBOL_OFFSET = 16;
+
+  private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+  /**
+   * Number of values converted at once by {@link #convertTo(QuantityBuffer)}.
+   */
+  private static final int CHUNK = 1024;
+
+  /**
+   * Holds the header (<code>null</code> for slices whose size is fixed).
+   */
+  private final ByteBuffer header;
+
+  private final DoubleBuffer values;
+
+  private final Unit<Q> unit;
+
+  private final int length; // Slices only.
+
+  private QuantityBuffer(ByteBuffer header, DoubleBuffer values, Unit<Q> unit, int length) {
+    this.header = header;
+    this.values = values;
+    this.unit = unit;
+    this.length = length;
+  }
+
+  /**
+   * Returns an empty buffer allocated in direct (off-heap) memory.
+   *
+   * @param unit
+   *          the unit of the values.
+   * @param capacity
+   *          the maximum number of values.
+   * @return the corresponding buffer.
+   * @throws IllegalArgumentException
+   *           if the capacity is negative or the buffer would exceed <code>Integer.MAX_VALUE</code> bytes.
+   */
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> allocateDirect(Unit<Q> unit, int capacity) {
+    byte[] symbol = symbolOf(unit, false); // Never parsed back.
+    ByteBuffer buffer = ByteBuffer.allocateDirect(byteSize(symbol.length, capacity));
+    return init(buffer, symbol, unit);
+  }
+
+  /**
+   * Creates (or overwrites) the specified file and returns an empty buffer mapped to it.
+   *
+   * @param file
+   *          the file holding the buffer.
+   * @param unit
+   *          the unit of the values.
+   * @param capacity
+   *          the maximum number of values.
+   * @return the corresponding buffer.
+   * @throws IOException
+   *           if the file cannot be created or mapped.
+   * @throws IllegalArgumentException
+   *           if the capacity is negative or the buffer would exceed <code>Integer.MAX_VALUE</code> bytes, or if the unit symbol does not parse back
+   *           to the unit.
+   */
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> create(Path file, Unit<Q> unit, int capacity) throws IOException {
+    byte[] symbol = symbolOf(unit, true);
+    int size = byteSize(symbol.length, capacity); // Checked before the file is touched.
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      return init(channel.map(MapMode.READ_WRITE, 0, size), symbol, unit);
+    } finally {
+      channel.close(); // The mapping stays valid.
+    }
+  }
+
+  /**
+   * Maps the specified file, previously created with {@link #create(Path, Unit, int)}.
+   *
+   * @param file
+   *          the file holding the buffer.
+   * @param unit
+   *          a unit of the same dimension as the unit stored in the file (used for type checking only, values stay in the stored unit).
+   * @return the corresponding buffer.
+   * @throws IOException
+   *           if the file cannot be mapped or is not a quantity buffer.
+   * @throws UnconvertibleException
+   *           if the stored unit is not compatible with the specified unit.
+   */
+  @SuppressWarnings("unchecked")
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> open(Path file, Unit<Q> unit) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    MappedByteBuffer buffer;
+    try {
+      buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+    } finally {
+      channel.close();
+    }
+    if (buffer.capacity() < SYMBOL_OFFSET + 4)
+      throw new IOException(file + " is not a quantity buffer");
+    buffer.order(buffer.get(ORDER_OFFSET) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+    int symbolLength = buffer.getInt(SYMBOL_OFFSET);
+    if ((buffer.getInt(0) != MAGIC) || (symbolLength < 0) || (dataOffset(symbolLength) > buffer.capacity()))
+      throw new IOException(file + " is not a quantity buffer");
+    byte[] symbol = new byte[symbolLength];
+    ((ByteBuffer) buffer.duplicate().position(SYMBOL_OFFSET + 4)).get(symbol);
+    Unit<?> stored;
+    try {
+      stored = SimpleUnitFormat.getInstance(SimpleUnitFormat.Flavor.ASCII).parse(new String(symbol, US_ASCII));
+    } catch (ParserException e) {
+      throw new IOException(file + " has an invalid unit", e);
+    }
+    if (!stored.isCompatible(unit))
+      throw new UnconvertibleException(stored + " is not compatible with " + unit);
+    return new QuantityBuffer<Q>(buffer, valuesOf(buffer, symbolLength), (Unit<Q>) stored, 0);
+  }
+
+  @Override
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * Returns the number of values appended so far (or the length of this slice).
+   *
+   * @return the size of this buffer.
+   */
+  public int size() {
+    return header != null ? (int) header.getLong(SIZE_OFFSET) : length;
+  }
+
+  /**
+   * Returns the maximum number of values this buffer can hold.
+   *
+   * @return the capacity of this buffer.
+   */
+  public int capacity() {
+    return header != null ? values.capacity() : length;
+  }
+
+  /**
+   * Returns the value at the specified index, stated in this buffer unit.
+   *
+   * @param index
+   *          the value index.
+   * @return the corresponding value.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of range.
+   */
+  public double get(int index) {
+    return values.get(checkIndex(index));
+  }
+
+  /**
+   * Sets the value at the specified index, stated in this buffer unit.
+   *
+   * @param index
+   *          the value index.
+   * @param value
+   *          the new value.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of range.
+   */
+  public void set(int index, double value) {
+    values.put(checkIndex(index), value);
+  }
+
+  /**
+   * Returns the value at the specified index as an immutable quantity.
+   *
+   * @param index
+   *          the value index.
+   * @return the corresponding quantity.
+   * @throws IndexOutOfBoundsException
+   *           if the index is out of range.
+   */
+  public Quantity<Q> getQuantity(int index) {
+    return NumberQuantity.of(get(index), unit);
+  }
+
+  /**
+   * Appends the specified value, stated in this buffer unit.
+   *
+   * @param value
+   *          the value to append.
+   * @throws BufferOverflowException
+   *           if this buffer is full.
+   * @throws UnsupportedOperationException
+   *           if this buffer is a slice.
+   */
+  public void append(double value) {
+    int size = checkAppend(1);
+    values.put(size, value);
+    header.putLong(SIZE_OFFSET, size + 1);
+  }
+
+  /**
+   * Appends the specified quantity, converted to this buffer unit.
+   *
+   * @param quantity
+   *          the quantity to append.
+   * @throws BufferOverflowException
+   *           if this buffer is full.
+   * @throws UnsupportedOperationException
+   *           if this buffer is a slice.
+   */
+  public void append(Quantity<Q> quantity) {
+    append(AbstractQuantity.doubleValueOf(quantity, unit));
+  }
+
+  /**
+   * Appends the specified values, stated in this buffer unit.
+   *
+   * @param src
+   *          the values to append.
+   * @param offset
+   *          the index of the first value to append.
+   * @param length
+   *          the number of values to append.
+   * @throws BufferOverflowException
+   *           if this buffer cannot hold all the values.
+   * @throws UnsupportedOperationException
+   *           if this buffer is a slice.
+   */
+  public void append(double[] src, int offset, int length) {
+    int size = checkAppend(length);
+    ((DoubleBuffer) values.duplicate().position(size)).put(src, offset, length);
+    header.putLong(SIZE_OFFSET, size + length);
+  }
+
+  /**
+   * Appends all the values of this buffer to the specified buffer, converted to its unit. Values are converted by blocks with a single converter.
+   *
+   * @param target
+   *          the buffer to append to.
+   * @throws BufferOverflowException
+   *           if the target buffer cannot hold all the values.
+   * @throws UnsupportedOperationException
+   *           if the target buffer is a slice.
+   */
+  public void convertTo(QuantityBuffer<Q> target) {
+    int size = size();
+    target.checkAppend(size);
+    UnitConverter converter = unit.getConverterTo(target.unit);
+    DoubleBuffer src = (DoubleBuffer) values.duplicate().position(0).limit(size);
+    double[] chunk = new double[Math.min(size, CHUNK)];
+    while (src.hasRemaining()) {
+      int n = Math.min(src.remaining(), chunk.length);
+      src.get(chunk, 0, n);
+      if (converter instanceof AbstractConverter) {
+        ((AbstractConverter) converter).convert(chunk, 0, chunk, 0, n);
+      } else {
+        for (int i = 0; i < n; i++) {
+          chunk[i] = converter.convert(chunk[i]);
+        }
+      }
+      target.append(chunk, 0, n);
+    }
+  }
+
+  /**
+   * Returns a view of the values in the specified range, sharing the storage of this buffer (no copy is made). A slice cannot be appended to.
+   *
+   * @param from
+   *          the index of the first value (inclusive).
+   * @param to
+   *          the index of the last value (exclusive).
+   * @return the corresponding slice.
+   * @throws IndexOutOfBoundsException
+   *           if the range is out of bounds.
+   */
+  public QuantityBuffer<Q> slice(int from, int to) {
+    int size = size();
+    if ((from < 0) || (to > size) || (from > to))
+      throw new IndexOutOfBoundsException("[" + from + ", " + to + ") out of [0, " + size + ")");
+    DoubleBuffer slice = ((DoubleBuffer) values.duplicate().position(from).limit(to)).slice();
+    return new QuantityBuffer<Q>(null, slice, unit, to - from);
+  }
+
+  /**
+   * Copies the values of this buffer onto the heap.
+   *
+   * @return the corresponding quantity array.
+   */
+  public QuantityArray<Q> toQuantityArray() {
+    double[] result = new double[size()];
+    ((DoubleBuffer) values.duplicate().position(0)).get(result);
+    return QuantityArray.wrap(result, unit);
+  }
+
+  /**
+   * Writes any change to the storage device if this buffer is mapped to a file, otherwise does nothing.
+   */
+  public void force() {
+    if (header instanceof MappedByteBuffer) {
+      ((MappedByteBuffer) header).force();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "QuantityBuffer[" + unit + ", size=" + size() + ", capacity=" + capacity() + "]";
+  }
+
+  private static <Q extends Quantity<Q>> QuantityBuffer<Q> init(ByteBuffer buffer, byte[] symbol, Unit<Q> unit) {
+    buffer.order(ByteOrder.nativeOrder());
+    buffer.putInt(0, MAGIC);
+    buffer.put(ORDER_OFFSET, (byte) (buffer.order() == ByteOrder.BIG_ENDIAN ? 0 : 1));
+    buffer.putLong(SIZE_OFFSET, 0);
+    buffer.putInt(SYMBOL_OFFSET, symbol.length);
+    ((ByteBuffer) buffer.duplicate().position(SYMBOL_OFFSET + 4)).put(symbol);
+    return new QuantityBuffer<Q>(buffer, valuesOf(buffer, symbol.length), unit, 0);
+  }
+
+  private static DoubleBuffer valuesOf(ByteBuffer buffer, int symbolLength) {
+    ByteBuffer data = ((ByteBuffer) buffer.duplicate().position(dataOffset(symbolLength))).slice();
+    return data.order(buffer.order()).asDoubleBuffer();
+  }
+
+  /**
+   * Returns the ASCII symbol of the specified unit, optionally checking that it parses back to the unit.
+   */
+  private static byte[] symbolOf(Unit<?> unit, boolean check) {
+    SimpleUnitFormat format = SimpleUnitFormat.getInstance(SimpleUnitFormat.Flavor.ASCII);
+    String symbol = format.format(unit);
+    if (!check)
+      return symbol.getBytes(US_ASCII);
+    Unit<?> parsed;
+    try {
+      parsed = format.parse(symbol);
+    } catch (ParserException e) {
+      parsed = null;
+    }
+    if (!unit.equals(parsed))
+      throw new IllegalArgumentException("Unit: " + unit + " cannot be stored, its symbol " + symbol + " does not parse back to it");
+    return symbol.getBytes(US_ASCII);
+  }
+
+  private static int dataOffset(int symbolLength) {
+    return (SYMBOL_OFFSET + 4 + symbolLength + 7) & ~7;
+  }
+
+  /**
+   * Returns the number of bytes of a buffer having the specified symbol length and capacity.
+   */
+  private static int byteSize(int symbolLength, int capacity) {
+    long size = dataOffset(symbolLength) + capacity * 8L;
+    if ((capacity < 0) || (size > Integer.MAX_VALUE))
+      throw new IllegalArgumentException("Capacity: " + capacity + " out of range (at most " + ((Integer.MAX_VALUE - dataOffset(symbolLength)) / 8)
+          + " values)");
+    return (int) size;
+  }
+
+  private int checkIndex(int index) {
+    int size = size();
+    if ((index < 0) || (index >= size))
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    return index;
+  }
+
+  private int checkAppend(int count) {
+    if (header == null)
+      throw new UnsupportedOperationException("Cannot append to a slice");
+    int size = size();
+    if (count > values.capacity() - size)
+      throw new BufferOverflowException();
+    return size;
+  }
+}
@@ -31,16 +31,19 @@ package tec.units.ri.quantity;
 
 import tec.units.ri.AbstractUnit;
 import tec.units.ri.unit.BaseUnit;
-import tec.units.ri.unit.Units;
+import tec.units.ri.unit.ProductUnit;
 
 import javax.measure.Dimension;
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
+import java.lang.ref.WeakReference;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -59,62 +62,102 @@ import java.util.logging.Logger;
  * </code>
  * </p>
  *
+ * <p>
+ * Dimensions over the seven SI base dimensions are held as a packed vector of rational exponents (one signed byte per base dimension and a common
+ * root) and are interned, their equality is a reference comparison and their algebra a few integer operations. Custom dimensions (or exponents
+ * exceeding the packed range) are held as a pseudo-unit.
+ * </p>
+ *
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.6, $Date: 2015-10-29 $
+ * @version 0.8, $Date: 2016-10-16 $
  */
 public final class QuantityDimension implements Dimension {
-  private static final Logger logger = Logger.getLogger(QuantityDimension.class.getName());
 
   /**
 	 * 
 	 */
   // private static final long serialVersionUID = 123289037718650030L;
 
+  /**
+   * Holds the symbols of the base dimensions, in packed vector order.
+   */
+  private static final char[] SYMBOLS = { 'L', 'M', 'T', 'I', '\u0398', 'N', 'J' };
+
+  /**
+   * Holds the bit position of the common root in the packed vector.
+   */
+  private static final int ROOT_SHIFT = 56;
+
+  /**
+   * Holds the value of {@link #exponents} for dimensions not held as a packed vector.
+   */
+  private static final long UNPACKED = 0L;
+
+  /**
+   * Holds the interned packed dimensions.
+   */
+  private static final ConcurrentMap<Long, QuantityDimension> PACKED = new ConcurrentHashMap<Long, QuantityDimension>();
+
+  /**
+   * Holds the interned custom dimensions (weakly, custom dimensions compare their pseudo-unit for equality).
+   */
+  private static final Map<Unit<?>, WeakReference<QuantityDimension>> CUSTOM = new WeakHashMap<Unit<?>, WeakReference<QuantityDimension>>();
+
   /**
    * Holds dimensionless.
    */
-  public static final Dimension NONE = new QuantityDimension(AbstractUnit.ONE);
+  public static final Dimension NONE = packed(1L << ROOT_SHIFT);
 
   /**
    * Holds length dimension (L).
    */
-  public static final Dimension LENGTH = new QuantityDimension('L');
+  public static final Dimension LENGTH = base(0);
 
   /**
    * Holds mass dimension (M).
    */
-  public static final Dimension MASS = new QuantityDimension('M');
+  public static final Dimension MASS = base(1);
 
   /**
    * Holds time dimension (T).
    */
-  public static final Dimension TIME = new QuantityDimension('T');
+  public static final Dimension TIME = base(2);
 
   /**
    * Holds electric current dimension (I).
    */
-  public static final Dimension ELECTRIC_CURRENT = new QuantityDimension('I');
+  public static final Dimension ELECTRIC_CURRENT = base(3);
 
   /**
    * Holds temperature dimension (Θ).
    */
-  public static final Dimension TEMPERATURE = new QuantityDimension('\u0398');
+  public static final Dimension TEMPERATURE = base(4);
 
   /**
    * Holds amount of substance dimension (N).
    */
-  public static final Dimension AMOUNT_OF_SUBSTANCE = new QuantityDimension('N');
+  public static final Dimension AMOUNT_OF_SUBSTANCE = base(5);
 
   /**
    * Holds luminous intensity dimension (J).
    */
-  public static final Dimension LUMINOUS_INTENSITY = new QuantityDimension('J');
+  public static final Dimension LUMINOUS_INTENSITY = base(6);
+
+  /**
+   * Holds the packed exponents (one signed byte per base dimension, the common root in the high byte) or {@link #UNPACKED}.
+   */
+  private final long exponents;
+
+  /**
+   * Holds the pseudo unit associated to this dimension (computed on first use for packed dimensions).
+   */
+  private volatile Unit<?> pseudoUnit;
 
   /**
-   * Holds the pseudo unit associated to this dimension.
+   * Holds the product dimensions (computed on first use).
    */
-  private final Unit<?> pseudoUnit;
+  private volatile Map<QuantityDimension, Integer> productDimensions;
 
   /**
    * Returns the dimension for the specified quantity type by aggregating the results of {@link DimensionService} or <code>null</code> if the
@@ -127,33 +170,33 @@ public final class QuantityDimension implements Dimension {
   public static <Q extends Quantity<Q>> Dimension getInstance(Class<Q> quantityType) {
     // TODO: Track OSGi services and aggregate results (register custom
     // types)
-    Unit<Q> siUnit = Units.getInstance().getUnit(quantityType);
-    if (siUnit == null)
-      logger.log(Level.FINER, "Quantity type: " + quantityType + " unknown"); // we're logging but probably FINER is
-    // enough?
-    return (siUnit != null) ? siUnit.getDimension() : null;
+    return QuantityTypeMetadata.of(quantityType).getDimension();
   }
 
   /**
-   * Returns the physical dimension having the specified symbol.
+   * Returns the dimension for the specified symbol.
    *
-   * @param symbol
-   *          the associated symbol.
+   * @param sambol
+   *          the quantity symbol.
+   * @return the dimension for the given symbol.
    */
   @SuppressWarnings("rawtypes")
-  QuantityDimension(char symbol) {
-    pseudoUnit = new BaseUnit("[" + symbol + ']', NONE);
+  public static QuantityDimension getInstance(char symbol) {
+    for (int i = 0; i < SYMBOLS.length; i++) {
+      if (SYMBOLS[i] == symbol)
+        return base(i);
+    }
+    return custom(new BaseUnit("[" + symbol + ']', NONE));
   }
 
   /**
-   * Returns the dimension for the specified symbol.
+   * Constructor from packed exponents (not visible).
    *
-   * @param sambol
-   *          the quantity symbol.
-   * @return the dimension for the given symbol.
+   * @param exponents
+   *          the packed exponents.
    */
-  public static QuantityDimension getInstance(char symbol) {
-    return new QuantityDimension(symbol);
+  private QuantityDimension(long exponents) {
+    this.exponents = exponents;
   }
 
   /**
@@ -163,9 +206,151 @@ public final class QuantityDimension implements Dimension {
    *          the pseudo-unit.
    */
   private QuantityDimension(Unit<?> pseudoUnit) {
+    this.exponents = UNPACKED;
     this.pseudoUnit = pseudoUnit;
   }
 
+  /**
+   * Returns the interned dimension having the specified packed exponents.
+   */
+  private static QuantityDimension packed(long exponents) {
+    QuantityDimension dimension = PACKED.get(exponents);
+    if (dimension == null) {
+      dimension = new QuantityDimension(exponents);
+      QuantityDimension previous = PACKED.putIfAbsent(exponents, dimension);
+      if (previous != null)
+        dimension = previous;
+    }
+    return dimension;
+  }
+
+  /**
+   * Returns the base dimension at the specified index.
+   */
+  private static QuantityDimension base(int index) {
+    return packed((1L << ROOT_SHIFT) | (1L << (8 * index)));
+  }
+
+  /**
+   * Returns the interned custom dimension for the specified pseudo-unit.
+   */
+  private static QuantityDimension custom(Unit<?> pseudoUnit) {
+    synchronized (CUSTOM) {
+      WeakReference<QuantityDimension> ref = CUSTOM.get(pseudoUnit);
+      QuantityDimension dimension = (ref != null) ? ref.get() : null;
+      if (dimension == null) {
+        dimension = new QuantityDimension(pseudoUnit);
+        CUSTOM.put(pseudoUnit, new WeakReference<QuantityDimension>(dimension));
+      }
+      return dimension;
+    }
+  }
+
+  /**
+   * Returns the dimension for the specified pseudo-unit, packed if the pseudo-unit is a product of base dimensions.
+   */
+  private static QuantityDimension of(Unit<?> pseudoUnit) {
+    if (pseudoUnit instanceof ProductUnit<?>) {
+      ProductUnit<?> product = (ProductUnit<?>) pseudoUnit;
+      int root = 1;
+      for (int i = 0; i < product.getUnitCount(); i++) {
+        if (indexOf(product.getUnit(i)) < 0)
+          return custom(pseudoUnit);
+        int r = product.getUnitRoot(i);
+        root = root / gcd(root, r) * r;
+        if (root > 0xFF)
+          return custom(pseudoUnit);
+      }
+      long exponents = ((long) root) << ROOT_SHIFT;
+      for (int i = 0; i < product.getUnitCount(); i++) {
+        int n = product.getUnitPow(i) * (root / product.getUnitRoot(i));
+        if ((n < Byte.MIN_VALUE) || (n > Byte.MAX_VALUE))
+          return custom(pseudoUnit);
+        exponents |= (n & 0xFFL) << (8 * indexOf(product.getUnit(i)));
+      }
+      return combine(exponents, 1, 0L, 0, root);
+    }
+    int index = indexOf(pseudoUnit);
+    return (index < 0) ? custom(pseudoUnit) : base(index);
+  }
+
+  /**
+   * Returns the index of the base dimension having the specified pseudo-unit or <code>-1</code>.
+   */
+  private static int indexOf(Unit<?> pseudoUnit) {
+    if (!(pseudoUnit instanceof BaseUnit))
+      return -1;
+    String symbol = pseudoUnit.getSymbol();
+    if ((symbol == null) || (symbol.length() != 3) || !NONE.equals(pseudoUnit.getDimension()))
+      return -1;
+    for (int i = 0; i < SYMBOLS.length; i++) {
+      if (symbol.charAt(1) == SYMBOLS[i])
+        return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the numerator of the exponent at the specified index.
+   */
+  private static int exponent(long exponents, int index) {
+    return (byte) (exponents >>> (8 * index));
+  }
+
+  /**
+   * Returns the common root of the exponents.
+   */
+  private static int root(long exponents) {
+    return (int) (exponents >>> ROOT_SHIFT);
+  }
+
+  /**
+   * Returns the dimension having the exponents <code>(a[i] * ma + b[i] * mb) / root</code> or <code>null</code> if the result cannot be packed.
+   *
+   * @throws ArithmeticException
+   *           if an exponent overflows an <code>int</code>.
+   */
+  private static QuantityDimension combine(long a, int ma, long b, int mb, int root) {
+    int[] n = new int[SYMBOLS.length];
+    int gcd = root;
+    for (int i = 0; i < SYMBOLS.length; i++) {
+      n[i] = toIntExact((long) exponent(a, i) * ma + (long) exponent(b, i) * mb);
+      gcd = gcd(Math.abs(n[i]), gcd);
+    }
+    root /= gcd;
+    if (root > 0xFF)
+      return null;
+    long exponents = ((long) root) << ROOT_SHIFT;
+    for (int i = 0; i < SYMBOLS.length; i++) {
+      int e = n[i] / gcd;
+      if ((e < Byte.MIN_VALUE) || (e > Byte.MAX_VALUE))
+        return null;
+      exponents |= (e & 0xFFL) << (8 * i);
+    }
+    return packed(exponents);
+  }
+
+  /**
+   * Returns the specified value as an <code>int</code>.
+   *
+   * @throws ArithmeticException
+   *           if the value overflows an <code>int</code>.
+   */
+  private static int toIntExact(long value) {
+    if ((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE))
+      throw new ArithmeticException("Dimension exponent overflow: " + value);
+    return (int) value;
+  }
+
+  private static int gcd(int m, int n) {
+    while (n != 0) {
+      int r = m % n;
+      m = n;
+      n = r;
+    }
+    return m;
+  }
+
   /**
    * Returns the product of this dimension with the one specified. If the specified dimension is not a physics dimension, then
    * <code>that.multiply(this)</code> is returned.
@@ -186,7 +371,14 @@ public final class QuantityDimension implements Dimension {
    * @return <code>this * that</code>
    */
   public QuantityDimension multiply(QuantityDimension that) {
-    return new QuantityDimension(this.pseudoUnit.multiply(that.pseudoUnit));
+    if ((this.exponents != UNPACKED) && (that.exponents != UNPACKED)) {
+      int ra = root(this.exponents);
+      int rb = root(that.exponents);
+      QuantityDimension result = combine(this.exponents, rb, that.exponents, ra, ra * rb);
+      if (result != null)
+        return result;
+    }
+    return of(this.getPseudoUnit().multiply(that.getPseudoUnit()));
   }
 
   /**
@@ -208,6 +400,13 @@ public final class QuantityDimension implements Dimension {
    * @return <code>this.multiply(that.pow(-1))</code>
    */
   public QuantityDimension divide(QuantityDimension that) {
+    if ((this.exponents != UNPACKED) && (that.exponents != UNPACKED)) {
+      int ra = root(this.exponents);
+      int rb = root(that.exponents);
+      QuantityDimension result = combine(this.exponents, rb, that.exponents, -ra, ra * rb);
+      if (result != null)
+        return result;
+    }
     return this.multiply(that.pow(-1));
   }
 
@@ -217,9 +416,16 @@ public final class QuantityDimension implements Dimension {
    * @param n
    *          the exponent.
    * @return the result of raising this dimension to the exponent.
+   * @throws ArithmeticException
+   *           if an exponent of the result overflows an <code>int</code>.
    */
   public final QuantityDimension pow(int n) {
-    return new QuantityDimension(this.pseudoUnit.pow(n));
+    if (exponents != UNPACKED) {
+      QuantityDimension result = combine(exponents, n, 0L, 0, root(exponents));
+      if (result != null)
+        return result;
+    }
+    return of(this.getPseudoUnit().pow(n));
   }
 
   /**
@@ -229,10 +435,17 @@ public final class QuantityDimension implements Dimension {
    *          the root's order.
    * @return the result of taking the given root of this dimension.
    * @throws ArithmeticException
-   *           if <code>n == 0</code>.
+   *           if <code>n == 0</code> or if the root of the result overflows an <code>int</code>.
    */
   public final QuantityDimension root(int n) {
-    return new QuantityDimension(this.pseudoUnit.root(n));
+    if (n == 0)
+      throw new ArithmeticException("Root's order of zero");
+    if (exponents != UNPACKED) {
+      QuantityDimension result = combine(exponents, (n > 0) ? 1 : -1, 0L, 0, toIntExact(Math.abs((long) root(exponents) * n)));
+      if (result != null)
+        return result;
+    }
+    return of(this.getPseudoUnit().root(n));
   }
 
   /**
@@ -243,19 +456,57 @@ public final class QuantityDimension implements Dimension {
    */
   @SuppressWarnings("rawtypes")
   public Map<? extends QuantityDimension, Integer> getProductDimensions() {
-    Map<? extends Unit, Integer> pseudoUnits = pseudoUnit.getProductUnits();
-    if (pseudoUnits == null)
-      return null;
-    Map<QuantityDimension, Integer> fundamentalDimensions = new HashMap<QuantityDimension, Integer>();
-    for (Map.Entry<? extends Unit, Integer> entry : pseudoUnits.entrySet()) {
-      fundamentalDimensions.put(new QuantityDimension(entry.getKey()), entry.getValue());
+    Map<QuantityDimension, Integer> dimensions = productDimensions;
+    if (dimensions != null)
+      return dimensions;
+    if (exponents != UNPACKED) {
+      int root = root(exponents);
+      dimensions = new HashMap<QuantityDimension, Integer>();
+      for (int i = 0; i < SYMBOLS.length; i++) {
+        int n = exponent(exponents, i);
+        if (n != 0)
+          dimensions.put(base(i), n / gcd(Math.abs(n), root));
+      }
+      if ((dimensions.size() == 1) && (root == 1) && dimensions.containsValue(1))
+        return null; // Base dimension.
+    } else {
+      Map<? extends Unit, Integer> pseudoUnits = pseudoUnit.getProductUnits();
+      if (pseudoUnits == null)
+        return null;
+      dimensions = new HashMap<QuantityDimension, Integer>();
+      for (Map.Entry<? extends Unit, Integer> entry : pseudoUnits.entrySet()) {
+        dimensions.put(of(entry.getKey()), entry.getValue());
+      }
+    }
+    dimensions = Collections.unmodifiableMap(dimensions);
+    productDimensions = dimensions;
+    return dimensions;
+  }
+
+  /**
+   * Returns the pseudo-unit of this dimension (the product of the base dimensions pseudo-units for packed dimensions).
+   */
+  @SuppressWarnings("rawtypes")
+  private Unit<?> getPseudoUnit() {
+    Unit<?> unit = pseudoUnit;
+    if (unit == null) {
+      int root = root(exponents);
+      unit = AbstractUnit.ONE;
+      for (int i = 0; i < SYMBOLS.length; i++) {
+        int n = exponent(exponents, i);
+        if (n != 0) {
+          int gcd = gcd(Math.abs(n), root);
+          unit = unit.multiply(new BaseUnit("[" + SYMBOLS[i] + ']', NONE).pow(n / gcd).root(root / gcd));
+        }
+      }
+      pseudoUnit = unit;
     }
-    return fundamentalDimensions;
+    return unit;
   }
 
   @Override
   public String toString() {
-    return pseudoUnit.toString();
+    return getPseudoUnit().toString();
   }
 
   @Override
@@ -265,13 +516,15 @@ public final class QuantityDimension implements Dimension {
     }
     if (obj instanceof QuantityDimension) {
       QuantityDimension other = (QuantityDimension) obj;
-      return (pseudoUnit == other.pseudoUnit) || (pseudoUnit != null && pseudoUnit.equals(other.pseudoUnit));
+      if ((exponents != UNPACKED) || (other.exponents != UNPACKED))
+        return exponents == other.exponents;
+      return pseudoUnit.equals(other.pseudoUnit);
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return pseudoUnit == null ? 0 : pseudoUnit.hashCode();
+    return (exponents != UNPACKED) ? (int) (exponents ^ (exponents >>> 32)) : pseudoUnit.hashCode();
   }
 }
@@ -0,0 +1,114 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.measure.Quantity;
+
+/**
+ * <p>
+ * This class canonicalizes immutable quantities: equal quantities (same value type, value and unit) interned with the same interner are the same
+ * instance. Large in-memory structures holding many equal quantities (e.g. rule sets or configurations) can then share them.
+ * </p>
+ *
+ * <p>
+ * References are weak, a quantity which is no longer used elsewhere is eventually removed from the interner. Only immutable quantities should be
+ * interned (not for example {@link QuantityArray.View}). Small <code>int</code> quantities are already shared by
+ * {@link NumberQuantity#of(int, javax.measure.Unit)}.
+ * </p>
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.1, $Date: 2016-10-16 $
+ */
+public final class QuantityInterner {
+
+  /**
+   * Holds the process-wide instance.
+   */
+  private static final QuantityInterner INSTANCE = new QuantityInterner();
+
+  private final Map<Quantity<?>, WeakReference<Quantity<?>>> quantities = new WeakHashMap<Quantity<?>, WeakReference<Quantity<?>>>();
+
+  /**
+   * Creates an empty interner.
+   */
+  public QuantityInterner() {
+  }
+
+  /**
+   * Returns the process-wide interner.
+   *
+   * @return the shared instance.
+   */
+  public static QuantityInterner getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the canonical instance of the specified quantity: the first equal quantity interned and still referenced, or the specified quantity
+   * itself.
+   *
+   * @param quantity
+   *          the immutable quantity to intern.
+   * @return the canonical quantity equal to the specified one.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <Q extends Quantity<Q>> Quantity<Q> intern(Quantity<Q> quantity) {
+    if (quantity == null)
+      throw new NullPointerException();
+    WeakReference<Quantity<?>> reference = quantities.get(quantity);
+    if (reference != null) {
+      Quantity<?> canonical = reference.get();
+      if (canonical != null)
+        return (Quantity<Q>) canonical;
+    }
+    quantities.put(quantity, new WeakReference<Quantity<?>>(quantity));
+    return quantity;
+  }
+
+  /**
+   * Returns the number of quantities currently interned (including quantities no longer referenced but not yet removed).
+   *
+   * @return the number of interned quantities.
+   */
+  public synchronized int size() {
+    return quantities.size();
+  }
+
+  /**
+   * Removes all the quantities of this interner.
+   */
+  public synchronized void clear() {
+    quantities.clear();
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.measure.Dimension;
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.spi.QuantityFactory;
+
+import tec.units.ri.AbstractSystemOfUnits;
+import tec.units.ri.unit.Units;
+
+/**
+ * Holds the metadata of a quantity type: its system unit, dimension, default factory and default primitive quantity constructor.
+ *
+ * <p>
+ * Metadata are computed once per quantity type and held in a {@link ClassValue}, lookups are safe for unsynchronized concurrent access. The metadata
+ * of an unknown quantity type are held as well, until a quantity type is registered with {@link Units} (see
+ * {@link AbstractSystemOfUnits#getRegistrationStamp()}).
+ * </p>
+ *
+ * @param <Q>
+ *          The type of the quantity.
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.2, $Date: 2016-10-16 $
+ */
+final class QuantityTypeMetadata<Q extends Quantity<Q>> {
+
+  /**
+   * Holds the metadata per quantity type.
+   */
+  private static final ClassValue<QuantityTypeMetadata<?>> METADATA = new ClassValue<QuantityTypeMetadata<?>>() {
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Override
+    protected QuantityTypeMetadata<?> computeValue(Class<?> type) {
+      return new QuantityTypeMetadata(type);
+    }
+  };
+
+  private final Class<Q> type;
+
+  private final Unit<Q> systemUnit;
+
+  private final Dimension dimension;
+
+  private final QuantityFactory<Q> factory;
+
+  /**
+   * Holds the registration stamp of {@link Units} when these metadata were computed.
+   */
+  private final int stamp;
+
+  @SuppressWarnings("unchecked")
+  private QuantityTypeMetadata(Class<Q> type) {
+    this.type = type;
+    AbstractSystemOfUnits system = (AbstractSystemOfUnits) Units.getInstance();
+    this.stamp = system.getRegistrationStamp(); // Read before the lookup, a concurrent registration invalidates these metadata.
+    Unit<Q> unit = system.getUnit(type);
+    if (unit == null)
+      unit = DefaultQuantityFactory.CLASS_TO_METRIC_UNIT.get(type);
+    if (unit == null) {
+      Logger logger = Logger.getLogger(QuantityTypeMetadata.class.getName());
+      if (logger.isLoggable(Level.FINER))
+        logger.log(Level.FINER, "Quantity type: " + type + " unknown");
+    }
+    this.systemUnit = unit;
+    this.dimension = (unit != null) ? unit.getDimension() : null;
+    this.factory = new DefaultQuantityFactory<Q>(type, unit);
+  }
+
+  /**
+   * Returns the metadata of the specified quantity type.
+   *
+   * @param type
+   *          the quantity type.
+   * @return the corresponding metadata.
+   */
+  @SuppressWarnings("unchecked")
+  static <Q extends Quantity<Q>> QuantityTypeMetadata<Q> of(Class<Q> type) {
+    QuantityTypeMetadata<Q> metadata = (QuantityTypeMetadata<Q>) METADATA.get(type);
+    if ((metadata.systemUnit == null) && (metadata.stamp != ((AbstractSystemOfUnits) Units.getInstance()).getRegistrationStamp())) {
+      METADATA.remove(type); // Type unknown, possibly registered since.
+      metadata = (QuantityTypeMetadata<Q>) METADATA.get(type);
+    }
+    return metadata;
+  }
+
+  /**
+   * Returns the quantity type.
+   */
+  Class<Q> getType() {
+    return type;
+  }
+
+  /**
+   * Returns the system unit of the quantity type or <code>null</code> if the type is unknown.
+   */
+  Unit<Q> getSystemUnit() {
+    return systemUnit;
+  }
+
+  /**
+   * Returns the dimension of the quantity type or <code>null</code> if the type is unknown.
+   */
+  Dimension getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Returns the default factory for the quantity type.
+   */
+  QuantityFactory<Q> getFactory() {
+    return factory;
+  }
+
+  /**
+   * Creates a quantity of this type backed by a primitive <code>double</code>.
+   *
+   * @param value
+   *          the quantity value.
+   * @param unit
+   *          the quantity unit.
+   * @return the corresponding quantity.
+   */
+  Quantity<Q> create(double value, Unit<Q> unit) {
+    return new DoubleQuantity<Q>(value, unit);
+  }
+}
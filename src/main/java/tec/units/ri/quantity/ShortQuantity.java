@@ -29,6 +29,8 @@
  */
 package tec.units.ri.quantity;
 
+import java.io.IOException;
+
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
@@ -42,7 +44,7 @@ import tec.units.ri.AbstractQuantity;
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
  * @param <Q>
  *          The type of the quantity.
- * @version 0.1, $Date: 2016-04-18 $
+ * @version 0.2, $Date: 2016-10-16 $
  */
 final class ShortQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
@@ -64,33 +66,81 @@ final class ShortQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
 
   @Override
   public long longValue(Unit<Q> unit) {
-    double result = doubleValue(unit);
-    if ((result < Long.MIN_VALUE) || (result > Long.MAX_VALUE)) {
-      throw new ArithmeticException("Overflow (" + result + ")");
-    }
-    return (long) result;
+    return (super.getUnit().equals(unit)) ? value : LongQuantity.longValue(value, super.getUnit().getConverterTo(unit));
+  }
+
+  /**
+   * Returns this quantity converted to the specified unit. If the conversion has an integer factor (e.g. s to ms) and does not overflow, the result
+   * is an exact <code>long</code> quantity (its value is a {@link Long}), otherwise it is a <code>double</code> quantity.
+   */
+  @Override
+  public Quantity<Q> to(Unit<Q> unit) {
+    return (super.getUnit().equals(unit)) ? this : LongQuantity.to(value, unit, super.getUnit().getConverterTo(unit));
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public Appendable appendValue(Appendable dest) throws IOException {
+    return dest.append(Short.toString(value));
   }
 
+  /**
+   * Returns the sum of this quantity with the one specified (an <code>int</code> quantity).
+   *
+   * @throws ArithmeticException
+   *           if the operand overflows a <code>short</code>.
+   */
   public Quantity<Q> add(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value + converted.getValue().shortValue(), getUnit());
+    return NumberQuantity.of(value + LongQuantity.shortValue(longValueOf(that, getUnit())), getUnit());
   }
 
+  /**
+   * Returns the difference of this quantity with the one specified (an <code>int</code> quantity).
+   *
+   * @throws ArithmeticException
+   *           if the operand overflows a <code>short</code>.
+   */
   public Quantity<Q> subtract(Quantity<Q> that) {
-    final Quantity<Q> converted = that.to(getUnit());
-    return NumberQuantity.of(value - converted.getValue().shortValue(), getUnit());
+    return NumberQuantity.of(value - LongQuantity.shortValue(longValueOf(that, getUnit())), getUnit());
   }
 
+  /**
+   * Returns the product of this quantity with the one specified (an <code>int</code> quantity).
+   *
+   * @throws ArithmeticException
+   *           if the operand overflows a <code>short</code>.
+   */
   public Quantity<?> multiply(Quantity<?> that) {
-    return NumberQuantity.of(value * that.getValue().shortValue(), getUnit().multiply(that.getUnit()));
+    return NumberQuantity.of(value * LongQuantity.shortValue(longValueOf(that)), getUnit().multiply(that.getUnit()));
   }
 
+  /**
+   * Returns the product of this quantity with the integer part of the specified number (an <code>int</code> quantity).
+   *
+   * @throws ArithmeticException
+   *           if the operand overflows a <code>short</code>.
+   */
   public Quantity<Q> multiply(Number that) {
-    return NumberQuantity.of(value * that.shortValue(), getUnit());
+    return NumberQuantity.of(value * LongQuantity.shortValue(that.longValue()), getUnit());
   }
 
+  /**
+   * Returns the integer quotient of this quantity by the one specified.
+   *
+   * @throws ArithmeticException
+   *           if the operand overflows a <code>short</code> or is zero.
+   */
   public Quantity<?> divide(Quantity<?> that) {
-    return NumberQuantity.of((short) value / that.getValue().shortValue(), getUnit().divide(that.getUnit()));
+    return NumberQuantity.of(value / LongQuantity.shortValue(longValueOf(that)), getUnit().divide(that.getUnit()));
   }
 
   @SuppressWarnings("unchecked")
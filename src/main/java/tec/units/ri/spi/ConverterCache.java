@@ -0,0 +1,416 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.spi;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.measure.IncommensurableException;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+/**
+ * <p>
+ * This class represents the process-wide cache of unit converters, keyed by source and target unit. It is used by
+ * {@link tec.units.ri.AbstractUnit#getConverterTo(Unit)} and {@link tec.units.ri.AbstractUnit#getConverterToAny(Unit)} so that the converter between
+ * two units is built only once.
+ * </p>
+ *
+ * <p>
+ * Lookups are lock-free and allocation-free (entries are indexed by context, source unit and target unit), statistics counters are striped so that
+ * concurrent lookups do not contend on a single counter. The cache is bounded, once its capacity is exceeded entries are evicted using the <i>clock</i> (second chance) algorithm:
+ * entries looked up since the last sweep are kept, the others are removed. Optionally, incommensurable unit pairs can be cached as well (negative
+ * entries), in which case subsequent lookups fail fast.
+ * </p>
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.3, $Date: 2016-10-16 $
+ */
+public final class ConverterCache {
+
+  /**
+   * The default maximum number of entries.
+   */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  /**
+   * Holds the process-wide instance.
+   */
+  private static final ConverterCache INSTANCE = new ConverterCache(DEFAULT_CAPACITY);
+
+  /**
+   * Holds the context of entries without context.
+   */
+  private static final Object NO_CONTEXT = new Object();
+
+  /**
+   * Holds the entries by context, source unit and target unit.
+   */
+  private final ConcurrentMap<Object, ConcurrentMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>>> entries
+      = new ConcurrentHashMap<Object, ConcurrentMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>>>();
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Holds the entries in insertion order, the clock hand being the head of the queue.
+   */
+  private final Queue<Entry> clock = new ConcurrentLinkedQueue<Entry>();
+
+  private final Counter hits = new Counter();
+
+  private final Counter misses = new Counter();
+
+  private final Counter evictions = new Counter();
+
+  private volatile int capacity;
+
+  private volatile boolean negativeCaching;
+
+  /**
+   * Creates a cache holding at most the specified number of entries.
+   *
+   * @param capacity
+   *          the maximum number of entries (<code>0</code> disables caching).
+   * @throws IllegalArgumentException
+   *           if <code>capacity &lt; 0</code>
+   */
+  public ConverterCache(int capacity) {
+    setCapacity(capacity);
+  }
+
+  /**
+   * Returns the process-wide converter cache.
+   *
+   * @return the shared instance.
+   */
+  public static ConverterCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the cached converter from the specified source unit to the specified target unit.
+   *
+   * @param source
+   *          the source unit.
+   * @param target
+   *          the target unit.
+   * @param context
+   *          the context the converter depends upon (e.g. the {@link DimensionalModel}) or <code>null</code>.
+   * @return the cached converter or <code>null</code> if none.
+   * @throws IncommensurableException
+   *           if the units have been recorded as incommensurable (negative entry).
+   */
+  public UnitConverter get(Unit<?> source, Unit<?> target, Object context) throws IncommensurableException {
+    Entry entry = null;
+    ConcurrentMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>> sources = entries.get(context == null ? NO_CONTEXT : context);
+    if (sources != null) {
+      ConcurrentMap<Unit<?>, Entry> targets = sources.get(source);
+      if (targets != null)
+        entry = targets.get(target);
+    }
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    if (!entry.referenced)
+      entry.referenced = true;
+    if (entry.converter == null)
+      throw new IncommensurableException(entry.failure);
+    return entry.converter;
+  }
+
+  /**
+   * Caches the converter from the specified source unit to the specified target unit.
+   *
+   * @param source
+   *          the source unit.
+   * @param target
+   *          the target unit.
+   * @param context
+   *          the context the converter depends upon or <code>null</code>.
+   * @param converter
+   *          the converter to cache.
+   */
+  public void put(Unit<?> source, Unit<?> target, Object context, UnitConverter converter) {
+    if (converter == null)
+      throw new NullPointerException();
+    add(new Entry(source, target, context == null ? NO_CONTEXT : context, converter, null));
+  }
+
+  /**
+   * Records the specified units as incommensurable, if {@link #isNegativeCaching() negative caching} is enabled.
+   *
+   * @param source
+   *          the source unit.
+   * @param target
+   *          the target unit.
+   * @param context
+   *          the context the result depends upon or <code>null</code>.
+   * @param message
+   *          the message of the exception thrown by subsequent lookups.
+   */
+  public void putIncommensurable(Unit<?> source, Unit<?> target, Object context, String message) {
+    if (negativeCaching)
+      add(new Entry(source, target, context == null ? NO_CONTEXT : context, null, message));
+  }
+
+  private void add(Entry entry) {
+    if (capacity == 0)
+      return;
+    entry.targets = targetsOf(entry);
+    if (entry.targets.putIfAbsent(entry.target, entry) == null) {
+      size.incrementAndGet();
+      clock.offer(entry);
+      if (size.get() > capacity)
+        evict();
+    }
+  }
+
+  private ConcurrentMap<Unit<?>, Entry> targetsOf(Entry entry) {
+    ConcurrentMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>> sources = entries.get(entry.context);
+    if (sources == null) {
+      sources = new ConcurrentHashMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>>();
+      ConcurrentMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>> previous = entries.putIfAbsent(entry.context, sources);
+      if (previous != null)
+        sources = previous;
+    }
+    ConcurrentMap<Unit<?>, Entry> targets = sources.get(entry.source);
+    if (targets == null) {
+      targets = new ConcurrentHashMap<Unit<?>, Entry>();
+      ConcurrentMap<Unit<?>, Entry> previous = sources.putIfAbsent(entry.source, targets);
+      if (previous != null)
+        targets = previous;
+    }
+    return targets;
+  }
+
+  /**
+   * Sweeps the clock until the cache fits its capacity again.
+   */
+  private synchronized void evict() {
+    while (size.get() > capacity) {
+      Entry entry = clock.poll();
+      if (entry == null)
+        return;
+      if (entry.referenced) { // Second chance.
+        entry.referenced = false;
+        clock.offer(entry);
+      } else if (remove(entry)) {
+        evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Removes the specified entry from the map it has been added to. An entry added concurrently to a map being dropped is unreachable by lookups,
+   * but it is still counted, held by the clock and removed through its own map when evicted, which keeps the size exact.
+   */
+  private boolean remove(Entry entry) {
+    ConcurrentMap<Unit<?>, Entry> targets = entry.targets;
+    if (!targets.remove(entry.target, entry))
+      return false;
+    size.decrementAndGet();
+    if (targets.isEmpty()) {
+      ConcurrentMap<Unit<?>, ConcurrentMap<Unit<?>, Entry>> sources = entries.get(entry.context);
+      if (sources != null)
+        sources.remove(entry.source, targets);
+    }
+    return true;
+  }
+
+  /**
+   * Removes all the entries of this cache (statistics are not reset). Entries added concurrently may be kept.
+   */
+  public synchronized void clear() {
+    for (Entry entry = clock.poll(); entry != null; entry = clock.poll()) {
+      remove(entry);
+    }
+  }
+
+  /**
+   * Returns the number of entries of this cache.
+   *
+   * @return the current number of entries.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * Returns the maximum number of entries of this cache.
+   *
+   * @return the capacity.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the maximum number of entries of this cache, evicting entries if necessary.
+   *
+   * @param capacity
+   *          the maximum number of entries (<code>0</code> disables caching).
+   * @throws IllegalArgumentException
+   *           if <code>capacity &lt; 0</code>
+   */
+  public void setCapacity(int capacity) {
+    if (capacity < 0)
+      throw new IllegalArgumentException("Negative capacity");
+    this.capacity = capacity;
+    evict();
+  }
+
+  /**
+   * Indicates if incommensurable unit pairs are cached.
+   *
+   * @return <code>true</code> if negative entries are recorded; <code>false</code> otherwise (default).
+   */
+  public boolean isNegativeCaching() {
+    return negativeCaching;
+  }
+
+  /**
+   * Enables or disables the caching of incommensurable unit pairs.
+   *
+   * @param negativeCaching
+   *          <code>true</code> to record negative entries.
+   */
+  public void setNegativeCaching(boolean negativeCaching) {
+    this.negativeCaching = negativeCaching;
+  }
+
+  /**
+   * Returns the number of lookups which found an entry.
+   *
+   * @return the hit count.
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups which did not find an entry.
+   *
+   * @return the miss count.
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the number of entries evicted to keep this cache within its capacity.
+   *
+   * @return the eviction count.
+   */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /**
+   * Resets the hit, miss and eviction counts.
+   */
+  public void resetStatistics() {
+    hits.reset();
+    misses.reset();
+    evictions.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "ConverterCache(size=" + size() + ", capacity=" + capacity + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+        + getEvictionCount() + ")";
+  }
+
+  private static final class Entry {
+
+    private final Unit<?> source;
+
+    private final Unit<?> target;
+
+    private final Object context;
+
+    /**
+     * Holds the converter or <code>null</code> for negative entries.
+     */
+    private final UnitConverter converter;
+
+    private final String failure;
+
+    private volatile boolean referenced;
+
+    /**
+     * Holds the map this entry has been added to (set before the entry is published).
+     */
+    private ConcurrentMap<Unit<?>, Entry> targets;
+
+    private Entry(Unit<?> source, Unit<?> target, Object context, UnitConverter converter, String failure) {
+      this.source = source;
+      this.target = target;
+      this.context = context;
+      this.converter = converter;
+      this.failure = failure;
+    }
+  }
+
+  /**
+   * A counter striped over several cache lines, threads incrementing different cells.
+   */
+  private static final class Counter {
+
+    private static final int STRIPES = 16; // Power of two.
+
+    private static final int PADDING = 8; // Longs per cache line.
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    void increment() {
+      cells.incrementAndGet(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING);
+    }
+
+    long get() {
+      long sum = 0;
+      for (int i = 0; i < STRIPES; i++) {
+        sum += cells.get(i * PADDING);
+      }
+      return sum;
+    }
+
+    void reset() {
+      for (int i = 0; i < STRIPES; i++) {
+        cells.set(i * PADDING, 0);
+      }
+    }
+  }
+}
@@ -29,7 +29,11 @@
  */
 package tec.units.ri.spi;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.measure.Dimension;
 import javax.measure.UnitConverter;
@@ -72,17 +76,43 @@ import tec.units.ri.quantity.QuantityDimension;
  *     </code>
  * </p>
  * 
+ * <p>
+ * The fundamental dimensions and dimensional transforms computed by the default implementation are memoized per model instance, models should
+ * therefore be immutable. Alternative models can be {@link #register(String, DimensionalModel, Dimension...) registered} with the transforms of their
+ * dimensions of interest computed up front.
+ * </p>
+ * 
  * @see <a href="http://en.wikipedia.org/wiki/Dimensional_analysis">Wikipedia: Dimensional Analysis</a>
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.5.7, $Date: 2015-12-28 $
+ * @version 0.6, $Date: 2016-10-16 $
  */
 public abstract class DimensionalModel {
 
+  /**
+   * Holds the name of the standard model in the registry.
+   */
+  public static final String STANDARD = "Standard";
+
+  /**
+   * Holds the registered models by name.
+   */
+  private static final ConcurrentMap<String, DimensionalModel> MODELS = new ConcurrentHashMap<String, DimensionalModel>();
+
   /**
    * Holds the current model.
    */
-  private static DimensionalModel currentModel = new StandardModel();
+  private static volatile DimensionalModel currentModel = register(STANDARD, new StandardModel());
+
+  /**
+   * Holds the memoized fundamental dimensions.
+   */
+  private final ConcurrentMap<Dimension, Dimension> fundamentalDimensions = new ConcurrentHashMap<Dimension, Dimension>();
+
+  /**
+   * Holds the memoized dimensional transforms.
+   */
+  private final ConcurrentMap<Dimension, UnitConverter> dimensionalTransforms = new ConcurrentHashMap<Dimension, UnitConverter>();
 
   /**
    * Returns the current dimensional model (by default an instance of {@link StandardModel}).
@@ -105,12 +135,67 @@ public abstract class DimensionalModel {
     currentModel = model;
   }
 
+  /**
+   * Registers the specified model under the specified name and computes up front the fundamental dimension and dimensional transform of the
+   * specified dimensions (and of the SI base dimensions).
+   *
+   * @param name
+   *          the name of the model.
+   * @param model
+   *          the model to register.
+   * @param dimensions
+   *          the dimensions whose transforms are computed up front.
+   * @return the model registered.
+   * @throws UnsupportedOperationException
+   *           if the model has an unsupported transform for one of the specified dimensions.
+   */
+  public static DimensionalModel register(String name, DimensionalModel model, Dimension... dimensions) {
+    model.prepare(QuantityDimension.LENGTH, QuantityDimension.MASS, QuantityDimension.TIME, QuantityDimension.ELECTRIC_CURRENT,
+        QuantityDimension.TEMPERATURE, QuantityDimension.AMOUNT_OF_SUBSTANCE, QuantityDimension.LUMINOUS_INTENSITY);
+    model.prepare(dimensions);
+    MODELS.put(name, model);
+    return model;
+  }
+
+  /**
+   * Returns the model registered under the specified name.
+   *
+   * @param name
+   *          the name of the model.
+   * @return the corresponding model or <code>null</code> if none.
+   */
+  public static DimensionalModel getModel(String name) {
+    return MODELS.get(name);
+  }
+
+  /**
+   * Returns the names of the registered models.
+   *
+   * @return an unmodifiable view of the registered names.
+   */
+  public static Set<String> getModelNames() {
+    return Collections.unmodifiableSet(MODELS.keySet());
+  }
+
   /**
    * Default constructor (allows for derivation).
    */
   protected DimensionalModel() {
   }
 
+  /**
+   * Computes and memoizes the fundamental dimension and dimensional transform of the specified dimensions.
+   *
+   * @param dimensions
+   *          the dimensions.
+   */
+  protected void prepare(Dimension... dimensions) {
+    for (Dimension dimension : dimensions) {
+      getFundamentalDimension(dimension);
+      getDimensionalTransform(dimension);
+    }
+  }
+
   /**
    * Returns the fundamental dimension for the one specified. If the specified dimension is a dimensional product, the dimensional product of its
    * fundamental dimensions is returned. Physical quantities are considered commensurate only if their fundamental dimensions are equals using the
@@ -121,14 +206,18 @@ public abstract class DimensionalModel {
    * @return <code>this</code> or a rational product of fundamental dimension.
    */
   public Dimension getFundamentalDimension(Dimension dimension) {
+    Dimension fundamental = fundamentalDimensions.get(dimension);
+    if (fundamental != null)
+      return fundamental;
     Map<? extends Dimension, Integer> dimensions = dimension.getProductDimensions();
     if (dimensions == null)
       return dimension; // Fundamental dimension.
     // Dimensional Product.
     Dimension fundamentalProduct = QuantityDimension.NONE;
     for (Map.Entry<? extends Dimension, Integer> e : dimensions.entrySet()) {
-      fundamentalProduct = fundamentalProduct.multiply(this.getFundamentalDimension(e.getKey())).pow(e.getValue());
+      fundamentalProduct = fundamentalProduct.multiply(this.getFundamentalDimension(e.getKey()).pow(e.getValue()));
     }
+    fundamentalDimensions.put(dimension, fundamentalProduct);
     return fundamentalProduct;
   }
 
@@ -144,11 +233,14 @@ public abstract class DimensionalModel {
    *           if an unsupported transform is attemted.
    */
   public UnitConverter getDimensionalTransform(Dimension dimension) {
+    UnitConverter toFundamental = dimensionalTransforms.get(dimension);
+    if (toFundamental != null)
+      return toFundamental;
     Map<? extends Dimension, Integer> dimensions = dimension.getProductDimensions();
     if (dimensions == null)
       return AbstractConverter.IDENTITY; // Fundamental dimension.
     // Dimensional Product.
-    UnitConverter toFundamental = AbstractConverter.IDENTITY;
+    toFundamental = AbstractConverter.IDENTITY;
     for (Map.Entry<? extends Dimension, Integer> e : dimensions.entrySet()) {
       UnitConverter cvtr = this.getDimensionalTransform(e.getKey());
       if (!(cvtr.isLinear()))
@@ -162,6 +254,7 @@ public abstract class DimensionalModel {
         toFundamental = toFundamental.concatenate(cvtr);
       }
     }
+    dimensionalTransforms.put(dimension, toFundamental);
     return toFundamental;
   }
 }
@@ -0,0 +1,324 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.spi;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.measure.Dimension;
+import javax.measure.IncommensurableException;
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.AbstractUnit;
+import tec.units.ri.function.AddConverter;
+import tec.units.ri.function.AffineConverter;
+import tec.units.ri.unit.Units;
+
+/**
+ * <p>
+ * This class represents the process-wide catalogue of units. Each unit registered gets a small integer identifier, a compact key to store unit
+ * references in arrays or wire formats.
+ * </p>
+ *
+ * <p>
+ * The catalogue is created on first use with the units of {@link Units}, in the order of their string representation, so that their identifiers
+ * do not depend on the initialization order of classes. Other units are only catalogued when {@link #register(Unit) registered} explicitly, their
+ * identifiers follow the order of registration. Catalogued units are held for the lifetime of the process, only long-lived units should be
+ * registered.
+ * </p>
+ *
+ * <p>
+ * For each dimension, a dense matrix of conversion factors and offsets between the catalogued units of that dimension is built once from their
+ * system converters. Converting between two catalogued units is then <code>value * factor[i][j] + offset[i][j]</code>, no converter being involved.
+ * Units whose system converter is not affine (e.g. logarithmic units) are converted through {@link AbstractUnit#getConverterToAny(Unit)}.
+ * </p>
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.2, $Date: 2016-10-16 $
+ */
+public final class UnitCatalog {
+
+  /**
+   * Holds the order of the {@link Units} in the catalogue.
+   */
+  private static final Comparator<Unit<?>> ORDER = new Comparator<Unit<?>>() {
+    public int compare(Unit<?> u1, Unit<?> u2) {
+      int cmp = u1.toString().compareTo(u2.toString());
+      return (cmp != 0) ? cmp : u1.getClass().getName().compareTo(u2.getClass().getName());
+    }
+  };
+
+  /**
+   * Holds the catalogued units indexed by identifier (copy on write).
+   */
+  private volatile Unit<?>[] units = new Unit<?>[0];
+
+  private final ConcurrentMap<Unit<?>, Integer> ids = new ConcurrentHashMap<Unit<?>, Integer>();
+
+  /**
+   * Holds the conversion tables per dimension.
+   */
+  private final ConcurrentMap<Dimension, Table> tables = new ConcurrentHashMap<Dimension, Table>();
+
+  private UnitCatalog() {
+    Unit<?>[] system = Units.getInstance().getUnits().toArray(new Unit<?>[0]);
+    Arrays.sort(system, ORDER);
+    for (Unit<?> unit : system) {
+      register(unit);
+    }
+  }
+
+  /**
+   * Returns the process-wide unit catalogue, holding the units of {@link Units}.
+   *
+   * @return the shared instance.
+   */
+  public static UnitCatalog getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Holds the process-wide instance (created on first use).
+   */
+  private static final class Holder {
+    private static final UnitCatalog INSTANCE = new UnitCatalog();
+  }
+
+  /**
+   * Registers the specified unit, equal units share the same identifier. The unit is held for the lifetime of the process.
+   *
+   * @param unit
+   *          the unit to register.
+   * @return the identifier of the unit.
+   */
+  public int register(Unit<?> unit) {
+    Integer id = ids.get(unit);
+    if (id != null)
+      return id;
+    synchronized (this) {
+      id = ids.get(unit);
+      if (id != null)
+        return id;
+      int n = units.length;
+      Unit<?>[] copy = Arrays.copyOf(units, n + 1);
+      copy[n] = unit;
+      units = copy;
+      ids.put(unit, n);
+      return n;
+    }
+  }
+
+  /**
+   * Returns the identifier of the specified unit.
+   *
+   * @param unit
+   *          the unit.
+   * @return the identifier of the unit or <code>-1</code> if the unit is not catalogued.
+   */
+  public int getId(Unit<?> unit) {
+    Integer id = ids.get(unit);
+    return (id != null) ? id : -1;
+  }
+
+  /**
+   * Returns the unit having the specified identifier.
+   *
+   * @param id
+   *          the unit identifier.
+   * @return the corresponding unit.
+   * @throws IndexOutOfBoundsException
+   *           if no unit has the specified identifier.
+   */
+  public Unit<?> getUnit(int id) {
+    return units[id];
+  }
+
+  /**
+   * Returns the number of catalogued units.
+   *
+   * @return the number of units.
+   */
+  public int size() {
+    return units.length;
+  }
+
+  /**
+   * Returns the conversion factor from the source unit to the target unit.
+   *
+   * @param sourceId
+   *          the source unit identifier.
+   * @param targetId
+   *          the target unit identifier.
+   * @return the factor or <code>NaN</code> if the conversion is not affine.
+   * @throws UnconvertibleException
+   *           if the units have different dimensions.
+   */
+  public double getFactor(int sourceId, int targetId) {
+    Table table = tableFor(sourceId, targetId);
+    return table.factor[table.index[sourceId]][table.index[targetId]];
+  }
+
+  /**
+   * Returns the conversion offset from the source unit to the target unit.
+   *
+   * @param sourceId
+   *          the source unit identifier.
+   * @param targetId
+   *          the target unit identifier.
+   * @return the offset or <code>NaN</code> if the conversion is not affine.
+   * @throws UnconvertibleException
+   *           if the units have different dimensions.
+   */
+  public double getOffset(int sourceId, int targetId) {
+    Table table = tableFor(sourceId, targetId);
+    return table.offset[table.index[sourceId]][table.index[targetId]];
+  }
+
+  /**
+   * Converts the specified value from the source unit to the target unit.
+   *
+   * @param value
+   *          the value stated in the source unit.
+   * @param sourceId
+   *          the source unit identifier.
+   * @param targetId
+   *          the target unit identifier.
+   * @return the value stated in the target unit.
+   * @throws UnconvertibleException
+   *           if the units have different dimensions.
+   */
+  public double convert(double value, int sourceId, int targetId) {
+    if (sourceId == targetId)
+      return value;
+    Table table = tableFor(sourceId, targetId);
+    int i = table.index[sourceId];
+    int j = table.index[targetId];
+    double factor = table.factor[i][j];
+    if (factor == factor) // Not NaN.
+      return value * factor + table.offset[i][j];
+    Unit<?> source = units[sourceId];
+    try {
+      return ((AbstractUnit<?>) source).getConverterToAny(units[targetId]).convert(value);
+    } catch (IncommensurableException e) {
+      throw new UnconvertibleException(e);
+    }
+  }
+
+  /**
+   * Returns the conversion table holding both units.
+   */
+  private Table tableFor(int sourceId, int targetId) {
+    Unit<?>[] catalogued = units;
+    Dimension dimension = catalogued[sourceId].getDimension();
+    if ((dimension == null) || !dimension.equals(catalogued[targetId].getDimension()))
+      throw new UnconvertibleException(catalogued[sourceId] + " and " + catalogued[targetId] + " have different dimensions");
+    Table table = tables.get(dimension);
+    if ((table == null) || (sourceId >= table.index.length) || (targetId >= table.index.length)) {
+      table = new Table(catalogued, dimension); // Units registered since the table was built.
+      tables.put(dimension, table);
+    }
+    return table;
+  }
+
+  /**
+   * The conversion matrix between the units of one dimension.
+   */
+  private static final class Table {
+
+    /**
+     * Holds the row/column of each unit identifier (<code>-1</code> for units of other dimensions).
+     */
+    private final int[] index;
+
+    private final double[][] factor;
+
+    private final double[][] offset;
+
+    private Table(Unit<?>[] units, Dimension dimension) {
+      index = new int[units.length];
+      double[] scales = new double[units.length];
+      double[] shifts = new double[units.length];
+      int n = 0;
+      for (int id = 0; id < units.length; id++) {
+        if (!dimension.equals(units[id].getDimension())) {
+          index[id] = -1;
+          continue;
+        }
+        UnitConverter toSystem = systemConverterOf(units[id]);
+        if (toSystem == null) {
+          scales[n] = Double.NaN;
+        } else if (toSystem.isIdentity()) {
+          scales[n] = 1.0;
+        } else if (toSystem instanceof AffineConverter) {
+          scales[n] = ((AffineConverter) toSystem).getFactor();
+          shifts[n] = ((AffineConverter) toSystem).getOffset();
+        } else if (toSystem instanceof AddConverter) {
+          scales[n] = 1.0;
+          shifts[n] = ((AddConverter) toSystem).getOffset();
+        } else if (toSystem.isLinear()) {
+          scales[n] = toSystem.convert(1.0);
+        } else {
+          scales[n] = Double.NaN;
+        }
+        index[id] = n++;
+      }
+      factor = new double[n][n];
+      offset = new double[n][n];
+      for (int i = 0; i < n; i++) {
+        for (int j = 0; j < n; j++) { // x_j = (a_i * x_i + b_i - b_j) / a_j
+          factor[i][j] = scales[i] / scales[j];
+          offset[i][j] = (shifts[i] - shifts[j]) / scales[j];
+        }
+      }
+    }
+
+    /**
+     * Returns the compiled system converter of the specified unit or <code>null</code> if none.
+     */
+    private static UnitConverter systemConverterOf(Unit<?> unit) {
+      try {
+        if (unit instanceof AbstractUnit)
+          return AbstractConverter.compile(((AbstractUnit<?>) unit).getSystemConverter());
+        return AbstractConverter.compile(unit.getConverterToAny(unit.getSystemUnit()));
+      } catch (UnsupportedOperationException e) { // No linear system converter (e.g. a product holding a logarithmic unit).
+        return null;
+      } catch (IncommensurableException e) {
+        return null;
+      } catch (UnconvertibleException e) {
+        return null;
+      }
+    }
+  }
+}
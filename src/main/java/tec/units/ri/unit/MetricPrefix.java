@@ -29,7 +29,11 @@
  */
 package tec.units.ri.unit;
 
-import static tec.units.ri.internal.MathUtil.pow;
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.TEN;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -57,20 +61,38 @@ import tec.uom.lib.common.function.UnitConverterSupplier;
  * 
  * </p>
  *
+ * <p>
+ * Prefixed units of the units of {@link Units} are canonical, <code>MILLI(METRE) == MILLI(METRE)</code> and
+ * <code>SimpleUnitFormat.getInstance().parse("mm") == MILLI(METRE)</code>, so prefixing inline (e.g. in a loop) is a table lookup. Prefixed units
+ * of other units are shared as well, but only in a bounded table (cleared when full), an equal but distinct instance may then be returned.
+ * </p>
+ *
  * @see <a href="http://en.wikipedia.org/wiki/Metric_prefix">Wikipedia: Metric Prefix</a>
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.9.1, $Date: 2016-03-17 $
+ * @version 0.9.4, $Date: 2016-10-16 $
  */
 public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
-  YOTTA("Y", RationalConverter.of(1000000000000000000000000d, 1d)), ZETTA("Z", RationalConverter.of(1000000000000000000000d, 1d)), EXA("E",
-      RationalConverter.of(pow(10, 18), 1d)), PETA("P", RationalConverter.of(pow(10, 15), 1d)), TERA("T", RationalConverter.of(pow(10, 12), 1d)), GIGA(
-      "G", RationalConverter.of(pow(10, 9), 1d)), MEGA("M", RationalConverter.of(pow(10, 6), 1d)), KILO("k", RationalConverter.of(pow(10, 3), 1d)), HECTO(
-      "h", RationalConverter.of(100d, 1d)), DEKA("da", RationalConverter.of(10d, 1d)), DECI("d", RationalConverter.of(1d, 10d)), CENTI("c",
-      RationalConverter.of(1d, 100d)), MILLI("m", RationalConverter.of(1d, 1000d)), MICRO("µ", RationalConverter.of(1d, pow(10, 6))), NANO("n",
-      RationalConverter.of(1d, pow(10, 9))), PICO("p", RationalConverter.of(1d, pow(10, 12))), FEMTO("f", RationalConverter.of(1d, pow(10, 15))), ATTO(
-      "a", RationalConverter.of(1d, pow(10, 18))), ZEPTO("z", RationalConverter.of(1d, pow(10, 21))), YOCTO("y", RationalConverter
-      .of(1d, pow(10, 24)));
+  YOTTA("Y", RationalConverter.of(TEN.pow(24), ONE)),
+  ZETTA("Z", RationalConverter.of(TEN.pow(21), ONE)),
+  EXA("E", RationalConverter.of(TEN.pow(18), ONE)),
+  PETA("P", RationalConverter.of(TEN.pow(15), ONE)),
+  TERA("T", RationalConverter.of(TEN.pow(12), ONE)),
+  GIGA("G", RationalConverter.of(TEN.pow(9), ONE)),
+  MEGA("M", RationalConverter.of(TEN.pow(6), ONE)),
+  KILO("k", RationalConverter.of(TEN.pow(3), ONE)),
+  HECTO("h", RationalConverter.of(TEN.pow(2), ONE)),
+  DEKA("da", RationalConverter.of(TEN.pow(1), ONE)),
+  DECI("d", RationalConverter.of(ONE, TEN.pow(1))),
+  CENTI("c", RationalConverter.of(ONE, TEN.pow(2))),
+  MILLI("m", RationalConverter.of(ONE, TEN.pow(3))),
+  MICRO("µ", RationalConverter.of(ONE, TEN.pow(6))),
+  NANO("n", RationalConverter.of(ONE, TEN.pow(9))),
+  PICO("p", RationalConverter.of(ONE, TEN.pow(12))),
+  FEMTO("f", RationalConverter.of(ONE, TEN.pow(15))),
+  ATTO("a", RationalConverter.of(ONE, TEN.pow(18))),
+  ZEPTO("z", RationalConverter.of(ONE, TEN.pow(21))),
+  YOCTO("y", RationalConverter.of(ONE, TEN.pow(24)));
 
   /**
    * The symbol of this prefix, as returned by {@link #getSymbol}.
@@ -89,6 +111,21 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    */
   private final UnitConverter converter;
 
+  /**
+   * Holds the canonical prefixed units of the units of {@link Units} (never evicted, bounded by the number of these units).
+   */
+  private final ConcurrentMap<Unit<?>, Unit<?>> pinnedUnits = new ConcurrentHashMap<Unit<?>, Unit<?>>();
+
+  /**
+   * Holds the prefixed units of other units (cleared when {@link #CAPACITY} is reached, ad hoc units should not grow it without bound).
+   */
+  private final ConcurrentMap<Unit<?>, Unit<?>> prefixedUnits = new ConcurrentHashMap<Unit<?>, Unit<?>>();
+
+  /**
+   * Holds the maximum number of prefixed units of other units held per prefix.
+   */
+  private static final int CAPACITY = 1024;
+
   /**
    * Creates a new prefix.
    *
@@ -122,6 +159,35 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
     return converter;
   }
 
+  /**
+   * Returns the specified unit prefixed by this prefix, e.g. <code>MILLI.prefix(METRE) == MILLI(METRE)</code>. The result is canonical if the
+   * specified unit is one of the units of {@link Units}.
+   *
+   * @param <Q>
+   *          The type of the quantity measured by the unit.
+   * @param unit
+   *          any unit.
+   * @return <code>unit.transform(getConverter())</code>.
+   */
+  @SuppressWarnings("unchecked")
+  public <Q extends Quantity<Q>> Unit<Q> prefix(Unit<Q> unit) {
+    Unit<?> prefixed = pinnedUnits.get(unit);
+    if (prefixed != null)
+      return (Unit<Q>) prefixed;
+    prefixed = prefixedUnits.get(unit);
+    if (prefixed != null)
+      return (Unit<Q>) prefixed;
+    prefixed = unit.transform(converter);
+    ConcurrentMap<Unit<?>, Unit<?>> table = pinnedUnits;
+    if (!Units.contains(unit)) {
+      table = prefixedUnits;
+      if (table.size() >= CAPACITY)
+        table.clear(); // Only ad hoc units are evicted.
+    }
+    Unit<?> previous = table.putIfAbsent(unit, prefixed);
+    return (Unit<Q>) ((previous != null) ? previous : prefixed);
+  }
+
   /**
    * Returns the specified unit multiplied by the factor <code>10<sup>24</sup></code>
    *
@@ -132,7 +198,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e24)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> YOTTA(Unit<Q> unit) {
-    return unit.transform(YOTTA.getConverter());
+    return YOTTA.prefix(unit);
   }
 
   /**
@@ -145,7 +211,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e21)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> ZETTA(Unit<Q> unit) {
-    return unit.transform(ZETTA.getConverter());
+    return ZETTA.prefix(unit);
   }
 
   /**
@@ -158,7 +224,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e18)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> EXA(Unit<Q> unit) {
-    return unit.transform(EXA.getConverter());
+    return EXA.prefix(unit);
   }
 
   /**
@@ -171,7 +237,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e15)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> PETA(Unit<Q> unit) {
-    return unit.transform(PETA.getConverter());
+    return PETA.prefix(unit);
   }
 
   /**
@@ -184,7 +250,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e12)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> TERA(Unit<Q> unit) {
-    return unit.transform(TERA.getConverter());
+    return TERA.prefix(unit);
   }
 
   /**
@@ -197,7 +263,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e9)</code>.
    */
   public static <Q extends Quantity<Q>> Unit<Q> GIGA(Unit<Q> unit) {
-    return unit.transform(GIGA.getConverter());
+    return GIGA.prefix(unit);
   }
 
   /**
@@ -210,7 +276,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e6)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> MEGA(Unit<Q> unit) {
-    return unit.transform(MEGA.getConverter());
+    return MEGA.prefix(unit);
   }
 
   /**
@@ -223,7 +289,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e3)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> KILO(Unit<Q> unit) {
-    return unit.transform(KILO.getConverter());
+    return KILO.prefix(unit);
   }
 
   /**
@@ -236,7 +302,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e2)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> HECTO(Unit<Q> unit) {
-    return unit.transform(HECTO.getConverter());
+    return HECTO.prefix(unit);
   }
 
   /**
@@ -249,7 +315,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e1)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> DEKA(Unit<Q> unit) {
-    return unit.transform(DEKA.getConverter());
+    return DEKA.prefix(unit);
   }
 
   /**
@@ -262,7 +328,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-1)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> DECI(Unit<Q> unit) {
-    return unit.transform(DECI.getConverter());
+    return DECI.prefix(unit);
   }
 
   /**
@@ -275,7 +341,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-2)</code>.
    */
   public static <Q extends Quantity<Q>> Unit<Q> CENTI(Unit<Q> unit) {
-    return unit.transform(CENTI.getConverter());
+    return CENTI.prefix(unit);
   }
 
   /**
@@ -288,7 +354,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-3)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> MILLI(Unit<Q> unit) {
-    return unit.transform(MILLI.getConverter());
+    return MILLI.prefix(unit);
   }
 
   /**
@@ -301,7 +367,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-6)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> MICRO(Unit<Q> unit) {
-    return unit.transform(MICRO.getConverter());
+    return MICRO.prefix(unit);
   }
 
   /**
@@ -314,7 +380,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-9)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> NANO(Unit<Q> unit) {
-    return unit.transform(NANO.getConverter());
+    return NANO.prefix(unit);
   }
 
   /**
@@ -327,7 +393,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-12)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> PICO(Unit<Q> unit) {
-    return unit.transform(PICO.getConverter());
+    return PICO.prefix(unit);
   }
 
   /**
@@ -340,7 +406,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-15)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> FEMTO(Unit<Q> unit) {
-    return unit.transform(FEMTO.getConverter());
+    return FEMTO.prefix(unit);
   }
 
   /**
@@ -353,7 +419,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-18)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> ATTO(Unit<Q> unit) {
-    return unit.transform(ATTO.getConverter());
+    return ATTO.prefix(unit);
   }
 
   /**
@@ -366,7 +432,7 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-21)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> ZEPTO(Unit<Q> unit) {
-    return unit.transform(ZEPTO.getConverter());
+    return ZEPTO.prefix(unit);
   }
 
   /**
@@ -379,6 +445,6 @@ public enum MetricPrefix implements SymbolSupplier, UnitConverterSupplier {
    * @return <code>unit.multiply(1e-24)</code>.
    */
   public static final <Q extends Quantity<Q>> Unit<Q> YOCTO(Unit<Q> unit) {
-    return unit.transform(YOCTO.getConverter());
+    return YOCTO.prefix(unit);
   }
 }
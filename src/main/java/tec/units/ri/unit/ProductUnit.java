@@ -29,8 +29,12 @@
  */
 package tec.units.ri.unit;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.measure.Dimension;
 import javax.measure.Quantity;
@@ -40,7 +44,6 @@ import javax.measure.UnitConverter;
 import tec.units.ri.AbstractConverter;
 import tec.units.ri.AbstractUnit;
 import tec.units.ri.quantity.QuantityDimension;
-import tec.uom.lib.common.function.UnitSupplier;
 
 /**
  * <p>
@@ -52,12 +55,26 @@ import tec.uom.lib.common.function.UnitSupplier;
  * returns <code>METRE</code>.
  * </p>
  *
+ * <p>
+ * The unit elements are held in parallel arrays in the order of the operations which created them (the order used for formatting, e.g.
+ * <code>m·kg</code> versus <code>kg·m</code>). A permutation of the elements ordered by hash code (a key consistent with the elements equality, unlike
+ * their symbols) is kept alongside, which makes equality practically a linear comparison. The hash code is the sum of the elements hash codes,
+ * independent of the element order.
+ * The system converter of a linear product unit is computed once at construction, converting a derived unit such as <code>km/h</code> is then a
+ * single scaling.
+ * </p>
+ *
+ * <p>
+ * Product units are interned, equal products obtained through the static factory methods are the same instance. The results of the unit algebra
+ * operations are memoized so that repeated derivations (e.g. <code>METRE.divide(SECOND)</code> in quantity arithmetic) are a single lookup.
+ * </p>
+ *
  * @param <Q>
  *          The type of the quantity measured by this unit.
  *
  * @author <a href="mailto:jean-marie@dautelle.com">Jean-Marie Dautelle</a>
  * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
- * @version 0.5.5, July 11, 2015
+ * @version 0.10, October 16, 2016
  */
 public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
 
@@ -67,14 +84,59 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
   // private static final long serialVersionUID = 962983585531030093L;
 
   /**
-   * Holds the units composing this product unit.
+   * Holds the maximum number of memoized operations, the memo table is cleared once exceeded.
+   */
+  private static final int MEMO_CAPACITY = 4096;
+
+  /**
+   * Holds the memoized results of the unit algebra operations.
+   */
+  private static final Map<Operation, Unit<?>> MEMO = new ConcurrentHashMap<Operation, Unit<?>>();
+
+  /**
+   * Holds the canonical product units (weakly referenced).
+   */
+  private static final Map<ProductUnit<?>, WeakReference<ProductUnit<?>>> POOL = new WeakHashMap<ProductUnit<?>, WeakReference<ProductUnit<?>>>();
+
+  /**
+   * Holds the operation codes.
    */
-  private final Element[] elements;
+  private static final int PRODUCT = 0, QUOTIENT = 1, ROOT = 2, POW = 3;
+
+  /**
+   * Holds the units composing this product unit (insertion order).
+   */
+  private final Unit<?>[] units;
+
+  /**
+   * Holds the indices of the elements ordered by hash code (see {@link #canonicalOrder(Unit[])}).
+   */
+  private final int[] order;
+
+  /**
+   * Holds the power exponent of each unit (never zero).
+   */
+  private final int[] pows;
+
+  /**
+   * Holds the root exponent of each unit (always greater than zero).
+   */
+  private final int[] roots;
 
   /**
    * Holds the hashcode (optimization).
    */
-  private int hashCode;
+  private final int hashCode;
+
+  /**
+   * Holds the system converter or <code>null</code> if this product has no linear system converter.
+   */
+  private final UnitConverter systemConverter;
+
+  /**
+   * Holds the dimension of this product unit (computed on first use).
+   */
+  private volatile Dimension dimension;
 
   /**
    * Holds the symbol for this unit.
@@ -86,7 +148,12 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    */
   public ProductUnit() {
     this.symbol = "";
-    elements = new Element[0];
+    this.units = new Unit<?>[0];
+    this.pows = new int[0];
+    this.roots = new int[0];
+    this.order = new int[0];
+    this.hashCode = 1;
+    this.systemConverter = AbstractConverter.IDENTITY;
   }
 
   /**
@@ -98,21 +165,40 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    *           if the specified unit is not a product unit.
    */
   public ProductUnit(Unit<?> productUnit) {
-    this.symbol = productUnit.getSymbol();
-    this.elements = ((ProductUnit<?>) productUnit).elements;
+    ProductUnit<?> source = (ProductUnit<?>) productUnit;
+    this.symbol = source.getSymbol();
+    this.units = source.units;
+    this.pows = source.pows;
+    this.roots = source.roots;
+    this.order = source.order;
+    this.hashCode = source.hashCode;
+    this.systemConverter = source.systemConverter;
   }
 
   /**
    * Product unit constructor.
    *
-   * @param elements
-   *          the product elements.
+   * @param units
+   *          the units (insertion order).
+   * @param pows
+   *          the power exponents.
+   * @param roots
+   *          the root exponents.
    */
-  private ProductUnit(Element[] elements) {
-    this.elements = elements;
-    this.symbol = elements[0].getUnit().getSymbol(); // FIXME this should
+  private ProductUnit(Unit<?>[] units, int[] pows, int[] roots) {
+    this.units = units;
+    this.pows = pows;
+    this.roots = roots;
+    this.symbol = units[0].getSymbol(); // FIXME this should
     // contain ALL
     // elements
+    this.order = canonicalOrder(units);
+    int code = 1;
+    for (int i = 0; i < units.length; i++) {
+      code += (31 * units[i].hashCode() + pows[i]) * 31 + roots[i];
+    }
+    this.hashCode = code;
+    this.systemConverter = systemConverterOf(units, pows, roots, false);
   }
 
   /**
@@ -125,17 +211,19 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    * @return <code>left * right</code>
    */
   public static Unit<?> getProductInstance(AbstractUnit<?> left, AbstractUnit<?> right) {
-    Element[] leftElems;
-    if (left instanceof ProductUnit<?>)
-      leftElems = ((ProductUnit<?>) left).elements;
-    else
-      leftElems = new Element[] { new Element(left, 1, 1) };
-    Element[] rightElems;
-    if (right instanceof ProductUnit<?>)
-      rightElems = ((ProductUnit<?>) right).elements;
-    else
-      rightElems = new Element[] { new Element(right, 1, 1) };
-    return getInstance(leftElems, rightElems);
+    Operation op = new Operation(PRODUCT, left, right, 0);
+    Unit<?> result = MEMO.get(op);
+    if (result == null)
+      result = memoize(op, computeProduct(left, right));
+    return result;
+  }
+
+  private static Unit<?> computeProduct(AbstractUnit<?> left, AbstractUnit<?> right) {
+    if (right instanceof ProductUnit<?>) {
+      ProductUnit<?> r = (ProductUnit<?>) right;
+      return getInstance(left, r.units, r.pows, r.roots);
+    }
+    return getInstance(left, new Unit<?>[] { right }, new int[] { 1 }, new int[] { 1 });
   }
 
   /**
@@ -148,21 +236,23 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    * @return <code>dividend / divisor</code>
    */
   public static Unit<?> getQuotientInstance(Unit<?> left, Unit<?> right) {
-    Element[] leftElems;
-    if (left instanceof ProductUnit<?>)
-      leftElems = ((ProductUnit<?>) left).elements;
-    else
-      leftElems = new Element[] { new Element(left, 1, 1) };
-    Element[] rightElems;
+    Operation op = new Operation(QUOTIENT, left, right, 0);
+    Unit<?> result = MEMO.get(op);
+    if (result == null)
+      result = memoize(op, computeQuotient(left, right));
+    return result;
+  }
+
+  private static Unit<?> computeQuotient(Unit<?> left, Unit<?> right) {
     if (right instanceof ProductUnit<?>) {
-      Element[] elems = ((ProductUnit<?>) right).elements;
-      rightElems = new Element[elems.length];
-      for (int i = 0; i < elems.length; i++) {
-        rightElems[i] = new Element(elems[i].unit, -elems[i].pow, elems[i].root);
+      ProductUnit<?> r = (ProductUnit<?>) right;
+      int[] pows = new int[r.pows.length];
+      for (int i = 0; i < pows.length; i++) {
+        pows[i] = -r.pows[i];
       }
-    } else
-      rightElems = new Element[] { new Element(right, -1, 1) };
-    return getInstance(leftElems, rightElems);
+      return getInstance(left, r.units, pows, r.roots);
+    }
+    return getInstance(left, new Unit<?>[] { right }, new int[] { -1 }, new int[] { 1 });
   }
 
   /**
@@ -177,40 +267,59 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    *           if <code>n == 0</code>.
    */
   public static Unit<?> getRootInstance(AbstractUnit<?> unit, int n) {
-    Element[] unitElems;
+    Operation op = new Operation(ROOT, unit, null, n);
+    Unit<?> result = MEMO.get(op);
+    if (result == null)
+      result = memoize(op, computeRoot(unit, n));
+    return result;
+  }
+
+  private static Unit<?> computeRoot(AbstractUnit<?> unit, int n) {
     if (unit instanceof ProductUnit<?>) {
-      Element[] elems = ((ProductUnit<?>) unit).elements;
-      unitElems = new Element[elems.length];
-      for (int i = 0; i < elems.length; i++) {
-        int gcd = gcd(Math.abs(elems[i].pow), elems[i].root * n);
-        unitElems[i] = new Element(elems[i].unit, elems[i].pow / gcd, elems[i].root * n / gcd);
+      ProductUnit<?> u = (ProductUnit<?>) unit;
+      int[] pows = new int[u.pows.length];
+      int[] roots = new int[u.roots.length];
+      for (int i = 0; i < pows.length; i++) {
+        int gcd = gcd(Math.abs(u.pows[i]), u.roots[i] * n);
+        pows[i] = u.pows[i] / gcd;
+        roots[i] = u.roots[i] * n / gcd;
       }
-    } else
-      unitElems = new Element[] { new Element(unit, 1, n) };
-    return getInstance(unitElems, new Element[0]);
+      return getInstance(AbstractUnit.ONE, u.units, pows, roots);
+    }
+    return getInstance(AbstractUnit.ONE, new Unit<?>[] { unit }, new int[] { 1 }, new int[] { n });
   }
 
   /**
-   * Returns the product unit corresponding to this unit raised to the specified exponent.
+   * Returns the product unit corresponding to the specified unit raised to the specified exponent. Unlike repeated multiplications, the exponents of
+   * the unit elements are scaled in a single step.
    *
    * @param unit
    *          the unit.
-   * @param nn
-   *          the exponent (nn &gt; 0).
+   * @param n
+   *          the exponent (positive or negative).
    * @return <code>unit^n</code>
    */
-  static Unit<?> getPowInstance(AbstractUnit<?> unit, int n) {
-    Element[] unitElems;
+  public static Unit<?> getPowInstance(AbstractUnit<?> unit, int n) {
+    Operation op = new Operation(POW, unit, null, n);
+    Unit<?> result = MEMO.get(op);
+    if (result == null)
+      result = memoize(op, computePow(unit, n));
+    return result;
+  }
+
+  private static Unit<?> computePow(AbstractUnit<?> unit, int n) {
     if (unit instanceof ProductUnit<?>) {
-      Element[] elems = ((ProductUnit<?>) unit).elements;
-      unitElems = new Element[elems.length];
-      for (int i = 0; i < elems.length; i++) {
-        int gcd = gcd(Math.abs(elems[i].pow * n), elems[i].root);
-        unitElems[i] = new Element(elems[i].unit, elems[i].pow * n / gcd, elems[i].root / gcd);
+      ProductUnit<?> u = (ProductUnit<?>) unit;
+      int[] pows = new int[u.pows.length];
+      int[] roots = new int[u.roots.length];
+      for (int i = 0; i < pows.length; i++) {
+        int gcd = gcd(Math.abs(u.pows[i] * n), u.roots[i]);
+        pows[i] = u.pows[i] * n / gcd;
+        roots[i] = u.roots[i] / gcd;
       }
-    } else
-      unitElems = new Element[] { new Element(unit, n, 1) };
-    return getInstance(unitElems, new Element[0]);
+      return getInstance(AbstractUnit.ONE, u.units, pows, roots);
+    }
+    return getInstance(AbstractUnit.ONE, new Unit<?>[] { unit }, new int[] { n }, new int[] { 1 });
   }
 
   /**
@@ -219,7 +328,7 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    * @return the number of unit elements.
    */
   public int getUnitCount() {
-    return elements.length;
+    return units.length;
   }
 
   /**
@@ -232,7 +341,7 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    *           if index is out of range <code>(index &lt; 0 || index &gt;= getUnitCount())</code>.
    */
   public Unit<?> getUnit(int index) {
-    return elements[index].getUnit();
+    return units[index];
   }
 
   /**
@@ -245,7 +354,7 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    *           if index is out of range <code>(index &lt; 0 || index &gt;= getUnitCount())</code>.
    */
   public int getUnitPow(int index) {
-    return elements[index].getPow();
+    return pows[index];
   }
 
   /**
@@ -258,16 +367,16 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
    *           if index is out of range <code>(index &lt; 0 || index &gt;= getUnitCount())</code>.
    */
   public int getUnitRoot(int index) {
-    return elements[index].getRoot();
+    return roots[index];
   }
 
   @Override
   public Map<Unit<?>, Integer> getProductUnits() {
-    final Map<Unit<?>, Integer> units = new HashMap<Unit<?>, Integer>();
-    for (int i = 0; i < getUnitCount(); i++) {
-      units.put(getUnit(i), getUnitPow(i));
+    final Map<Unit<?>, Integer> productUnits = new HashMap<Unit<?>, Integer>();
+    for (int i = 0; i < units.length; i++) {
+      productUnits.put(units[i], pows[i]);
     }
-    return units;
+    return productUnits;
   }
 
   @Override
@@ -276,16 +385,29 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
       return true;
     if (!(that instanceof ProductUnit<?>))
       return false;
-    // Two products are equals if they have the same elements
-    // regardless of the elements' order.
-    Element[] elems = ((ProductUnit<?>) that).elements;
-    if (elements.length != elems.length)
+    ProductUnit<?> other = (ProductUnit<?>) that;
+    if ((hashCode != other.hashCode) || (units.length != other.units.length))
       return false;
-    for (Element element : elements) {
+    // Compares the elements in canonical order, only units with the same hash
+    // code (practically never) can be in a different order.
+    for (int k = 0; k < units.length; k++) {
+      int i = order[k];
+      int j = other.order[k];
+      if ((pows[i] != other.pows[j]) || (roots[i] != other.roots[j]) || !units[i].equals(other.units[j]))
+        return equalsUnordered(other);
+    }
+    return true;
+  }
+
+  /**
+   * Compares the elements regardless of their order.
+   */
+  private boolean equalsUnordered(ProductUnit<?> that) {
+    for (int i = 0; i < units.length; i++) {
       boolean unitFound = false;
-      for (Element elem : elems) {
-        if (element.unit.equals(elem.unit))
-          if ((element.pow != elem.pow) || (element.root != elem.root))
+      for (int j = 0; j < that.units.length; j++) {
+        if (units[i].equals(that.units[j]))
+          if ((pows[i] != that.pows[j]) || (roots[i] != that.roots[j]))
             return false;
           else {
             unitFound = true;
@@ -300,42 +422,56 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
 
   @Override
   public int hashCode() {
-    if (this.hashCode != 0)
-      return this.hashCode;
-    int code = 0;
-    for (Element element : elements) {
-      code += element.unit.hashCode() * (element.pow * 3 - element.root * 2);
-    }
-    this.hashCode = code;
-    return code;
+    return hashCode;
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public AbstractUnit<Q> toSystemUnit() {
     Unit<?> systemUnit = AbstractUnit.ONE;
-    for (Element element : elements) {
-      Unit<?> unit = element.unit.getSystemUnit();
-      unit = unit.pow(element.pow);
-      unit = unit.root(element.root);
+    for (int i = 0; i < units.length; i++) {
+      Unit<?> unit = units[i].getSystemUnit();
+      unit = unit.pow(pows[i]);
+      unit = unit.root(roots[i]);
       systemUnit = systemUnit.multiply(unit);
     }
     return (AbstractUnit<Q>) systemUnit;
   }
 
+  @Override
   public UnitConverter getSystemConverter() {
+    if (systemConverter != null)
+      return systemConverter;
+    return systemConverterOf(units, pows, roots, true); // Throws the reason.
+  }
+
+  /**
+   * Returns the system converter of the specified elements.
+   *
+   * @param strict
+   *          <code>true</code> to throw an exception if there is no linear system converter; <code>false</code> to return <code>null</code> instead.
+   */
+  @SuppressWarnings("rawtypes")
+  private static UnitConverter systemConverterOf(Unit<?>[] units, int[] pows, int[] roots, boolean strict) {
     UnitConverter converter = AbstractConverter.IDENTITY;
-    for (Element e : elements) {
-      @SuppressWarnings("rawtypes")
-      UnitConverter cvtr = ((AbstractUnit) e.unit).getSystemConverter(); // TODO
+    for (int i = 0; i < units.length; i++) {
+      if (!strict && !(units[i] instanceof AbstractUnit))
+        return null;
+      UnitConverter cvtr = ((AbstractUnit) units[i]).getSystemConverter(); // TODO
       // check
       // for
       // type
       if (!(cvtr.isLinear()))
-        throw new UnsupportedOperationException(e.unit + " is non-linear, cannot convert");
-      if (e.root != 1)
-        throw new UnsupportedOperationException(e.unit + " holds a base unit with fractional exponent");
-      int pow = e.pow;
+        if (strict)
+          throw new UnsupportedOperationException(units[i] + " is non-linear, cannot convert");
+        else
+          return null;
+      if (roots[i] != 1)
+        if (strict)
+          throw new UnsupportedOperationException(units[i] + " holds a base unit with fractional exponent");
+        else
+          return null;
+      int pow = pows[i];
       if (pow < 0) { // Negative power.
         pow = -pow;
         cvtr = cvtr.inverse();
@@ -344,16 +480,28 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
         converter = converter.concatenate(cvtr);
       }
     }
-    return converter;
+    return AbstractConverter.compile(converter);
   }
 
   @Override
   public Dimension getDimension() {
+    Dimension d = this.dimension;
+    if (d == null) {
+      d = dimensionOf(units, pows, roots);
+      this.dimension = d;
+    }
+    return d;
+  }
+
+  /**
+   * Returns the dimension of the specified elements.
+   */
+  private static Dimension dimensionOf(Unit<?>[] units, int[] pows, int[] roots) {
     Dimension dimension = QuantityDimension.NONE;
-    for (int i = 0; i < this.getUnitCount(); i++) {
-      Unit<?> unit = this.getUnit(i);
-      if (this.elements != null && unit.getDimension() != null) {
-        Dimension d = unit.getDimension().pow(this.getUnitPow(i)).root(this.getUnitRoot(i));
+    for (int i = 0; i < units.length; i++) {
+      Unit<?> unit = units[i];
+      if (unit.getDimension() != null) {
+        Dimension d = unit.getDimension().pow(pows[i]).root(roots[i]);
         if (dimension != null) {
           dimension = dimension.multiply(d);
         } else {
@@ -365,30 +513,49 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
   }
 
   /**
-   * Returns the unit defined from the product of the specified elements.
+   * Returns the unit defined from the product of the specified unit with the specified elements.
    *
-   * @param leftElems
-   *          left multiplicand elements.
-   * @param rightElems
-   *          right multiplicand elements.
+   * @param left
+   *          the left multiplicand.
+   * @param rightUnits
+   *          the right multiplicand units.
+   * @param rightPows
+   *          the right multiplicand power exponents.
+   * @param rightRoots
+   *          the right multiplicand root exponents.
    * @return the corresponding unit.
    */
-  @SuppressWarnings("rawtypes")
-  private static Unit<?> getInstance(Element[] leftElems, Element[] rightElems) {
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static Unit<?> getInstance(Unit<?> left, Unit<?>[] rightUnits, int[] rightPows, int[] rightRoots) {
+    Unit<?>[] leftUnits;
+    int[] leftPows;
+    int[] leftRoots;
+    if (left instanceof ProductUnit<?>) {
+      ProductUnit<?> l = (ProductUnit<?>) left;
+      leftUnits = l.units;
+      leftPows = l.pows;
+      leftRoots = l.roots;
+    } else {
+      leftUnits = new Unit<?>[] { left };
+      leftPows = new int[] { 1 };
+      leftRoots = new int[] { 1 };
+    }
 
     // Merges left elements with right elements.
-    Element[] result = new Element[leftElems.length + rightElems.length];
-    int resultIndex = 0;
-    for (Element leftElem : leftElems) {
-      Unit<?> unit = leftElem.unit;
-      int p1 = leftElem.pow;
-      int r1 = leftElem.root;
+    int length = leftUnits.length + rightUnits.length;
+    Unit<?>[] units = new Unit<?>[length];
+    int[] pows = new int[length];
+    int[] roots = new int[length];
+    int count = 0;
+    for (int i = 0; i < leftUnits.length; i++) {
+      int p1 = leftPows[i];
+      int r1 = leftRoots[i];
       int p2 = 0;
       int r2 = 1;
-      for (Element rightElem : rightElems) {
-        if (unit.equals(rightElem.unit)) {
-          p2 = rightElem.pow;
-          r2 = rightElem.root;
+      for (int j = 0; j < rightUnits.length; j++) {
+        if (leftUnits[i].equals(rightUnits[j])) {
+          p2 = rightPows[j];
+          r2 = rightRoots[j];
           break; // No duplicate.
         }
       }
@@ -396,36 +563,100 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
       int root = r1 * r2;
       if (pow != 0) {
         int gcd = gcd(Math.abs(pow), root);
-        result[resultIndex++] = new Element(unit, pow / gcd, root / gcd);
+        units[count] = leftUnits[i];
+        pows[count] = pow / gcd;
+        roots[count++] = root / gcd;
       }
     }
 
     // Appends remaining right elements not merged.
-    for (Element rightElem : rightElems) {
-      Unit<?> unit = rightElem.unit;
+    for (int j = 0; j < rightUnits.length; j++) {
       boolean hasBeenMerged = false;
-      for (Element leftElem : leftElems) {
-        if (unit.equals(leftElem.unit)) {
+      for (int i = 0; i < leftUnits.length; i++) {
+        if (rightUnits[j].equals(leftUnits[i])) {
           hasBeenMerged = true;
           break;
         }
       }
-      if (!hasBeenMerged)
-        result[resultIndex++] = rightElem;
+      if (!hasBeenMerged) {
+        units[count] = rightUnits[j];
+        pows[count] = rightPows[j];
+        roots[count++] = rightRoots[j];
+      }
     }
 
     // Returns or creates instance.
-    if (resultIndex == 0)
+    if (count == 0)
       return AbstractUnit.ONE;
-    else if ((resultIndex == 1) && (result[0].pow == result[0].root))
-      return result[0].unit;
+    else if ((count == 1) && (pows[0] == roots[0]))
+      return units[0];
     else {
-      Element[] elems = new Element[resultIndex];
-      System.arraycopy(result, 0, elems, 0, resultIndex);
-      return new ProductUnit(elems);
+      if (count < length) {
+        units = Arrays.copyOf(units, count);
+        pows = Arrays.copyOf(pows, count);
+        roots = Arrays.copyOf(roots, count);
+      }
+      return intern(new ProductUnit(units, pows, roots));
+    }
+  }
+
+  /**
+   * Returns the indices of the specified units ordered by hash code (insertion sort, products hold few elements). Equal units having equal hash
+   * codes, the elements of equal products are in the same order unless distinct elements have the same hash code.
+   */
+  private static int[] canonicalOrder(Unit<?>[] units) {
+    int[] order = new int[units.length];
+    for (int i = 0; i < units.length; i++) {
+      int j = i - 1;
+      while ((j >= 0) && (units[order[j]].hashCode() > units[i].hashCode())) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = i;
+    }
+    return order;
+  }
+
+  /**
+   * Returns the canonical instance of the specified product unit. Canonical instances are weakly held, an equal product whose elements are in a
+   * different order or with elements equal but not identical (hence formatted differently) is not replaced by the canonical instance.
+   *
+   * @param unit
+   *          the product unit to intern.
+   * @return the canonical product unit equal to the one specified.
+   */
+  private static ProductUnit<?> intern(ProductUnit<?> unit) {
+    synchronized (POOL) {
+      WeakReference<ProductUnit<?>> ref = POOL.get(unit);
+      ProductUnit<?> canonical = (ref != null) ? ref.get() : null;
+      if (canonical != null)
+        return sameElements(canonical, unit) ? canonical : unit;
+      POOL.put(unit, new WeakReference<ProductUnit<?>>(unit));
+      return unit;
     }
   }
 
+  /**
+   * Indicates if the specified products hold the same element instances in the same order.
+   */
+  private static boolean sameElements(ProductUnit<?> u1, ProductUnit<?> u2) {
+    for (int i = 0; i < u1.units.length; i++) {
+      if (u1.units[i] != u2.units[i])
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Records the result of the specified operation, the memo table is cleared when full (operations are cheap to recompute).
+   */
+  private static Unit<?> memoize(Operation op, Unit<?> result) {
+    if (MEMO.size() >= MEMO_CAPACITY)
+      MEMO.clear();
+    MEMO.put(op, result);
+    return result;
+  }
+
   /**
    * Returns the greatest common divisor (Euclid's algorithm).
    *
@@ -443,72 +674,51 @@ public final class ProductUnit<Q extends Quantity<Q>> extends AbstractUnit<Q> {
   }
 
   /**
-   * Inner product element represents a rational power of a single unit.
+   * Inner key of the memo table: an operation code with its operands.
    */
-  @SuppressWarnings("rawtypes")
-  private final static class Element implements UnitSupplier {
+  private static final class Operation {
 
-    /**
-		 * 
-		 */
-    // private static final long serialVersionUID = 452938412398890507L;
+    private final int code;
 
-    /**
-     * Holds the single unit.
-     */
-    private final Unit<?> unit;
+    private final Unit<?> left;
 
-    /**
-     * Holds the power exponent.
-     */
-    private final int pow;
+    private final Unit<?> right;
 
-    /**
-     * Holds the root exponent.
-     */
-    private final int root;
+    private final int n;
 
-    /**
-     * Structural constructor.
-     *
-     * @param unit
-     *          the unit.
-     * @param pow
-     *          the power exponent.
-     * @param root
-     *          the root exponent.
-     */
-    private Element(Unit<?> unit, int pow, int root) {
-      this.unit = unit;
-      this.pow = pow;
-      this.root = root;
+    private final int hash;
+
+    private Operation(int code, Unit<?> left, Unit<?> right, int n) {
+      this.code = code;
+      this.left = left;
+      this.right = right;
+      this.n = n;
+      int h = 31 * code + left.hashCode();
+      h = 31 * h + ((right != null) ? right.hashCode() : 0);
+      this.hash = 31 * h + n;
     }
 
-    /**
-     * Returns this element's unit.
-     *
-     * @return the single unit.
-     */
-    public Unit<?> getUnit() {
-      return unit;
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof Operation))
+        return false;
+      Operation that = (Operation) obj;
+      return (code == that.code) && (n == that.n) && same(left, that.left) && ((right == null) ? that.right == null : same(right, that.right));
     }
 
     /**
-     * Returns the power exponent. The power exponent can be negative but is always different from zero.
-     *
-     * @return the power exponent of the single unit.
+     * Operands are compared by identity, equal units may differ in symbol (e.g. <code>l</code> and <code>m³/1000</code>) or element order, hence
+     * in the formatting of the result.
      */
-    public int getPow() {
-      return pow;
+    private static boolean same(Unit<?> u1, Unit<?> u2) {
+      return u1 == u2;
     }
 
-    /**
-     * Returns the root exponent. The root exponent is always greater than zero.
-     *
-     * @return the root exponent of the single unit.
-     */
-    public int getRoot() {
-      return root;
+    @Override
+    public int hashCode() {
+      return hash;
     }
   }
 
@@ -85,6 +85,11 @@ public final class TransformedUnit<Q extends Quantity<Q>> extends AbstractUnit<Q
    */
   private final UnitConverter converter;
 
+  /**
+   * Holds the converter to the system unit (computed on first use).
+   */
+  private volatile UnitConverter systemConverter;
+
   /**
    * Holds the symbol.
    */
@@ -157,7 +162,12 @@ public final class TransformedUnit<Q extends Quantity<Q>> extends AbstractUnit<Q
 
   @Override
   public UnitConverter getSystemConverter() {
-    return parentUnit.getSystemConverter().concatenate(converter);
+    UnitConverter cvtr = systemConverter;
+    if (cvtr == null) {
+      cvtr = parentUnit.getSystemConverter().concatenate(converter);
+      systemConverter = cvtr;
+    }
+    return cvtr;
   }
 
   @Override
@@ -269,7 +269,7 @@ public class Units extends AbstractSystemOfUnits implements Nameable {
    * The SI unit for Celsius temperature (standard name <code>Cel</code>). This is a unit of temperature such as the freezing point of water (at one
    * atmosphere of pressure) is 0 Cel, while the boiling point is 100 Cel.
    */
-  public static final Unit<Temperature> CELSIUS = addUnit(new TransformedUnit<Temperature>(KELVIN, new AddConverter(273.15)));
+  public static final Unit<Temperature> CELSIUS = addUnit(new TransformedUnit<Temperature>(KELVIN, AddConverter.of(273.15)));
   // Not mapping to Temperature since temperature is mapped to Kelvin.
 
   /**
@@ -346,7 +346,7 @@ public class Units extends AbstractSystemOfUnits implements Nameable {
   /**
    * A dimensionless unit accepted for use with SI units (standard name <code>%</code>).
    */
-  public static final Unit<Dimensionless> PERCENT = new TransformedUnit<Dimensionless>(ONE, new RationalConverter(1, 100));
+  public static final Unit<Dimensionless> PERCENT = new TransformedUnit<Dimensionless>(ONE, RationalConverter.of(1, 100));
 
   /**
    * A volume unit accepted for use with SI units (standard name <code>l</code>).
@@ -354,7 +354,7 @@ public class Units extends AbstractSystemOfUnits implements Nameable {
    * @see <a href="https://en.wikipedia.org/wiki/Litre"> Wikipedia: Litre</a>
    */
   public static final Unit<Volume> LITRE = AbstractSystemOfUnits.Helper.addUnit(INSTANCE.units, new TransformedUnit<Volume>(CUBIC_METRE,
-      new RationalConverter(1, 1000)), "Litre", "l");
+      RationalConverter.of(1, 1000)), "Litre", "l");
 
   // ////////
   // Time //
@@ -405,6 +405,13 @@ public class Units extends AbstractSystemOfUnits implements Nameable {
     return INSTANCE;
   }
 
+  /**
+   * Indicates if the specified unit is one of the units of this system (without logging them, see {@link #getUnits()}).
+   */
+  static boolean contains(Unit<?> unit) {
+    return INSTANCE.units.contains(unit);
+  }
+
   /**
    * Adds a new unit not mapped to any specified quantity type.
    *
@@ -0,0 +1,285 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.*;
+import static tec.units.ri.unit.Units.*;
+
+import javax.measure.UnitConverter;
+
+import org.junit.Test;
+
+import tec.units.ri.function.AddConverter;
+import tec.units.ri.function.AffineConverter;
+import tec.units.ri.function.ExpConverter;
+import tec.units.ri.function.LogConverter;
+import tec.units.ri.function.MultiplyConverter;
+import tec.units.ri.function.PiDivisorConverter;
+import tec.units.ri.function.PiMultiplierConverter;
+import tec.units.ri.function.RationalConverter;
+
+public class AbsConverterTest {
+
+  @Test
+  public void testCompileSingleStep() {
+    RationalConverter rational = RationalConverter.of(1, 1000);
+    assertSame(rational, AbstractConverter.compile(rational));
+    assertSame(AbstractConverter.IDENTITY, AbstractConverter.compile(AbstractConverter.IDENTITY));
+  }
+
+  @Test
+  public void testCompileLinearChain() {
+    UnitConverter pair = new AbstractConverter.Pair(new MultiplyConverter(2), new AbstractConverter.Pair(RationalConverter.of(1, 4),
+        new PiMultiplierConverter()));
+    AbstractConverter compiled = AbstractConverter.compile(pair);
+    assertTrue(compiled instanceof MultiplyConverter);
+    assertEquals(pair.convert(3.0), compiled.convert(3.0), 1e-12);
+  }
+
+  @Test
+  public void testCompileAffineChain() {
+    // x -> (x + 10) * 2 -> + 1
+    UnitConverter pair = new AbstractConverter.Pair(new AddConverter(1), new AbstractConverter.Pair(new MultiplyConverter(2), new AddConverter(10)));
+    AbstractConverter compiled = AbstractConverter.compile(pair);
+    assertEquals(new AffineConverter(2, 21), compiled);
+    assertEquals(pair.convert(5.0), compiled.convert(5.0), 0);
+  }
+
+  @Test
+  public void testCompileCancellingChain() {
+    UnitConverter pair = new AbstractConverter.Pair(new MultiplyConverter(4), new MultiplyConverter(0.25));
+    assertSame(AbstractConverter.IDENTITY, AbstractConverter.compile(pair));
+  }
+
+  @Test
+  public void testCompileNonLinearChain() {
+    UnitConverter pair = new AbstractConverter.Pair(new MultiplyConverter(10), new AbstractConverter.Pair(new LogConverter(10), new AbstractConverter.Pair(
+        new MultiplyConverter(2), new MultiplyConverter(5))));
+    AbstractConverter compiled = AbstractConverter.compile(pair);
+    assertTrue(compiled instanceof AbstractConverter.Chain);
+    AbstractConverter.Chain chain = (AbstractConverter.Chain) compiled;
+    assertEquals(3, chain.getStageCount());
+    assertEquals(new MultiplyConverter(10), chain.getStage(0));
+    assertEquals(new LogConverter(10), chain.getStage(1));
+    assertEquals(new MultiplyConverter(10), chain.getStage(2));
+    assertEquals(pair.convert(100.0), compiled.convert(100.0), 1e-12);
+    assertEquals(30.0, compiled.convert(100.0), 1e-12);
+    assertEquals(100.0, compiled.inverse().convert(30.0), 1e-9);
+    assertEquals(3, compiled.getConversionSteps().size());
+  }
+
+  @Test
+  public void testCompileExpLog() {
+    UnitConverter pair = new AbstractConverter.Pair(new ExpConverter(10), new LogConverter(10));
+    AbstractConverter compiled = AbstractConverter.compile(pair);
+    assertEquals(2, ((AbstractConverter.Chain) compiled).getStageCount());
+    assertEquals(42.0, compiled.convert(42.0), 1e-9);
+  }
+
+  @Test
+  public void testGetConverterToIsCompiled() {
+    UnitConverter converter = MILLI(CELSIUS).getConverterTo(KILO(KELVIN));
+    assertTrue(converter instanceof AffineConverter);
+    assertEquals(0.27415, converter.convert(1000.0), 1e-12);
+    assertTrue(KILO(METRE).getConverterTo(MILLI(METRE)) instanceof RationalConverter);
+  }
+
+  @Test
+  public void testPairConvertArray() {
+    AbstractConverter pair = new AbstractConverter.Pair(new MultiplyConverter(2), new AbstractConverter.Pair(new LogConverter(10), new AddConverter(
+        -1)));
+    double[] src = { 2, 11, 101 };
+    double[] dst = new double[3];
+    pair.convert(src, 0, dst, 0, 3);
+    for (int i = 0; i < src.length; i++) {
+      assertEquals(pair.convert(src[i]), dst[i], 0);
+    }
+    assertEquals(4, dst[2], 1e-12);
+    assertEquals(2, src[0], 0); // Source left untouched.
+  }
+
+  @Test
+  public void testChainConvertArray() {
+    AbstractConverter chain = (AbstractConverter) MILLI(CELSIUS).getConverterTo(KILO(KELVIN)).concatenate(new LogConverter(10));
+    AbstractConverter compiled = AbstractConverter.compile(chain);
+    double[] values = { 1, 10, 100 };
+    double[] expected = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      expected[i] = chain.convert(values[i]);
+    }
+    compiled.convert(values);
+    assertArrayEquals(expected, values, 1e-15);
+  }
+
+  @Test
+  public void testIdentityConvertArray() {
+    double[] src = { 1, 2, 3 };
+    double[] dst = new double[3];
+    AbstractConverter.IDENTITY.convert(src, 0, dst, 0, 3);
+    assertArrayEquals(src, dst, 0);
+  }
+
+  @Test
+  public void testConvertLong() {
+    assertEquals(42, AbstractConverter.IDENTITY.convertExact(42));
+    assertEquals(Long.MAX_VALUE, AbstractConverter.IDENTITY.convertLong(Long.MAX_VALUE));
+    assertEquals(3, new MultiplyConverter(0.5).convertLong(7));
+    assertEquals(4, new MultiplyConverter(0.5).convertExact(8));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testConvertLongOverflow() {
+    new MultiplyConverter(2).convertLong(1L << 62); // 2^63 is not a long.
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testConvertExactInexact() {
+    new MultiplyConverter(0.5).convertExact(7);
+  }
+
+  @Test
+  public void testIntern() {
+    assertSame(RationalConverter.of(1, 1000), RationalConverter.of(2, 2000));
+    assertSame(MultiplyConverter.of(2.5), MultiplyConverter.of(2.5));
+    MultiplyConverter converter = new MultiplyConverter(3.5);
+    assertSame(AbstractConverter.intern(converter), AbstractConverter.intern(new MultiplyConverter(3.5)));
+    UnitConverter pair = MultiplyConverter.of(2).concatenate(new LogConverter(10));
+    assertSame(pair, MultiplyConverter.of(2).concatenate(new LogConverter(10)));
+    assertSame(pair.inverse(), pair.inverse());
+  }
+
+  @Test
+  public void testPairHashCode() {
+    AbstractConverter a = new LogConverter(10);
+    AbstractConverter b = new MultiplyConverter(2);
+    assertFalse(new AbstractConverter.Pair(a, b).hashCode() == new AbstractConverter.Pair(b, a).hashCode());
+    assertFalse(new PiMultiplierConverter().hashCode() == new PiMultiplierConverter().inverse().hashCode());
+  }
+
+  @Test
+  public void testSimplifyScalars() {
+    assertEquals(MultiplyConverter.of(2000), RationalConverter.of(1000, 1).concatenate(MultiplyConverter.of(2)));
+    assertEquals(MultiplyConverter.of(2 * Math.PI), new PiMultiplierConverter().concatenate(MultiplyConverter.of(2)));
+    assertSame(AbstractConverter.IDENTITY, new PiMultiplierConverter().concatenate(new PiDivisorConverter()));
+    UnitConverter piRational = new PiMultiplierConverter().concatenate(RationalConverter.of(1, 180));
+    assertEquals(2, piRational.getConversionSteps().size()); // Kept exact.
+    assertSame(AbstractConverter.IDENTITY, piRational.concatenate(piRational.inverse()));
+  }
+
+  @Test
+  public void testSimplifyOffsetsAndInverses() {
+    assertEquals(AddConverter.of(3), AddConverter.of(1).concatenate(AddConverter.of(2)));
+    assertSame(AbstractConverter.IDENTITY, AddConverter.of(1).concatenate(AddConverter.of(-1)));
+    assertSame(AbstractConverter.IDENTITY, new ExpConverter(10).concatenate(new LogConverter(10)));
+    assertSame(AbstractConverter.IDENTITY, new LogConverter(2).concatenate(new ExpConverter(2)));
+    assertFalse(new LogConverter(2).concatenate(new ExpConverter(10)).isIdentity());
+  }
+
+  @Test
+  public void testSimplifyReassociates() {
+    UnitConverter inner = new LogConverter(10).concatenate(RationalConverter.of(1, 1000));
+    assertEquals(new LogConverter(10), inner.concatenate(RationalConverter.of(1000, 1)));
+    UnitConverter outer = AddConverter.of(5).concatenate(new ExpConverter(10).concatenate(inner));
+    assertEquals(AddConverter.of(5).concatenate(RationalConverter.of(1, 1000)), outer);
+  }
+
+  @Test
+  public void testProductUnitSystemConverter() {
+    AbstractUnit<?> area = (AbstractUnit<?>) KILO(METRE).multiply(KILO(METRE)).multiply(KILO(METRE)).divide(MILLI(METRE));
+    assertEquals(RationalConverter.of(1000000000000L, 1), area.getSystemConverter());
+  }
+
+  @Test
+  public void testInverseMemoized() {
+    AbstractConverter[] converters = { new MultiplyConverter(3), new RationalConverter(3, 7), new AddConverter(2), new AffineConverter(2, 1),
+        new LogConverter(10), new ExpConverter(2), new PiMultiplierConverter(), new PiDivisorConverter(),
+        new AbstractConverter.Pair(new LogConverter(10), new AddConverter(5)), AbstractConverter.IDENTITY };
+    for (AbstractConverter converter : converters) {
+      AbstractConverter inverse = converter.inverse();
+      assertSame(inverse, converter.inverse());
+      assertSame(converter, inverse.inverse());
+      assertEquals(2.5, inverse.convert(converter.convert(2.5)), 1e-12);
+    }
+  }
+
+  @Test
+  public void testCreateInverse() {
+    AbstractConverter twice = new AbstractConverter() {
+
+      @Override
+      protected AbstractConverter createInverse() {
+        return new MultiplyConverter(0.5);
+      }
+
+      @Override
+      public double convert(double value) {
+        return value * 2;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+        return this == obj;
+      }
+
+      @Override
+      public int hashCode() {
+        return 0;
+      }
+
+      public boolean isLinear() {
+        return true;
+      }
+    };
+    assertEquals(new MultiplyConverter(0.5), twice.inverse());
+    assertSame(twice.inverse(), twice.inverse());
+    assertEquals(1.5, twice.inverse().convert(3), 0);
+  }
+
+  @Test
+  public void testFloatBlockDoubleIntermediates() {
+    AbstractConverter[] converters = { new AbstractConverter.Pair(new MultiplyConverter(3), new AddConverter(0.1)),
+        new AbstractConverter.Pair(new MultiplyConverter(10), new AbstractConverter.Pair(new LogConverter(10), new AddConverter(0.3))) };
+    float[] src = new float[1000];
+    for (int i = 0; i < src.length; i++) {
+      src[i] = 0.37f * i + 1;
+    }
+    for (AbstractConverter converter : converters) {
+      AbstractConverter compiled = (AbstractConverter) AbstractConverter.compile(converter);
+      for (AbstractConverter cvtr : new AbstractConverter[] { converter, compiled }) {
+        float[] dst = new float[src.length];
+        cvtr.convert(src, 0, dst, 0, src.length);
+        for (int i = 0; i < src.length; i++) {
+          assertEquals((float) cvtr.convert((double) src[i]), dst[i], 0f);
+        }
+      }
+    }
+  }
+}
@@ -31,12 +31,16 @@ package tec.units.ri;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static tec.units.ri.unit.Units.*;
 
+import java.util.Iterator;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.measure.Unit;
+import javax.measure.quantity.Length;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -73,4 +77,66 @@ public class AbsSystemOfUnitsTest {
     assertNotNull(units);
     assertEquals(1, units.size());
   }
+
+  @Test
+  public void testGetUnitsForDimensionAfterAdd() {
+    AbstractSystemOfUnits custom = new AbstractSystemOfUnits() {
+      @Override
+      public String getName() {
+        return "Custom";
+      }
+    };
+    Set<? extends Unit<?>> lengths = custom.getUnits(QuantityDimension.LENGTH);
+    assertTrue(lengths.isEmpty());
+    Unit<?> foot = custom.addUnit(METRE.multiply(0.3048), "Foot");
+    custom.addUnit(SECOND, "Second");
+    assertEquals(1, custom.getUnits(QuantityDimension.LENGTH).size());
+    assertTrue(custom.getUnits(QuantityDimension.LENGTH).contains(foot));
+    assertEquals(2, custom.getUnits().size());
+    assertTrue(custom.getUnits(QuantityDimension.MASS).isEmpty());
+    assertTrue(lengths.contains(foot)); // Live view.
+  }
+
+  @Test
+  public void testGetUnitsForDimensionAfterRemove() {
+    AbstractSystemOfUnits custom = new AbstractSystemOfUnits() {
+      @Override
+      public String getName() {
+        return "Custom";
+      }
+    };
+    Unit<?> foot = custom.addUnit(METRE.multiply(0.3048), "Foot");
+    Set<? extends Unit<?>> lengths = custom.getUnits(QuantityDimension.LENGTH);
+    assertTrue(lengths.contains(foot));
+    custom.units.remove(foot);
+    assertTrue(lengths.isEmpty());
+    custom.addUnit(foot, "Foot");
+    for (Iterator<Unit<?>> i = custom.units.iterator(); i.hasNext();) {
+      i.next();
+      i.remove();
+    }
+    assertTrue(lengths.isEmpty());
+    assertTrue(custom.getUnits().isEmpty());
+  }
+
+  @Test
+  public void testRegistrationStamp() {
+    AbstractSystemOfUnits custom = new AbstractSystemOfUnits() {
+      @Override
+      public String getName() {
+        return "Custom";
+      }
+    };
+    int stamp = custom.getRegistrationStamp();
+    custom.addUnit(METRE, "Metre");
+    assertEquals(stamp, custom.getRegistrationStamp());
+    custom.quantityToUnit.put(Length.class, METRE);
+    assertTrue(stamp != custom.getRegistrationStamp());
+    assertEquals(METRE, custom.getUnit(Length.class));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetUnitsIsUnmodifiable() {
+    system.getUnits().clear();
+  }
 }
@@ -30,14 +30,22 @@
 package tec.units.ri;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Map;
+
+import javax.measure.Dimension;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
 import javax.measure.quantity.Length;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import tec.units.ri.AbstractUnit;
+import tec.units.ri.function.MultiplyConverter;
 import tec.units.ri.unit.BaseUnit;
+import tec.units.ri.unit.Units;
 
 public class AbsUnitTest {
   private static final AbstractUnit<Length> sut = new BaseUnit<Length>("m");
@@ -51,4 +59,45 @@ public class AbsUnitTest {
   public void testName() {
     assertEquals("Test", sut.getName());
   }
+
+  /**
+   * Sub-classes written before the compute hooks still override getSystemConverter() and getDimension().
+   */
+  @Test
+  public void testLegacySubclass() {
+    AbstractUnit<Length> legacy = new AbstractUnit<Length>() {
+      @Override
+      protected AbstractUnit<Length> toSystemUnit() {
+        return (AbstractUnit<Length>) Units.METRE;
+      }
+
+      @Override
+      public UnitConverter getSystemConverter() {
+        return new MultiplyConverter(0.3048);
+      }
+
+      @Override
+      public Dimension getDimension() {
+        return Units.METRE.getDimension();
+      }
+
+      @Override
+      public Map<? extends Unit<?>, Integer> getProductUnits() {
+        return null;
+      }
+
+      @Override
+      public int hashCode() {
+        return 0;
+      }
+
+      @Override
+      public boolean equals(Object that) {
+        return this == that;
+      }
+    };
+    assertEquals(Units.METRE, legacy.getSystemUnit());
+    assertTrue(legacy.isCompatible(Units.METRE));
+    assertEquals(0.3048, legacy.getConverterTo(Units.METRE).convert(1.0), 1e-12);
+  }
 }
@@ -110,4 +110,13 @@ public class QuantityFormatTest {
       fail(e.getMessage());
     }
   }
+
+  @Test
+  public void testParseDecimal() {
+    Quantity<?> parsed = QuantityFormat.getDecimalInstance().parse("12.50 km");
+    assertEquals(new java.math.BigDecimal("12.50"), parsed.getValue());
+    assertEquals(KILO(METRE), parsed.getUnit());
+    assertEquals("12.50 km", parsed.toString());
+    assertEquals(1.5e20, QuantityFormat.getDecimalInstance().parse("1.5E20 m").getValue());
+  }
 }
@@ -34,6 +34,9 @@ import static tec.units.ri.unit.MetricPrefix.*;
 import static tec.units.ri.unit.Units.GRAM;
 import static tec.units.ri.unit.Units.HERTZ;
 import static tec.units.ri.unit.Units.KILOGRAM;
+import static tec.units.ri.unit.Units.CELSIUS;
+import static tec.units.ri.unit.Units.METRE;
+import static tec.units.ri.unit.Units.OHM;
 
 import javax.measure.Unit;
 import javax.measure.quantity.Frequency;
@@ -44,6 +47,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import tec.units.ri.format.SimpleUnitFormat;
+import tec.units.ri.unit.MetricPrefix;
 import tec.units.ri.unit.Units;
 
 /**
@@ -66,6 +70,15 @@ public class SimpleFormatTest {
     assertEquals("km/h", s);
   }
 
+  @Test
+  public void testNotPrefixed() {
+    Unit<?> foot = METRE.multiply(0.3048);
+    String s = fmt.format(foot);
+    assertEquals(s, fmt.format(foot)); // Remembered as not prefixed.
+    assertEquals(s, fmt.format(METRE.multiply(0.3048)));
+    assertEquals("mm", fmt.format(MILLI(METRE)));
+  }
+
   @Test
   public void testKilo() {
     Unit<Mass> m = KILOGRAM;
@@ -107,4 +120,33 @@ public class SimpleFormatTest {
     String s = fmt.format(hz);
     assertEquals("kHz", s);
   }
+
+  @Test
+  public void testParsePrefixed() {
+    assertEquals(DEKA(METRE), fmt.parse("dam"));
+    assertEquals(DECI(METRE), fmt.parse("dm"));
+    assertEquals(MICRO(GRAM), fmt.parse("µg"));
+    assertEquals(MILLI(CELSIUS), fmt.parse("m°C"));
+    assertEquals(KILO(OHM), fmt.parse("kOhm"));
+    assertSame(fmt.parse("MHz"), fmt.parse("MHz"));
+  }
+
+  @Test
+  public void testPrefixedRoundTrip() {
+    for (MetricPrefix prefix : MetricPrefix.values()) {
+      Unit<?> unit = METRE.transform(prefix.getConverter());
+      assertEquals(prefix.getSymbol() + "m", fmt.format(unit));
+      assertEquals(unit, fmt.parse(prefix.getSymbol() + "m"));
+    }
+  }
+
+  @Test
+  public void testAsciiPrefixed() {
+    SimpleUnitFormat ascii = SimpleUnitFormat.getInstance(SimpleUnitFormat.Flavor.ASCII);
+    assertEquals("microOhm", ascii.format(MICRO(OHM)));
+    assertEquals("microg", ascii.format(MICRO(GRAM)));
+    assertEquals("kCelsius", ascii.format(KILO(CELSIUS)));
+    assertEquals(MICRO(OHM), ascii.parse("microOhm"));
+    assertEquals(MICRO(METRE), ascii.parse("microm"));
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.format;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+
+import javax.measure.Unit;
+
+import org.junit.Test;
+
+import tec.units.ri.unit.Units;
+
+/**
+ * <p>
+ * Measures the class initialization of {@link Units} and {@link SimpleUnitFormat} as seen by a short-lived process: each test loads the classes in
+ * a new class loader, the classes of the current one being already initialized.
+ * </p>
+ *
+ * @author <a href="mailto:units@catmedia.us">Werner Keil</a>
+ * @version 0.1, $Date: 2016-10-16 $
+ */
+public class StartupTest {
+
+  /**
+   * The time budget of the cold initialization (about 100 ms measured in a fresh class loader, the margin is for slow build machines).
+   */
+  private static final long BUDGET_MILLIS = 1000;
+
+  @Test
+  public void testColdInitialization() throws Exception {
+    ClassLoader loader = newClassLoader();
+    long start = System.nanoTime();
+    Object metre = Class.forName(Units.class.getName(), true, loader).getField("METRE").get(null);
+    Class<?> formatClass = Class.forName(SimpleUnitFormat.class.getName(), true, loader);
+    Object format = formatClass.getMethod("getInstance").invoke(null);
+    Object label = formatClass.getMethod("format", Class.forName(Unit.class.getName(), false, loader)).invoke(format, metre);
+    long millis = (System.nanoTime() - start) / 1000000;
+    assertEquals("m", label);
+    assertTrue("Units and SimpleUnitFormat initialized in " + millis + " ms", millis < BUDGET_MILLIS);
+  }
+
+  @Test
+  public void testPrefixedUnitsDeferred() throws Exception {
+    ClassLoader loader = newClassLoader();
+    Class<?> formatClass = Class.forName(SimpleUnitFormat.class.getName(), true, loader);
+    Object format = formatClass.getMethod("getInstance").invoke(null);
+    Method parse = formatClass.getMethod("parse", CharSequence.class);
+    Field prefixed = format.getClass().getDeclaredField("_nameToPrefixed");
+    prefixed.setAccessible(true);
+    assertEquals("m", parse.invoke(format, "m").toString());
+    assertTrue(((Map<?, ?>) prefixed.get(format)).isEmpty()); // No prefixed unit created on initialization.
+    assertEquals("kW", parse.invoke(format, "kW").toString());
+    assertEquals(1, ((Map<?, ?>) prefixed.get(format)).size());
+  }
+
+  /**
+   * Returns a class loader loading the API and the implementation classes again.
+   */
+  private static ClassLoader newClassLoader() {
+    URL api = Unit.class.getProtectionDomain().getCodeSource().getLocation();
+    URL ri = Units.class.getProtectionDomain().getCodeSource().getLocation();
+    return new URLClassLoader(new URL[] { ri, api }, ClassLoader.getSystemClassLoader().getParent());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.function;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tec.units.ri.AbstractConverter;
+
+public class AffineConverterTest {
+
+  private AffineConverter converter;
+
+  @Before
+  public void setUp() throws Exception {
+    converter = new AffineConverter(2, 10);
+  }
+
+  @Test
+  public void testConvertMethod() {
+    assertEquals(210, converter.convert(100), 0);
+    assertEquals(10, converter.convert(0), 0);
+    assertEquals(-190, converter.convert(-100), 0);
+  }
+
+  @Test
+  public void testEqualityOfTwoConverter() {
+    assertFalse(converter.equals(null));
+    assertEquals(new AffineConverter(2, 10), converter);
+    assertEquals(new AffineConverter(2, 10).hashCode(), converter.hashCode());
+  }
+
+  @Test
+  public void inverseTest() {
+    assertEquals(new AffineConverter(0.5, -5), converter.inverse());
+    assertEquals(100, converter.inverse().convert(converter.convert(100)), 0);
+  }
+
+  @Test
+  public void linearTest() {
+    assertFalse(converter.isLinear());
+  }
+
+  @Test
+  public void ofTest() {
+    assertEquals(AbstractConverter.IDENTITY, AffineConverter.of(1, 0));
+    assertEquals(new MultiplyConverter(3), AffineConverter.of(3, 0));
+    assertEquals(new AddConverter(3), AffineConverter.of(1, 3));
+    assertEquals(converter, AffineConverter.of(2, 10));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void identityTest() {
+    @SuppressWarnings("unused")
+    AffineConverter identConverter = new AffineConverter(1, 0);
+  }
+
+  @Test
+  public void toStringTest() {
+    assertEquals("AffineConverter(2.0,10.0)", converter.toString());
+  }
+}
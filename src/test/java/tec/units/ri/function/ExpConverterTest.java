@@ -80,4 +80,14 @@ public class ExpConverterTest {
     assertEquals(new LogConverter(10.), expConverterBase10.inverse());
     assertEquals(new LogConverter(Math.E), expConverter.inverse());
   }
+
+  @Test
+  public void testConvertArray() {
+    float[] src = { 0, 1, 2 };
+    float[] dst = new float[3];
+    new ExpConverter(10.).convert(src, 0, dst, 0, 3);
+    assertEquals(1f, dst[0], 1e-6f);
+    assertEquals(10f, dst[1], 1e-5f);
+    assertEquals(100f, dst[2], 1e-4f);
+  }
 }
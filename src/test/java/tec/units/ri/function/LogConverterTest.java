@@ -80,4 +80,14 @@ public class LogConverterTest {
     assertEquals(new ExpConverter(10.), logConverterBase10.inverse());
     assertEquals(new ExpConverter(Math.E), logConverter.inverse());
   }
+
+  @Test
+  public void testConvertArray() {
+    double[] values = { 1, 10, 100, 1000 };
+    logConverterBase10.convert(values, 1, values, 1, 3);
+    assertEquals(1, values[0], 0);
+    assertEquals(1, values[1], 1e-12);
+    assertEquals(2, values[2], 1e-12);
+    assertEquals(3, values[3], 1e-12);
+  }
 }
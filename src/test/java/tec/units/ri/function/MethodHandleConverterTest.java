@@ -0,0 +1,89 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.function;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.*;
+import static tec.units.ri.unit.Units.*;
+
+import javax.measure.UnitConverter;
+
+import org.junit.Test;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.AbstractUnit;
+
+public class MethodHandleConverterTest {
+
+  @Test
+  public void testConvert() {
+    UnitConverter converter = new AddConverter(1).concatenate(new LogConverter(10).concatenate(new MultiplyConverter(2).concatenate(RationalConverter
+        .of(1, 1000))));
+    AbstractConverter specialized = MethodHandleConverter.of(converter);
+    for (double value : new double[] { 1, 500, 123456.789 }) {
+      assertEquals(converter.convert(value), specialized.convert(value), 1e-12);
+    }
+    assertEquals(converter.isLinear(), specialized.isLinear());
+  }
+
+  @Test
+  public void testExpAndAffine() {
+    UnitConverter converter = new ExpConverter(2).concatenate(new AffineConverter(3, 1));
+    AbstractConverter specialized = MethodHandleConverter.of(converter);
+    assertEquals(converter.convert(2.5), specialized.convert(2.5), 1e-12);
+    assertEquals(2.5, specialized.inverse().convert(specialized.convert(2.5)), 1e-12);
+  }
+
+  @Test
+  public void testIdentityAndEquality() {
+    assertSame(AbstractConverter.IDENTITY, MethodHandleConverter.of(AbstractConverter.IDENTITY));
+    MultiplyConverter multiply = new MultiplyConverter(3);
+    AbstractConverter specialized = MethodHandleConverter.of(multiply);
+    assertSame(specialized, MethodHandleConverter.of(specialized));
+    assertEquals(MethodHandleConverter.of(new MultiplyConverter(3)), specialized);
+    assertEquals(multiply, ((MethodHandleConverter) specialized).getConverter());
+    assertEquals(6, specialized.convert(2), 0);
+  }
+
+  @Test
+  public void testSpecializedConverters() {
+    assertFalse(AbstractUnit.isSpecializedConverters());
+    AbstractUnit.setSpecializedConverters(true);
+    try {
+      UnitConverter converter = MILLI(CELSIUS).getConverterTo(KILO(KELVIN));
+      assertTrue(converter instanceof MethodHandleConverter);
+      assertEquals(0.27415, converter.convert(1000.0), 1e-12);
+      assertEquals(1000.0, converter.inverse().convert(0.27415), 1e-9);
+    } finally {
+      AbstractUnit.setSpecializedConverters(false);
+    }
+    assertFalse(MILLI(CELSIUS).getConverterTo(KILO(KELVIN)) instanceof MethodHandleConverter);
+  }
+}
@@ -88,4 +88,22 @@ public class MultiplyConverterTest {
   public void toStringTest() {
     assertEquals("MultiplyConverter(2.0)", converter.toString());
   }
+
+  @Test
+  public void testConvertArray() {
+    double[] src = { 1, 2, 3, 4 };
+    double[] dst = new double[5];
+    converter.convert(src, 1, dst, 2, 3);
+    assertArrayEquals(new double[] { 0, 0, 4, 6, 8 }, dst, 0);
+    converter.convert(src);
+    assertArrayEquals(new double[] { 2, 4, 6, 8 }, src, 0);
+    float[] floats = { 1.5f, -2f };
+    converter.convert(floats);
+    assertArrayEquals(new float[] { 3f, -4f }, floats, 0f);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testConvertArrayOutOfBounds() {
+    converter.convert(new double[3], 1, new double[3], 0, 3);
+  }
 }
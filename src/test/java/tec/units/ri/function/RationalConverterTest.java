@@ -0,0 +1,115 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.function;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.unit.MetricPrefix;
+
+public class RationalConverterTest {
+
+  @Test
+  public void testNormalization() {
+    RationalConverter converter = RationalConverter.of(2, 4);
+    assertEquals(RationalConverter.of(1, 2), converter);
+    assertEquals(RationalConverter.of(1, 2).hashCode(), converter.hashCode());
+    assertEquals(BigInteger.ONE, converter.getExactDividend());
+    assertEquals(BigInteger.valueOf(2), converter.getExactDivisor());
+    assertEquals(RationalConverter.of(3048, 10000), RationalConverter.of(0.3048, 1d));
+    assertFalse(RationalConverter.of(1, 2).equals(RationalConverter.of(1, 3)));
+    assertFalse(RationalConverter.of(1, 2).hashCode() == RationalConverter.of(1, 3).hashCode());
+  }
+
+  @Test
+  public void testConvert() {
+    RationalConverter converter = RationalConverter.of(1, 3);
+    assertEquals(1.0 / 3.0, converter.convert(1.0), 0);
+    assertEquals(1.0 / 3.0, converter.getAsDouble(), 0);
+    assertEquals(1e-24, MetricPrefix.YOCTO.getConverter().convert(1.0), 0);
+    assertEquals(1e24, MetricPrefix.YOTTA.getConverter().convert(1.0), 0);
+  }
+
+  @Test
+  public void testConcatenateExact() {
+    assertSame(AbstractConverter.IDENTITY, MetricPrefix.YOTTA.getConverter().concatenate(MetricPrefix.YOCTO.getConverter()));
+    assertEquals(RationalConverter.of(1000, 1), MetricPrefix.ZETTA.getConverter().concatenate(MetricPrefix.EXA.getConverter().inverse()));
+    assertEquals(RationalConverter.of(3600000, 1), RationalConverter.of(3600, 1).concatenate(RationalConverter.of(1000, 1)));
+  }
+
+  @Test
+  public void testBigFallback() {
+    RationalConverter converter = RationalConverter.of(BigInteger.TEN.pow(30), BigInteger.valueOf(3));
+    assertEquals(BigInteger.TEN.pow(30), converter.getExactDividend());
+    assertEquals(1e30 / 3, converter.convert(1.0), 1e15);
+    assertEquals(RationalConverter.of(BigInteger.valueOf(3), BigInteger.TEN.pow(30)), converter.inverse());
+    assertEquals(RationalConverter.of(-3, 2).inverse(), RationalConverter.of(-2, 3));
+  }
+
+  @Test
+  public void testConvertExact() {
+    assertEquals(3000, RationalConverter.of(1000, 1).convertExact(3));
+    assertEquals(3, RationalConverter.of(1, 1000).convertExact(3000));
+    assertEquals(1000, ((RationalConverter) MetricPrefix.PETA.getConverter()).convertExact(1)
+        / ((RationalConverter) MetricPrefix.TERA.getConverter()).convertExact(1));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testConvertExactInexact() {
+    RationalConverter.of(1, 1000).convertExact(3);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testConvertExactOverflow() {
+    ((RationalConverter) MetricPrefix.EXA.getConverter()).convertExact(100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIdentity() {
+    RationalConverter.of(3, 3);
+  }
+
+  @Test
+  public void toStringTest() {
+    assertEquals("RationalConverter(1,1000)", MetricPrefix.MILLI.getConverter().toString());
+  }
+
+  @Test
+  public void testConvertLong() {
+    assertEquals(3, RationalConverter.of(1, 1000).convertLong(3999));
+    assertEquals(-3, RationalConverter.of(1, 1000).convertLong(-3999));
+    assertEquals(7, RationalConverter.of(3, 2).convertLong(5));
+    assertEquals(Long.MAX_VALUE / 1000 * 1000, RationalConverter.of(1000, 1).convertLong(Long.MAX_VALUE / 1000));
+  }
+}
@@ -30,6 +30,7 @@
 package tec.units.ri.quantity;
 
 import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.KILO;
 import static tec.units.ri.unit.Units.METRE;
 
 import javax.measure.Quantity;
@@ -38,6 +39,8 @@ import javax.measure.quantity.Length;
 import org.junit.Before;
 import org.junit.Test;
 
+import tec.units.ri.AbstractQuantity;
+
 public class ArithmeticTest {
 
   private Quantity<Length> sut;
@@ -75,4 +78,68 @@ public class ArithmeticTest {
     assertEquals((double) 5, result.getValue());
   }
 
+  @Test
+  public void testMixedUnits() {
+    Quantity<Length> km = NumberQuantity.of(1.5, KILO(METRE));
+    assertEquals(1510d, NumberQuantity.of(10d, METRE).add(km).getValue());
+    assertEquals(1510L, NumberQuantity.of(10L, METRE).add(km).getValue());
+    assertEquals(-1490, NumberQuantity.of(10, METRE).subtract(km).getValue());
+    assertTrue(((AbstractQuantity<Length>) km).compareTo(NumberQuantity.of(1500, METRE)) == 0);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testIntegerAddOverflow() {
+    NumberQuantity.of(Integer.MAX_VALUE, METRE).add(NumberQuantity.of(1, METRE));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testIntegerOperandOverflow() {
+    NumberQuantity.of(1, METRE).subtract(NumberQuantity.of(1L << 32, METRE));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testIntegerMultiplyOverflow() {
+    NumberQuantity.of(1 << 16, METRE).multiply(NumberQuantity.of(1 << 16, METRE));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testShortOperandOverflow() {
+    NumberQuantity.of((short) 1, METRE).add(NumberQuantity.of(1 << 16, METRE));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testLongAddOverflow() {
+    NumberQuantity.of(Long.MAX_VALUE, METRE).add(NumberQuantity.of(1L, METRE));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testLongMultiplyOverflow() {
+    NumberQuantity.of(1L << 32, METRE).multiply(NumberQuantity.of(1L << 32, METRE));
+  }
+
+  @Test
+  public void testLongArithmetic() {
+    Quantity<Length> l = NumberQuantity.of(3L, METRE);
+    assertEquals(-1L, l.subtract(NumberQuantity.of(4L, METRE)).getValue());
+    Quantity<?> area = l.multiply(NumberQuantity.of(2L, METRE));
+    assertEquals(6L, area.getValue());
+    assertEquals(METRE.multiply(METRE), area.getUnit());
+    assertEquals(3L << 40, l.multiply(1L << 40).getValue());
+  }
+
+  @Test
+  public void testShortArithmetic() {
+    Quantity<Length> s = NumberQuantity.of(Short.MAX_VALUE, METRE);
+    assertEquals(Short.MAX_VALUE + 1, s.add(NumberQuantity.of((short) 1, METRE)).getValue());
+    assertEquals(Short.MAX_VALUE * 2, s.multiply(2).getValue());
+  }
+
+  @Test
+  public void testPrimitiveValues() {
+    AbstractQuantity<Length> q = NumberQuantity.of(2.5, METRE);
+    assertEquals(2.5, q.doubleValue(), 0);
+    assertEquals(2L, q.longValue());
+    assertEquals(2500d, AbstractQuantity.doubleValueOf(q, METRE.divide(1000)), 1E-9);
+    assertEquals("2.5 m", q.toString());
+  }
 }
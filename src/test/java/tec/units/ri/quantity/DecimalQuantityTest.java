@@ -0,0 +1,200 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.KILO;
+import static tec.units.ri.unit.MetricPrefix.MILLI;
+import static tec.units.ri.unit.Units.CELSIUS;
+import static tec.units.ri.unit.Units.CUBIC_METRE;
+import static tec.units.ri.unit.Units.HOUR;
+import static tec.units.ri.unit.Units.JOULE;
+import static tec.units.ri.unit.Units.KELVIN;
+import static tec.units.ri.unit.Units.LITRE;
+import static tec.units.ri.unit.Units.METRE;
+import static tec.units.ri.unit.Units.MINUTE;
+import static tec.units.ri.unit.Units.WATT;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Temperature;
+import javax.measure.quantity.Time;
+import javax.measure.quantity.Volume;
+
+import org.junit.Test;
+
+public class DecimalQuantityTest {
+
+  @Test
+  public void testParseAndFormat() {
+    DecimalQuantity<Length> quantity = DecimalQuantity.of("-12.050", METRE);
+    assertEquals(-12050L, quantity.getUnscaledValue());
+    assertEquals(3, quantity.getScale());
+    assertEquals(new BigDecimal("-12.050"), quantity.getValue());
+    assertEquals("-12.050 m", quantity.toString());
+    assertEquals("0.005 m", DecimalQuantity.of(5, 3, METRE).toString());
+    assertEquals("-0.05 m", DecimalQuantity.of(-5, 2, METRE).toString());
+    assertEquals("42 m", DecimalQuantity.of("+42", METRE).toString());
+    assertEquals(Long.MIN_VALUE, DecimalQuantity.of(Long.toString(Long.MIN_VALUE), METRE).getUnscaledValue());
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testParseExponent() {
+    DecimalQuantity.of("1e3", METRE);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testParseOverflow() {
+    DecimalQuantity.of("9223372036854775808", METRE);
+  }
+
+  @Test
+  public void testAdd() {
+    Quantity<Length> sum = DecimalQuantity.of("0.1", METRE).add(DecimalQuantity.of("0.2", METRE));
+    assertEquals(DecimalQuantity.of("0.3", METRE), sum);
+    Quantity<Length> mixed = DecimalQuantity.of("1.25", KILO(METRE)).add(DecimalQuantity.of("0.005", METRE));
+    assertEquals(new BigDecimal("1.250005"), mixed.getValue());
+    assertEquals(KILO(METRE), mixed.getUnit());
+    assertEquals(new BigDecimal("3.5"), DecimalQuantity.of("0.5", METRE).add(NumberQuantity.of(3, METRE)).getValue());
+    assertEquals(new BigDecimal("-2.75"), DecimalQuantity.of("0.25", METRE).subtract(NumberQuantity.of(3L, METRE)).getValue());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testAddOverflow() {
+    DecimalQuantity.of(Long.MAX_VALUE, 0, METRE).add(DecimalQuantity.of(1, 0, METRE));
+  }
+
+  @Test
+  public void testMultiply() {
+    DecimalQuantity<Energy> energy = DecimalQuantity.of("12.345", JOULE);
+    assertEquals(new BigDecimal("37.035"), energy.multiply(3).getValue());
+    Quantity<?> product = energy.multiply(DecimalQuantity.of("0.5", METRE));
+    assertEquals(new BigDecimal("6.1725"), product.getValue());
+    assertEquals(JOULE.multiply(METRE), product.getUnit());
+    DecimalQuantity<?> rounded = energy.multiply(DecimalQuantity.of("0.5", METRE), 2, RoundingMode.HALF_EVEN);
+    assertEquals(new BigDecimal("6.17"), rounded.getValue());
+    assertEquals(new BigDecimal("6.18"), energy.multiply(DecimalQuantity.of("0.5", METRE), 2, RoundingMode.CEILING).getValue());
+    assertEquals(new BigDecimal("-6.18"), energy.multiply(DecimalQuantity.of("-0.5", METRE), 2, RoundingMode.FLOOR).getValue());
+  }
+
+  @Test
+  public void testSetScale() {
+    DecimalQuantity<Length> quantity = DecimalQuantity.of("2.345", METRE);
+    assertEquals(new BigDecimal("2.34"), quantity.setScale(2, RoundingMode.HALF_EVEN).getValue());
+    assertEquals(new BigDecimal("2.35"), quantity.setScale(2, RoundingMode.HALF_UP).getValue());
+    assertEquals(new BigDecimal("2.34500"), quantity.setScale(5, RoundingMode.UNNECESSARY).getValue());
+    assertEquals(new BigDecimal("-2.35"), DecimalQuantity.of("-2.345", METRE).setScale(2, RoundingMode.HALF_UP).getValue());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testSetScaleUnnecessary() {
+    DecimalQuantity.of("2.345", METRE).setScale(2, RoundingMode.UNNECESSARY);
+  }
+
+  @Test
+  public void testTo() {
+    Quantity<Volume> volume = DecimalQuantity.of("1.5", LITRE).to(CUBIC_METRE);
+    assertEquals(new BigDecimal("0.0015"), volume.getValue());
+    Quantity<Energy> energy = DecimalQuantity.of("12.5", KILO(WATT).multiply(HOUR).asType(Energy.class)).to(JOULE);
+    assertEquals(new BigDecimal("45000000.0"), energy.getValue());
+    assertEquals(new BigDecimal("0.00125"), DecimalQuantity.of("1.25", MILLI(METRE)).to(METRE).getValue());
+    Quantity<Time> hours = DecimalQuantity.of("1", MINUTE).to(HOUR);
+    assertFalse(hours instanceof DecimalQuantity);
+    assertEquals(Double.valueOf(1d / 60), hours.getValue());
+    Quantity<Temperature> kelvin = DecimalQuantity.of("20", CELSIUS).to(KELVIN);
+    assertEquals(293.15, kelvin.getValue().doubleValue(), 1e-9);
+  }
+
+  @Test
+  public void testToScale() {
+    assertEquals(new BigDecimal("0.016667"), DecimalQuantity.of("1", MINUTE).to(HOUR, 6, RoundingMode.HALF_EVEN).getValue());
+    assertEquals(new BigDecimal("0.016666"), DecimalQuantity.of("1", MINUTE).to(HOUR, 6, RoundingMode.DOWN).getValue());
+    assertEquals(new BigDecimal("0.00150"), DecimalQuantity.of("1.5", LITRE).to(CUBIC_METRE, 5, RoundingMode.UNNECESSARY).getValue());
+    assertEquals(new BigDecimal("293.15"), DecimalQuantity.of("20", CELSIUS).to(KELVIN, 2, RoundingMode.HALF_EVEN).getValue());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testToScaleUnnecessary() {
+    DecimalQuantity.of("1", MINUTE).to(HOUR, 18, RoundingMode.UNNECESSARY);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testMultiplyScaleExceeded() {
+    DecimalQuantity.of("0.0000000001", METRE).multiply(DecimalQuantity.of("0.000000001", METRE));
+  }
+
+  @Test
+  public void testMultiplyScaleRounded() {
+    DecimalQuantity<?> product = DecimalQuantity.of("0.0000000001", METRE).multiply(DecimalQuantity.of("0.000000005", METRE), 18,
+        RoundingMode.HALF_UP);
+    assertEquals(new BigDecimal("0.000000000000000001"), product.getValue());
+  }
+
+  @Test
+  public void testPrimitiveValues() {
+    DecimalQuantity<Length> quantity = DecimalQuantity.of("-2.75", KILO(METRE));
+    assertEquals(-2.75, quantity.doubleValue(), 0);
+    assertEquals(-2L, quantity.longValue());
+    assertEquals(-2750d, quantity.doubleValue(METRE), 0);
+    assertEquals(-2750L, quantity.longValue(METRE));
+  }
+
+  @Test
+  public void testQuantities() {
+    Quantity<Length> quantity = Quantities.getQuantity(new BigDecimal("1.20"), METRE);
+    assertTrue(quantity instanceof DecimalQuantity);
+    assertEquals(DecimalQuantity.of(120, 2, METRE), quantity);
+    assertEquals(quantity, Quantities.getQuantity(120, 2, METRE));
+    assertEquals(new NumberQuantity<Length>(new BigDecimal("1.20"), METRE), quantity);
+    assertEquals(new NumberQuantity<Length>(new BigDecimal("1.20"), METRE).hashCode(), quantity.hashCode());
+    assertFalse(Quantities.getQuantity(new BigDecimal("1e-30"), METRE) instanceof DecimalQuantity);
+  }
+
+  @Test
+  public void testHashCode() {
+    long[] values = { 0, 1, -1, 15, 150, Integer.MAX_VALUE, 1L << 32, -(1L << 40) - 7, Long.MAX_VALUE, Long.MIN_VALUE };
+    for (long value : values) {
+      for (int scale = 0; scale <= DecimalQuantity.MAX_SCALE; scale += 6) {
+        DecimalQuantity<Length> quantity = DecimalQuantity.of(value, scale, METRE);
+        assertEquals(METRE.hashCode() + BigDecimal.valueOf(value, scale).hashCode(), quantity.hashCode());
+      }
+    }
+  }
+
+  @Test
+  public void testEqualsScale() {
+    assertFalse(DecimalQuantity.of("1.5", METRE).equals(DecimalQuantity.of("1.50", METRE)));
+    assertEquals(DecimalQuantity.of("1.5", METRE), DecimalQuantity.of("1.50", METRE).setScale(1, RoundingMode.UNNECESSARY));
+  }
+}
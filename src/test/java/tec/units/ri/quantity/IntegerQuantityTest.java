@@ -31,8 +31,10 @@ package tec.units.ri.quantity;
 
 import static org.junit.Assert.assertEquals;
 import javax.measure.Quantity;
+import javax.measure.Unit;
 import javax.measure.quantity.ElectricResistance;
 import javax.measure.quantity.Time;
+import javax.measure.quantity.Volume;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -100,4 +102,28 @@ public class IntegerQuantityTest {
     Assert.assertEquals(dayResult.getValue().intValue(), day.getValue().intValue());
     Assert.assertEquals(dayResult.getValue().intValue(), day.getValue().intValue());
   }
+
+  @Test
+  public void valueOfCacheTest() {
+    Assert.assertSame(NumberQuantity.of(1, Units.METRE), NumberQuantity.of(1, Units.METRE));
+    Assert.assertSame(NumberQuantity.of(-128, Units.OHM), NumberQuantity.of(-128, Units.OHM));
+    Assert.assertNotSame(NumberQuantity.of(128, Units.METRE), NumberQuantity.of(128, Units.METRE));
+    Assert.assertNotSame(NumberQuantity.of(1, Units.METRE.multiply(Units.OHM)), NumberQuantity.of(1, Units.METRE.multiply(Units.OHM)));
+    assertEquals(Integer.valueOf(127), NumberQuantity.of(127, Units.SECOND).getValue());
+    assertEquals(Units.SECOND, NumberQuantity.of(127, Units.SECOND).getUnit());
+  }
+
+  @Test
+  public void getQuantityCacheTest() {
+    Assert.assertSame(NumberQuantity.of(1, Units.METRE), Quantities.getQuantity(Integer.valueOf(1), Units.METRE));
+    Assert.assertSame(Quantities.getQuantity(Integer.valueOf(-1), Units.SECOND), Quantities.getQuantity(Integer.valueOf(-1), Units.SECOND));
+  }
+
+  @Test
+  public void valueOfEqualUnitTest() {
+    Unit<Volume> litre = Units.CUBIC_METRE.divide(1000); // Equal to LITRE.
+    Assert.assertSame(Units.LITRE, NumberQuantity.of(5, Units.LITRE).getUnit());
+    Assert.assertSame(litre, NumberQuantity.of(5, litre).getUnit());
+    Assert.assertSame(Units.LITRE, NumberQuantity.of(5, Units.LITRE).getUnit());
+  }
 }
@@ -38,6 +38,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import tec.units.ri.quantity.Quantities;
+import tec.units.ri.unit.MetricPrefix;
 import tec.units.ri.unit.Units;
 
 public class LongQuantityTest {
@@ -93,4 +94,35 @@ public class LongQuantityTest {
     Assert.assertEquals(dayResult.getValue().intValue(), day.getValue().intValue());
     Assert.assertEquals(dayResult.getValue().intValue(), day.getValue().intValue());
   }
+
+  @Test
+  public void longValueExactTest() {
+    long millis = 1476576000123L; // Above 2^53 once stated in nanoseconds.
+    LongQuantity<Time> time = new LongQuantity<Time>(millis, MetricPrefix.MILLI(Units.SECOND));
+    assertEquals(millis * 1000000L, time.longValue(MetricPrefix.NANO(Units.SECOND)));
+    assertEquals(millis * 1000L, time.longValue(MetricPrefix.MICRO(Units.SECOND)));
+    assertEquals(1476576000L, time.longValue(Units.SECOND));
+  }
+
+  @Test
+  public void toExactTest() {
+    long millis = 1476576000123L;
+    Quantity<Time> nanos = new LongQuantity<Time>(millis, MetricPrefix.MILLI(Units.SECOND)).to(MetricPrefix.NANO(Units.SECOND));
+    assertEquals(Long.valueOf(millis * 1000000L), nanos.getValue());
+    Quantity<Time> seconds = nanos.to(Units.SECOND);
+    assertEquals(1476576000.123, seconds.getValue().doubleValue(), 1e-6);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void longValueOverflowTest() {
+    new LongQuantity<Time>(Long.MAX_VALUE / 10, Units.SECOND).longValue(MetricPrefix.MILLI(Units.SECOND));
+  }
+
+  @Test
+  public void toResultTypeTest() {
+    assertEquals(Long.valueOf(5000), new IntegerQuantity<Time>(5, Units.SECOND).to(MetricPrefix.MILLI(Units.SECOND)).getValue());
+    assertEquals(Long.valueOf(5000), new ShortQuantity<Time>((short) 5, Units.SECOND).to(MetricPrefix.MILLI(Units.SECOND)).getValue());
+    assertEquals(Double.valueOf(0.005), new LongQuantity<Time>(5, MetricPrefix.MILLI(Units.SECOND)).to(Units.SECOND).getValue());
+    assertEquals(Double.valueOf(0.5), new IntegerQuantity<Time>(30, Units.SECOND).to(Units.MINUTE).getValue());
+  }
 }
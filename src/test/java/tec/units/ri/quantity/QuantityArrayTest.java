@@ -0,0 +1,172 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.KILO;
+import static tec.units.ri.unit.MetricPrefix.MILLI;
+import static tec.units.ri.unit.Units.METRE;
+import static tec.units.ri.unit.Units.SECOND;
+
+import java.util.NoSuchElementException;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Time;
+
+import org.junit.Test;
+
+import tec.units.ri.AbstractQuantity;
+
+public class QuantityArrayTest {
+
+  @Test
+  public void testTo() {
+    QuantityArray<Length> metres = QuantityArray.of(new double[] { 1000, 2500, 0 }, METRE);
+    QuantityArray<Length> km = metres.to(KILO(METRE));
+    assertEquals(KILO(METRE), km.getUnit());
+    assertArrayEquals(new double[] { 1, 2.5, 0 }, km.toArray(), 1e-12);
+    assertSame(metres, metres.to(METRE));
+  }
+
+  @Test
+  public void testArithmetic() {
+    QuantityArray<Length> a = QuantityArray.of(new double[] { 1, 2, 3 }, METRE);
+    QuantityArray<Length> b = QuantityArray.of(new double[] { 1, 1, 1 }, KILO(METRE));
+    assertArrayEquals(new double[] { 1001, 1002, 1003 }, a.add(b).toArray(), 1e-9);
+    assertArrayEquals(new double[] { -999, -998, -997 }, a.subtract(b).toArray(), 1e-9);
+    assertArrayEquals(new double[] { 2, 4, 6 }, a.multiply(2).toArray(), 0);
+    assertArrayEquals(new double[] { 11, 12, 13 }, a.add(NumberQuantity.of(10, METRE)).toArray(), 0);
+    assertEquals(METRE.multiply(KILO(METRE)), a.multiply(b).getUnit());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSizeMismatch() {
+    QuantityArray.of(new double[] { 1, 2 }, METRE).add(QuantityArray.of(new double[] { 1 }, METRE));
+  }
+
+  @Test
+  public void testReductions() {
+    QuantityArray<Length> a = QuantityArray.of(new double[] { 4, -1, 3 }, METRE);
+    assertEquals(6d, AbstractQuantity.doubleValueOf(a.sum()), 0);
+    assertEquals(-1d, AbstractQuantity.doubleValueOf(a.min()), 0);
+    assertEquals(4d, AbstractQuantity.doubleValueOf(a.max()), 0);
+    assertEquals(2d, AbstractQuantity.doubleValueOf(a.mean()), 0);
+    assertEquals(METRE, a.mean().getUnit());
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testEmptyMin() {
+    QuantityArray.of(new double[0], METRE).min();
+  }
+
+  @Test
+  public void testSlice() {
+    double[] values = { 1, 2, 3, 4, 5 };
+    QuantityArray<Length> a = QuantityArray.wrap(values, METRE);
+    QuantityArray<Length> slice = a.slice(1, 4);
+    assertEquals(3, slice.size());
+    assertEquals(9d, AbstractQuantity.doubleValueOf(slice.sum()), 0);
+    slice.set(0, 20);
+    assertEquals(20d, a.get(1), 0);
+    assertEquals(20d, values[1], 0);
+    assertEquals(QuantityArray.of(new double[] { 20, 3, 4 }, METRE), slice);
+  }
+
+  @Test
+  public void testView() {
+    QuantityArray<Length> a = QuantityArray.of(new double[] { 1, 2, 3 }, KILO(METRE));
+    QuantityArray.View<Length> view = a.view();
+    assertSame(view, view.at(2));
+    assertEquals(2, view.index());
+    assertEquals(3d, view.doubleValue(), 0);
+    assertEquals(3000d, view.doubleValue(METRE), 0);
+    assertEquals(KILO(METRE), view.getUnit());
+    Quantity<Length> sum = view.at(0).add(NumberQuantity.of(500, METRE));
+    assertEquals(1.5, AbstractQuantity.doubleValueOf(sum), 1e-12);
+    assertEquals(0, view.at(1).compareTo(NumberQuantity.of(2000, METRE)));
+  }
+
+  @Test
+  public void testLongTo() {
+    LongQuantityArray<Time> seconds = LongQuantityArray.of(new long[] { 1, 2, 3 }, SECOND);
+    assertArrayEquals(new long[] { 1000, 2000, 3000 }, seconds.to(MILLI(SECOND)).toArray());
+    LongQuantityArray<Time> millis = LongQuantityArray.of(new long[] { 1500, -1500 }, MILLI(SECOND));
+    assertArrayEquals(new long[] { 1, -1 }, millis.to(SECOND).toArray());
+    assertArrayEquals(new double[] { 1.5, -1.5 }, millis.toQuantityArray().to(SECOND).toArray(), 1e-12);
+  }
+
+  @Test
+  public void testLongArithmetic() {
+    LongQuantityArray<Time> a = LongQuantityArray.of(new long[] { 1, 2, 3 }, MILLI(SECOND));
+    LongQuantityArray<Time> b = LongQuantityArray.of(new long[] { 1, 1, 1 }, SECOND);
+    assertArrayEquals(new long[] { 1001, 1002, 1003 }, a.add(b).toArray());
+    assertArrayEquals(new long[] { -999, -998, -997 }, a.subtract(b).toArray());
+    assertArrayEquals(new long[] { 3, 6, 9 }, a.multiply(3).toArray());
+    assertEquals(6L, AbstractQuantity.longValueOf(a.sum()));
+    assertEquals(1L, AbstractQuantity.longValueOf(a.min()));
+    assertEquals(3L, AbstractQuantity.longValueOf(a.max()));
+    assertEquals(2d, AbstractQuantity.doubleValueOf(a.mean()), 0);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testLongOverflow() {
+    LongQuantityArray.of(new long[] { Long.MAX_VALUE, 1 }, SECOND).sum();
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testLongMultiplyOverflow() {
+    LongQuantityArray.of(new long[] { Long.MAX_VALUE / 2 + 1 }, SECOND).multiply(2);
+  }
+
+  @Test
+  public void testLongMultiplyQuantity() {
+    LongQuantityArray<Time> a = LongQuantityArray.of(new long[] { 1, 2, 3 }, SECOND);
+    assertArrayEquals(new long[] { 2, 4, 6 }, ((LongQuantityArray<?>) a.multiply(NumberQuantity.of(2.0, METRE))).toArray());
+    assertArrayEquals(new double[] { 0.5, 1, 1.5 }, a.toQuantityArray().multiply(NumberQuantity.of(0.5, METRE)).toArray(), 0);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testLongMultiplyFraction() {
+    LongQuantityArray.of(new long[] { 1, 2, 3 }, SECOND).multiply(NumberQuantity.of(0.5, METRE));
+  }
+
+  @Test
+  public void testLongView() {
+    long[] values = { 10, 20, 30 };
+    LongQuantityArray<Time> a = LongQuantityArray.wrap(values, SECOND);
+    LongQuantityArray.View<Time> view = a.slice(1, 3).view();
+    assertEquals(20L, view.longValue());
+    assertEquals(Long.valueOf(30), view.at(1).getValue());
+    values[2] = 31;
+    assertEquals(31L, view.longValue());
+    assertEquals(31000L, AbstractQuantity.longValueOf(view.to(MILLI(SECOND))));
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.KILO;
+import static tec.units.ri.unit.Units.CELSIUS;
+import static tec.units.ri.unit.Units.KELVIN;
+import static tec.units.ri.unit.Units.METRE;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.measure.UnconvertibleException;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Temperature;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import tec.units.ri.AbstractQuantity;
+
+public class QuantityBufferTest {
+
+  private Path file;
+
+  @Before
+  public void init() throws IOException {
+    file = Files.createTempFile("quantity", ".qb");
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testAppend() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(METRE, 4);
+    assertEquals(0, buffer.size());
+    assertEquals(4, buffer.capacity());
+    buffer.append(1.5);
+    buffer.append(NumberQuantity.of(2, KILO(METRE)));
+    buffer.append(new double[] { 0, 3, 4 }, 1, 2);
+    assertEquals(4, buffer.size());
+    assertEquals(2000d, buffer.get(1), 0);
+    assertEquals(4d, AbstractQuantity.doubleValueOf(buffer.getQuantity(3)), 0);
+    buffer.set(0, 1);
+    assertArrayEquals(new double[] { 1, 2000, 3, 4 }, buffer.toQuantityArray().toArray(), 0);
+  }
+
+  @Test(expected = BufferOverflowException.class)
+  public void testOverflow() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(METRE, 1);
+    buffer.append(1);
+    buffer.append(2);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testIndexBeyondSize() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(METRE, 4);
+    buffer.append(1);
+    buffer.get(1);
+  }
+
+  @Test
+  public void testSlice() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(METRE, 8);
+    buffer.append(new double[] { 1, 2, 3, 4, 5 }, 0, 5);
+    QuantityBuffer<Length> slice = buffer.slice(1, 4);
+    assertEquals(3, slice.size());
+    assertEquals(2d, slice.get(0), 0);
+    slice.set(2, 40);
+    assertEquals(40d, buffer.get(3), 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSliceAppend() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(METRE, 8);
+    buffer.append(1);
+    buffer.slice(0, 1).append(2);
+  }
+
+  @Test
+  public void testConvertTo() {
+    QuantityBuffer<Temperature> celsius = QuantityBuffer.allocateDirect(CELSIUS, 3000);
+    for (int i = 0; i < 3000; i++) {
+      celsius.append(i);
+    }
+    QuantityBuffer<Temperature> kelvin = QuantityBuffer.allocateDirect(KELVIN, 3000);
+    celsius.convertTo(kelvin);
+    assertEquals(3000, kelvin.size());
+    assertEquals(273.15, kelvin.get(0), 1e-9);
+    assertEquals(3272.15, kelvin.get(2999), 1e-9);
+  }
+
+  @Test
+  public void testPersistence() throws IOException {
+    QuantityBuffer<Length> buffer = QuantityBuffer.create(file, KILO(METRE), 16);
+    buffer.append(1.25);
+    buffer.append(2.5);
+    buffer.force();
+    QuantityBuffer<Length> reopened = QuantityBuffer.open(file, METRE);
+    assertEquals(KILO(METRE), reopened.getUnit());
+    assertEquals(2, reopened.size());
+    assertEquals(16, reopened.capacity());
+    assertEquals(2.5, reopened.get(1), 0);
+    reopened.append(5);
+    assertEquals(3, QuantityBuffer.open(file, METRE).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCreateUnparsableUnit() throws IOException {
+    QuantityBuffer.create(file, KELVIN, 1); // "K" is not a parsable ASCII symbol.
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityTooLarge() {
+    QuantityBuffer.allocateDirect(METRE, Integer.MAX_VALUE / 8);
+  }
+
+  @Test(expected = UnconvertibleException.class)
+  public void testOpenIncompatible() throws IOException {
+    QuantityBuffer.create(file, METRE, 1);
+    QuantityBuffer.open(file, KELVIN);
+  }
+}
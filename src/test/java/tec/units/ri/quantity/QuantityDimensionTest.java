@@ -0,0 +1,114 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.quantity.QuantityDimension.*;
+import static tec.units.ri.unit.Units.*;
+
+import java.util.Map;
+
+import javax.measure.Dimension;
+import javax.measure.quantity.Speed;
+
+import org.junit.Test;
+
+public class QuantityDimensionTest {
+
+  @Test
+  public void testAlgebraIsInterned() {
+    Dimension speed = LENGTH.divide(TIME);
+    assertSame(speed, LENGTH.divide(TIME));
+    assertSame(speed, LENGTH.multiply(TIME.pow(-1)));
+    assertSame(speed, METRE.divide(SECOND).getDimension());
+    assertSame(speed, QuantityDimension.getInstance(Speed.class));
+    assertSame(NONE, LENGTH.divide(LENGTH));
+    assertSame(LENGTH, LENGTH.pow(2).root(2));
+    assertSame(LENGTH, QuantityDimension.getInstance('L'));
+  }
+
+  @Test
+  public void testRationalExponents() {
+    Dimension sqrtLength = LENGTH.root(2);
+    assertNotSame(LENGTH, sqrtLength);
+    assertSame(LENGTH, sqrtLength.multiply(sqrtLength));
+    assertSame(TIME.pow(-1), TIME.root(-1));
+  }
+
+  @Test
+  public void testProductDimensions() {
+    assertNull(LENGTH.getProductDimensions());
+    assertTrue(NONE.getProductDimensions().isEmpty());
+    Map<? extends Dimension, Integer> dimensions = MASS.multiply(LENGTH.pow(2)).divide(TIME.pow(3)).getProductDimensions();
+    assertEquals(3, dimensions.size());
+    assertEquals(Integer.valueOf(1), dimensions.get(MASS));
+    assertEquals(Integer.valueOf(2), dimensions.get(LENGTH));
+    assertEquals(Integer.valueOf(-3), dimensions.get(TIME));
+  }
+
+  @Test
+  public void testCustomDimension() {
+    Dimension custom = QuantityDimension.getInstance('a');
+    assertSame(custom, QuantityDimension.getInstance('a'));
+    assertNull(custom.getProductDimensions());
+    Dimension product = custom.multiply(LENGTH);
+    assertEquals(product, LENGTH.multiply(custom));
+    assertSame(LENGTH, product.divide(custom));
+    assertFalse(custom.equals(LENGTH));
+  }
+
+  @Test
+  public void testOverflow() {
+    Dimension big = LENGTH.pow(100).multiply(LENGTH.pow(100));
+    assertEquals(LENGTH.pow(200), big);
+    assertSame(LENGTH.pow(10), big.divide(LENGTH.pow(190)));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testExponentOverflow() {
+    LENGTH.pow(2).pow(Integer.MAX_VALUE);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testRootOverflow() {
+    LENGTH.root(2).root(Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testCustomIsInterned() {
+    assertSame(QuantityDimension.getInstance('X'), QuantityDimension.getInstance('X'));
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("[L]", LENGTH.toString());
+    assertEquals("[L]/[T]", LENGTH.divide(TIME).toString());
+  }
+}
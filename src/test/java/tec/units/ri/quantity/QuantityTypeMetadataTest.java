@@ -0,0 +1,76 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.quantity;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.Units.*;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Speed;
+
+import org.junit.Test;
+
+public class QuantityTypeMetadataTest {
+
+  @Test
+  public void testMetadata() {
+    QuantityTypeMetadata<Speed> metadata = QuantityTypeMetadata.of(Speed.class);
+    assertSame(metadata, QuantityTypeMetadata.of(Speed.class));
+    assertEquals(Speed.class, metadata.getType());
+    assertEquals(METRES_PER_SECOND, metadata.getSystemUnit());
+    assertSame(METRES_PER_SECOND.getDimension(), metadata.getDimension());
+    assertSame(metadata.getDimension(), QuantityDimension.getInstance(Speed.class));
+  }
+
+  private interface Unknown extends Quantity<Unknown> {
+  }
+
+  @Test
+  public void testUnknownType() {
+    QuantityTypeMetadata<Unknown> metadata = QuantityTypeMetadata.of(Unknown.class);
+    assertNull(metadata.getSystemUnit());
+    assertNull(metadata.getDimension());
+    assertSame(metadata, QuantityTypeMetadata.of(Unknown.class));
+  }
+
+  @Test
+  public void testFactory() {
+    assertSame(DefaultQuantityFactory.getInstance(Length.class), DefaultQuantityFactory.getInstance(Length.class));
+    assertEquals(METRE, DefaultQuantityFactory.getInstance(Length.class).getSystemUnit());
+  }
+
+  @Test
+  public void testCreate() {
+    Quantity<Length> length = QuantityTypeMetadata.of(Length.class).create(2.5, METRE);
+    assertEquals(2.5d, length.getValue());
+    assertEquals(METRE, length.getUnit());
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.spi;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.*;
+import static tec.units.ri.unit.Units.*;
+
+import javax.measure.IncommensurableException;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import org.junit.After;
+import org.junit.Test;
+
+import tec.units.ri.AbstractConverter;
+import tec.units.ri.AbstractUnit;
+import tec.units.ri.function.MultiplyConverter;
+
+public class ConverterCacheTest {
+
+  @After
+  public void tearDown() {
+    ConverterCache.getInstance().setNegativeCaching(false);
+  }
+
+  @Test
+  public void testGetPut() throws IncommensurableException {
+    ConverterCache cache = new ConverterCache(10);
+    assertNull(cache.get(METRE, KILO(METRE), null));
+    cache.put(METRE, KILO(METRE), null, new MultiplyConverter(0.001));
+    assertEquals(new MultiplyConverter(0.001), cache.get(METRE, KILO(METRE), null));
+    assertNull(cache.get(KILO(METRE), METRE, null));
+    assertNull(cache.get(METRE, KILO(METRE), DimensionalModel.current()));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testEviction() throws IncommensurableException {
+    ConverterCache cache = new ConverterCache(2);
+    cache.put(METRE, KILO(METRE), null, new MultiplyConverter(0.001));
+    cache.put(METRE, MILLI(METRE), null, new MultiplyConverter(1000));
+    cache.get(METRE, KILO(METRE), null); // Referenced, gets a second chance.
+    cache.put(METRE, CENTI(METRE), null, new MultiplyConverter(100));
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNotNull(cache.get(METRE, KILO(METRE), null));
+    assertNull(cache.get(METRE, MILLI(METRE), null));
+    cache.setCapacity(0);
+    assertEquals(0, cache.size());
+    cache.put(METRE, MILLI(METRE), null, new MultiplyConverter(1000));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testNegativeEntries() {
+    ConverterCache cache = new ConverterCache(10);
+    cache.putIncommensurable(METRE, SECOND, null, "m is not compatible with s");
+    assertEquals(0, cache.size());
+    cache.setNegativeCaching(true);
+    cache.putIncommensurable(METRE, SECOND, null, "m is not compatible with s");
+    try {
+      cache.get(METRE, SECOND, null);
+      fail("IncommensurableException expected");
+    } catch (IncommensurableException e) {
+      assertEquals("m is not compatible with s", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGetConverterToIsCached() {
+    ConverterCache cache = ConverterCache.getInstance();
+    UnitConverter converter = KILO(METRE).getConverterTo(MILLI(METRE));
+    long hits = cache.getHitCount();
+    assertSame(converter, KILO(METRE).getConverterTo(MILLI(METRE)));
+    assertEquals(hits + 1, cache.getHitCount());
+  }
+
+  @Test
+  public void testGetConverterToAnyNegative() {
+    ConverterCache cache = ConverterCache.getInstance();
+    cache.setNegativeCaching(true);
+    AbstractUnit<?> metre = (AbstractUnit<?>) METRE;
+    for (int i = 0; i < 2; i++) {
+      try {
+        metre.getConverterToAny(SECOND);
+        fail("IncommensurableException expected");
+      } catch (IncommensurableException e) {
+        assertEquals("m is not compatible with s", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testStatisticsFromThreads() throws Exception {
+    final ConverterCache cache = new ConverterCache(10);
+    cache.put(METRE, KILO(METRE), null, new MultiplyConverter(0.001));
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            try {
+              cache.get(METRE, KILO(METRE), null);
+              cache.get(KILO(METRE), METRE, null);
+            } catch (IncommensurableException e) {
+              throw new AssertionError(e);
+            }
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(4000, cache.getHitCount());
+    assertEquals(4000, cache.getMissCount());
+    cache.resetStatistics();
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  public void testSizeFromThreads() throws Exception {
+    final ConverterCache cache = new ConverterCache(2);
+    final Unit<?>[] targets = { KILO(METRE), MILLI(METRE), CENTI(METRE), MICRO(METRE), NANO(METRE), DECI(METRE) };
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < 10000; j++) {
+            cache.put(((j & 1) == 0) ? METRE : GRAM, targets[j % targets.length], null, AbstractConverter.IDENTITY);
+            if (j % 1000 == 0)
+              cache.clear();
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(cache.size() <= 2);
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+}
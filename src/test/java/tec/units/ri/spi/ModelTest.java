@@ -36,6 +36,7 @@ import javax.measure.UnitConverter;
 
 import org.junit.Test;
 
+import tec.units.ri.function.RationalConverter;
 import tec.units.ri.quantity.QuantityDimension;
 
 public class ModelTest {
@@ -70,4 +71,45 @@ public class ModelTest {
     Dimension fund = model.getFundamentalDimension(dim);
     assertNotNull(fund);
   }
+
+  @Test
+  public void testStandardRegistered() {
+    assertNotNull(DimensionalModel.getModel(DimensionalModel.STANDARD));
+    assertTrue(DimensionalModel.getModelNames().contains(DimensionalModel.STANDARD));
+  }
+
+  @Test
+  public void testFundamentalDimensionOfProduct() {
+    DimensionalModel model = new TestModel();
+    Dimension speed = QuantityDimension.LENGTH.divide(QuantityDimension.TIME);
+    assertEquals(speed, model.getFundamentalDimension(speed));
+    Dimension dim = QuantityDimension.LENGTH.pow(2).divide(QuantityDimension.TIME);
+    assertEquals(dim, model.getFundamentalDimension(dim));
+  }
+
+  @Test
+  public void testRegisterRelativistic() {
+    DimensionalModel relativistic = new DimensionalModel() {
+      @Override
+      public Dimension getFundamentalDimension(Dimension dimension) {
+        if (dimension.equals(QuantityDimension.LENGTH))
+          return QuantityDimension.TIME;
+        return super.getFundamentalDimension(dimension);
+      }
+
+      @Override
+      public UnitConverter getDimensionalTransform(Dimension dimension) {
+        if (dimension.equals(QuantityDimension.LENGTH))
+          return RationalConverter.of(1, 299792458);
+        return super.getDimensionalTransform(dimension);
+      }
+    };
+    Dimension speed = QuantityDimension.LENGTH.divide(QuantityDimension.TIME);
+    DimensionalModel.register("Relativistic", relativistic, speed);
+    assertSame(relativistic, DimensionalModel.getModel("Relativistic"));
+    assertEquals(QuantityDimension.NONE, relativistic.getFundamentalDimension(speed));
+    UnitConverter transform = relativistic.getDimensionalTransform(speed);
+    assertSame(transform, relativistic.getDimensionalTransform(speed));
+    assertEquals(1, transform.convert(299792458), 1e-9);
+  }
 }
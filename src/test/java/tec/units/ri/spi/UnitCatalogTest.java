@@ -0,0 +1,105 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.spi;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.*;
+import static tec.units.ri.unit.Units.*;
+
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+
+import org.junit.Test;
+
+import tec.units.ri.AbstractSystemOfUnits;
+import tec.units.ri.unit.Units;
+
+public class UnitCatalogTest {
+
+  private final UnitCatalog catalog = UnitCatalog.getInstance();
+
+  @Test
+  public void testRegister() {
+    int id = catalog.getId(METRE);
+    assertTrue(id >= 0);
+    assertEquals(id, catalog.register(METRE));
+    assertSame(METRE, catalog.getUnit(id));
+    int km = catalog.register(KILO(METRE));
+    assertEquals(km, catalog.register(KILO(METRE)));
+    assertTrue(km < catalog.size());
+  }
+
+  @Test
+  public void testSystemUnitsFirst() {
+    for (Unit<?> unit : Units.getInstance().getUnits()) {
+      int id = catalog.getId(unit);
+      assertTrue(id >= 0);
+      assertTrue(id < Units.getInstance().getUnits().size()); // In string order, before any other unit.
+    }
+  }
+
+  @Test
+  public void testNotRegisteredBySystems() {
+    AbstractSystemOfUnits custom = new AbstractSystemOfUnits() {
+      @Override
+      public String getName() {
+        return "Custom";
+      }
+
+      {
+        addUnit(METRE.multiply(1852), "Nautical Mile");
+      }
+    };
+    assertEquals(-1, catalog.getId(custom.getUnits().iterator().next()));
+  }
+
+  @Test
+  public void testLinear() {
+    int km = catalog.register(KILO(METRE));
+    int m = catalog.getId(METRE);
+    assertEquals(1000, catalog.getFactor(km, m), 1E-12);
+    assertEquals(0, catalog.getOffset(km, m), 0);
+    assertEquals(2.5, catalog.convert(2500, m, km), 1E-12);
+  }
+
+  @Test
+  public void testAffine() {
+    int celsius = catalog.getId(CELSIUS);
+    int kelvin = catalog.getId(KELVIN);
+    assertEquals(273.15, catalog.getOffset(celsius, kelvin), 1E-12);
+    assertEquals(293.15, catalog.convert(20, celsius, kelvin), 1E-12);
+    assertEquals(-273.15, catalog.convert(0, kelvin, celsius), 1E-12);
+  }
+
+  @Test(expected = UnconvertibleException.class)
+  public void testDifferentDimensions() {
+    catalog.convert(1, catalog.getId(METRE), catalog.getId(SECOND));
+  }
+}
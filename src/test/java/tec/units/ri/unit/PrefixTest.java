@@ -30,20 +30,24 @@
 package tec.units.ri.unit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static tec.units.ri.unit.MetricPrefix.*;
 import static tec.units.ri.unit.Units.GRAM;
 import static tec.units.ri.unit.Units.KILOGRAM;
 import static tec.units.ri.unit.Units.LITRE;
 import static tec.units.ri.unit.Units.METRE;
+import static tec.units.ri.unit.Units.SECOND;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
 import javax.measure.UnitConverter;
+import javax.measure.quantity.Length;
 import javax.measure.quantity.Mass;
 import javax.measure.quantity.Volume;
 
 import org.junit.Test;
 
+import tec.units.ri.format.SimpleUnitFormat;
 import tec.units.ri.function.RationalConverter;
 import tec.units.ri.quantity.Quantities;
 
@@ -99,7 +103,7 @@ public class PrefixTest {
   @Test
   public void testBetweenPrefixes() {
     UnitConverter conv = YOTTA(METRE).getConverterTo(ZETTA(METRE));
-    assertEquals(new RationalConverter(4.7683715820312499E17, 4.76837158203125E14), conv); // TODO value?
+    assertEquals(RationalConverter.of(1000, 1), conv);
   }
 
   @Test
@@ -107,4 +111,27 @@ public class PrefixTest {
     UnitConverter conv = KILO(METRE).getConverterTo(GIGA(METRE));
     assertEquals(RationalConverter.of(1d, 1000000d), conv);
   }
+
+  @Test
+  public void testCanonical() {
+    assertSame(MILLI(METRE), MILLI(METRE));
+    assertSame(KILO(LITRE), KILO(LITRE));
+    assertEquals(METRE.transform(MILLI.getConverter()), MILLI(METRE));
+  }
+
+  @Test
+  public void testCanonicalNotEvicted() {
+    Unit<Length> mm = MILLI(METRE);
+    for (int i = 0; i < 2000; i++) {
+      MILLI(METRE.multiply(i + 2)); // Ad hoc units.
+    }
+    assertSame(mm, MILLI(METRE));
+    assertSame(mm, MILLI.prefix(METRE));
+  }
+
+  @Test
+  public void testCanonicalParsed() {
+    assertSame(MILLI(METRE), SimpleUnitFormat.getInstance().parse("mm"));
+    assertSame(MICRO(SECOND), SimpleUnitFormat.getInstance().parse("µs"));
+  }
 }
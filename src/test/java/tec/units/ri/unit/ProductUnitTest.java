@@ -0,0 +1,153 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2016, Jean-Marie Dautelle, Werner Keil, V2COM.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-363 nor the names of its contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tec.units.ri.unit;
+
+import static org.junit.Assert.*;
+import static tec.units.ri.unit.MetricPrefix.KILO;
+import static tec.units.ri.unit.Units.*;
+
+import javax.measure.Unit;
+
+import org.junit.Test;
+
+import tec.units.ri.AbstractUnit;
+import tec.units.ri.function.RationalConverter;
+
+/**
+ *
+ * @author Werner Keil
+ */
+public class ProductUnitTest {
+
+  @Test
+  public void testQuotientIsInterned() {
+    Unit<?> speed = METRE.divide(SECOND);
+    assertSame(speed, METRE.divide(SECOND));
+    assertSame(speed, METRE.multiply(SECOND.inverse()));
+  }
+
+  @Test
+  public void testProductIsInterned() {
+    Unit<?> power = KILOGRAM.multiply(METRE.pow(2)).divide(SECOND.pow(3));
+    assertSame(power, KILOGRAM.multiply(METRE.pow(2)).divide(SECOND.pow(3)));
+    assertEquals(WATT.getDimension(), power.getDimension());
+  }
+
+  @Test
+  public void testPow() {
+    Unit<?> m3 = METRE.pow(3);
+    assertEquals(METRE.multiply(METRE).multiply(METRE), m3);
+    assertSame(m3, METRE.pow(3));
+    assertEquals(METRE, m3.root(3));
+    assertEquals(METRE.pow(3).inverse(), METRE.pow(-3));
+    assertSame(METRE, METRE.pow(1));
+    assertSame(AbstractUnit.ONE, METRE.pow(0));
+  }
+
+  @Test
+  public void testPowOfProduct() {
+    Unit<?> speed = METRE.divide(SECOND);
+    assertEquals(speed.multiply(speed), speed.pow(2));
+    assertEquals(SECOND.divide(METRE).pow(2), speed.pow(-2));
+  }
+
+  @Test
+  public void testRoot() {
+    Unit<?> area = METRE.pow(2);
+    assertEquals(METRE, area.root(2));
+    assertSame(area.root(2), area.root(2));
+  }
+
+  @Test
+  public void testCanonicalOrder() {
+    Unit<?> ms = METRE.multiply(SECOND);
+    Unit<?> sm = SECOND.multiply(METRE);
+    assertEquals(ms, sm);
+    assertEquals(ms.hashCode(), sm.hashCode());
+    ProductUnit<?> product = (ProductUnit<?>) sm;
+    assertEquals(SECOND, product.getUnit(0)); // Insertion order is kept.
+    assertEquals(METRE, product.getUnit(1));
+  }
+
+  @Test
+  public void testFormatOrder() {
+    assertEquals("m·kg", METRE.multiply(KILOGRAM).toString());
+    assertEquals("kg·m", KILOGRAM.multiply(METRE).toString());
+    assertEquals("m·kg", METRE.multiply(KILOGRAM).toString());
+    assertEquals("m/s", METRE.divide(SECOND).toString());
+    assertEquals("kg·m/s²", KILOGRAM.multiply(METRE).divide(SECOND.pow(2)).toString());
+    assertEquals(KILOGRAM.multiply(METRE), METRE.multiply(KILOGRAM));
+  }
+
+  @Test
+  public void testEqualsUnsymbolled() {
+    Unit<?> litre = CUBIC_METRE.divide(1000); // Equal to LITRE, without symbol.
+    assertNull(litre.getSymbol());
+    assertEquals(LITRE, litre);
+    Unit<?> symbolled = LITRE.multiply(METRE);
+    Unit<?> unsymbolled = METRE.multiply(litre);
+    assertEquals(symbolled, unsymbolled);
+    assertEquals(unsymbolled, symbolled);
+    assertEquals(symbolled.hashCode(), unsymbolled.hashCode());
+    assertEquals(LITRE.divide(SECOND), litre.divide(SECOND));
+    assertEquals(LITRE.divide(SECOND).hashCode(), litre.divide(SECOND).hashCode());
+  }
+
+  @Test
+  public void testEqualsCopy() {
+    assertEquals(METRES_PER_SECOND, METRE.divide(SECOND));
+    assertEquals(METRE.divide(SECOND), METRES_PER_SECOND);
+    assertFalse(METRE.divide(SECOND).equals(SECOND.divide(METRE)));
+  }
+
+  @Test
+  public void testSystemConverter() {
+    AbstractUnit<?> kmh = (AbstractUnit<?>) KILO(METRE).divide(HOUR);
+    assertEquals(RationalConverter.of(5, 18), kmh.getSystemConverter());
+    assertSame(kmh.getSystemConverter(), kmh.getSystemConverter());
+    assertEquals(5, kmh.getSystemConverter().convert(18), 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSystemConverterNonLinear() {
+    ((AbstractUnit<?>) CELSIUS.multiply(METRE)).getSystemConverter();
+  }
+
+  @Test
+  public void testDerivedStateIsHeld() {
+    AbstractUnit<?> kmh = (AbstractUnit<?>) KILO(METRE).divide(HOUR);
+    assertSame(kmh.getSystemUnit(), kmh.getSystemUnit());
+    assertSame(kmh.getDimension(), kmh.getDimension());
+    assertEquals(METRE.divide(SECOND), kmh.getSystemUnit());
+    assertFalse(kmh.isSystemUnit());
+    assertTrue(((AbstractUnit<?>) METRE.divide(SECOND)).isSystemUnit());
+    assertTrue(kmh.isCompatible(METRES_PER_SECOND));
+  }
+}